@@ -85,7 +85,10 @@ CREATE TABLE `training_article` (
   `publish_at` datetime DEFAULT NULL,
   `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
   `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_article_status_publish` (`publish_status`, `publish_at`, `id`),
+  KEY `idx_article_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`),
+  KEY `idx_article_publish` (`publish_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ----------------------------
@@ -104,7 +107,10 @@ CREATE TABLE `training_video` (
   `publish_at` datetime DEFAULT NULL,
   `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
   `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_video_status_publish` (`publish_status`, `publish_at`, `id`),
+  KEY `idx_video_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`),
+  KEY `idx_video_publish` (`publish_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ----------------------------
@@ -123,7 +129,10 @@ CREATE TABLE `training_ppt` (
   `publish_at` datetime DEFAULT NULL,
   `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
   `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_ppt_status_publish` (`publish_status`, `publish_at`, `id`),
+  KEY `idx_ppt_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`),
+  KEY `idx_ppt_publish` (`publish_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,80 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.hwadee.mybatisplustest.common.CommonResult;
+import com.hwadee.mybatisplustest.controller.ArticleViewController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章浏览记录(POST /article/view/record)
+ *
+ * - recordView: 已有浏览记录的 (文章, 用户) 再次浏览, 走"查询 + 更新 + 汇总总浏览量"路径,
+ *   汇总会把该文章的全部浏览记录查出来求和, 因此每篇文章的浏览人数(views / articles)决定了开销
+ * - recordAnonymousView: 匿名浏览(user_id IS NULL), 第一次插入, 之后都是更新
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleViewBenchmark {
+
+    /** 文章数 */
+    @Param({"1000"})
+    public int articles;
+
+    /** 已有浏览记录数(不超过 articles * users) */
+    @Param({"10000", "200000"})
+    public int views;
+
+    private BenchDatabase database;
+    private ArticleViewController controller;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int users = (views + articles - 1) / articles;
+        database = BenchDatabase.create()
+                .seedUsers(users)
+                .seedArticles(articles, 10)
+                .seedArticleViews(views, articles);
+        controller = database.start().getBean(ArticleViewController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public CommonResult<?> recordView() {
+        int i = ThreadLocalRandom.current().nextInt(views);  // 与 BenchDatabase.seedArticleViews 的编号规则一致
+        Map<String, Object> body = new HashMap<>();
+        body.put("articleId", i % articles + 1);
+        body.put("userId", i / articles + 1);
+        return controller.recordView(body);
+    }
+
+    @Benchmark
+    public CommonResult<?> recordAnonymousView() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("articleId", ThreadLocalRandom.current().nextInt(articles) + 1);
+        return controller.recordView(body);
+    }
+}
@@ -0,0 +1,247 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.hwadee.mybatisplustest.MybatisPlusTestApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基准测试数据库: H2 内存库(MySQL 兼容模式) + 固定随机种子的数据集 + 不带 Web 容器的应用上下文
+ *
+ * 用法(每个 JMH Trial 一个实例):
+ * 1. create() 建库建表
+ * 2. seedXxx(...) 按 @Param 的规模写入数据(应用启动前写入, 启动时预热的内存缓存能看到这些数据)
+ * 3. start() 启动应用, 从上下文中取 Controller/Service 调用
+ * 4. close() 关闭应用并删除内存库
+ */
+public final class BenchDatabase implements AutoCloseable {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+    private static final int BATCH = 1000;  // 每批写入行数
+
+    private final String url;
+    private final Connection keepAlive;  // 持有一个连接, 内存库在最后一个连接关闭时才会删除
+    private final Random random = new Random(42);  // 固定种子, 不同提交之间的数据集完全相同
+    private final LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private ConfigurableApplicationContext context;
+
+    private BenchDatabase(String url, Connection keepAlive) {
+        this.url = url;
+        this.keepAlive = keepAlive;
+    }
+
+    public static BenchDatabase create() {
+        String url = "jdbc:h2:mem:bench" + SEQ.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE";
+        try {
+            Connection conn = DriverManager.getConnection(url, "sa", "");
+            ScriptUtils.executeSqlScript(conn, new EncodedResource(new ClassPathResource("bench-schema.sql"), StandardCharsets.UTF_8));
+            return new BenchDatabase(url, conn);
+        } catch (SQLException e) {
+            throw new IllegalStateException("创建基准测试数据库失败", e);
+        }
+    }
+
+    /** 用户: id 1..count */
+    public BenchDatabase seedUsers(int count) {
+        return seedUsers(count, "bench");  // 基准测试不走登录, 不需要真实哈希
+    }
+
+    /** 用户: id 1..count, 用户名 nurse0..nurse(count-1), 密码统一为 password(压测登录时传入同一个哈希) */
+    public BenchDatabase seedUsers(int count, String password) {
+        String[] departments = {"内科", "外科", "儿科", "急诊科", "ICU"};
+        return batch("INSERT INTO `user` (username, age, email, password, role, department, position) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                count, (ps, i) -> {
+                    ps.setString(1, "nurse" + i);
+                    ps.setInt(2, 22 + random.nextInt(30));
+                    ps.setString(3, "nurse" + i + "@example.com");
+                    ps.setString(4, password);
+                    ps.setString(5, "nurse");
+                    ps.setString(6, departments[i % departments.length]);
+                    ps.setString(7, "护士");
+                });
+    }
+
+    /** 培训分类: id 1..count, 每5个中有1个禁用 */
+    public BenchDatabase seedCategories(int count) {
+        return batch("INSERT INTO training_category (name, description, sort_order, status) VALUES (?, ?, ?, ?)",
+                count, (ps, i) -> {
+                    ps.setString(1, "分类" + i);
+                    ps.setString(2, "基准测试分类" + i);
+                    ps.setInt(3, i);
+                    ps.setInt(4, i % 5 == 0 ? 0 : 1);
+                });
+    }
+
+    /** 培训文章: id 1..count, 均匀分布到 categories 个分类 */
+    public BenchDatabase seedArticles(int count, int categories) {
+        String[] topics = {"静脉输液", "压疮护理", "心肺复苏", "无菌操作", "用药安全", "跌倒预防", "导尿护理", "手卫生"};
+        String content = "<p>" + "护理操作规范与注意事项。".repeat(100) + "</p>";  // 约2KB正文, 与线上文章量级相当
+        return batch("INSERT INTO training_article (title, cover_url, category_id, tag_ids, content, publish_status, publish_at, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                count, (ps, i) -> {
+                    Timestamp at = timestamp(i);
+                    ps.setString(1, topics[random.nextInt(topics.length)] + "第" + i + "讲");
+                    ps.setString(2, "/upload/cover/" + i + ".jpg");
+                    ps.setLong(3, 1 + random.nextInt(categories));
+                    ps.setString(4, (1 + random.nextInt(20)) + "," + (1 + random.nextInt(20)));
+                    ps.setString(5, content);
+                    ps.setInt(6, random.nextInt(10) == 0 ? 0 : 1);
+                    ps.setTimestamp(7, at);
+                    ps.setTimestamp(8, at);
+                    ps.setTimestamp(9, at);
+                });
+    }
+
+    /** 培训视频: id 1..count, 均匀分布到 categories 个分类 */
+    public BenchDatabase seedVideos(int count, int categories) {
+        return batch("INSERT INTO training_video (title, cover_url, video_url, duration_seconds, category_id, tag_ids, publish_status, publish_at, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                count, (ps, i) -> {
+                    Timestamp at = timestamp(i);
+                    ps.setString(1, "护理操作示范视频" + i);
+                    ps.setString(2, "/upload/cover/v" + i + ".jpg");
+                    ps.setString(3, "/upload/video/" + i + ".mp4");
+                    ps.setInt(4, 60 + random.nextInt(1800));
+                    ps.setLong(5, 1 + random.nextInt(categories));
+                    ps.setString(6, String.valueOf(1 + random.nextInt(20)));
+                    ps.setInt(7, random.nextInt(10) == 0 ? 0 : 1);
+                    ps.setTimestamp(8, at);
+                    ps.setTimestamp(9, at);
+                    ps.setTimestamp(10, at);
+                });
+    }
+
+    /**
+     * 文章浏览记录: 第 i 条为 (文章 i % articles + 1, 用户 i / articles + 1), 保证 (文章, 用户) 不重复
+     * 需要 count <= articles * users
+     */
+    public BenchDatabase seedArticleViews(int count, int articles) {
+        return batch("INSERT INTO article_view (article_id, user_id, view_count, last_viewed_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                count, (ps, i) -> {
+                    Timestamp at = timestamp(i);
+                    ps.setLong(1, i % articles + 1);
+                    ps.setLong(2, i / articles + 1);
+                    ps.setInt(3, 1 + random.nextInt(20));
+                    ps.setTimestamp(4, at);
+                    ps.setTimestamp(5, at);
+                    ps.setTimestamp(6, at);
+                });
+    }
+
+    /** 文章学习进度: 每个用户学习了文章 1..perUser 且全部完成 */
+    public BenchDatabase seedCompletedProgress(int users, int perUser) {
+        return batch("INSERT INTO user_learning_progress (user_id, article_id, progress_percent, is_completed, started_at, completed_at, last_studied_at, created_at) "
+                        + "VALUES (?, ?, 100, TRUE, ?, ?, ?, ?)",
+                users * perUser, (ps, i) -> {
+                    Timestamp at = timestamp(i);
+                    ps.setLong(1, i / perUser + 1);
+                    ps.setLong(2, i % perUser + 1);
+                    ps.setTimestamp(3, at);
+                    ps.setTimestamp(4, at);
+                    ps.setTimestamp(5, at);
+                    ps.setTimestamp(6, at);
+                });
+    }
+
+    /** 通知: 每个用户 perUser 条, 约三分之一未读 */
+    public BenchDatabase seedNotifications(int users, int perUser) {
+        return batch("INSERT INTO notification (user_id, type, title, content, icon, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                users * perUser, (ps, i) -> {
+                    ps.setLong(1, i / perUser + 1);
+                    ps.setString(2, "learning_reminder");
+                    ps.setString(3, "学习提醒");
+                    ps.setString(4, "您有新的培训内容待学习");
+                    ps.setString(5, "📚");
+                    ps.setBoolean(6, random.nextInt(3) != 0);
+                    ps.setTimestamp(7, timestamp(i));
+                });
+    }
+
+    /** 启动应用(不启动 Web 容器), 数据源指向本内存库, 不执行线上的迁移脚本 */
+    public ConfigurableApplicationContext start() {
+        return start(WebApplicationType.NONE);
+    }
+
+    /**
+     * 启动应用并监听随机端口(端口号见 local.server.port), 用于 HTTP 压测
+     *
+     * @param properties 额外配置, 如 "login.rate-limit.trust-forwarded-for=true"
+     */
+    public ConfigurableApplicationContext startServer(String... properties) {
+        List<String> args = new ArrayList<>(List.of("server.port=0", "management.server.port=0"));
+        args.addAll(List.of(properties));
+        return start(WebApplicationType.SERVLET, args.toArray(String[]::new));
+    }
+
+    private ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=never",
+                "--migration.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        context = new SpringApplicationBuilder(MybatisPlusTestApplication.class)
+                .web(type)
+                .run(args.toArray(String[]::new));
+        return context;
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        try {
+            keepAlive.close();
+        } catch (SQLException ignored) {
+            // 内存库随最后一个连接关闭而删除, 关闭失败不影响后续 Trial(库名不同)
+        }
+    }
+
+    private Timestamp timestamp(int i) {
+        return Timestamp.valueOf(baseTime.plusMinutes(i));
+    }
+
+    private BenchDatabase batch(String sql, int count, RowBinder binder) {
+        try (PreparedStatement ps = keepAlive.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {  // i 从0开始, 自增主键从1开始
+                binder.bind(ps, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            return this;
+        } catch (SQLException e) {
+            throw new IllegalStateException("写入基准测试数据失败: " + sql, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int i) throws SQLException;
+    }
+}
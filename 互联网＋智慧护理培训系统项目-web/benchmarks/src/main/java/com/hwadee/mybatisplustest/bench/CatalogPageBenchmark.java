@@ -0,0 +1,105 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.hwadee.mybatisplustest.common.CommonResult;
+import com.hwadee.mybatisplustest.controller.TrainingArticleController;
+import com.hwadee.mybatisplustest.controller.TrainingCategoryController;
+import com.hwadee.mybatisplustest.controller.TrainingVideoController;
+import com.hwadee.mybatisplustest.entity.TrainingArticle;
+import com.hwadee.mybatisplustest.entity.TrainingVideo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 培训目录分页查询(只读)
+ *
+ * - articlePage / videoPage: 前20页内随机翻页, 一半请求带分类筛选(COUNT + LIMIT 两条SQL)
+ * - articleSearch: 标题关键词模糊搜索(LIKE '%关键词%', 无法走索引, 开销随文章数线性增长)
+ * - categoryList: 启用分类列表
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogPageBenchmark {
+
+    private static final String[] KEYWORDS = {"静脉", "压疮", "心肺复苏", "无菌", "用药", "跌倒"};
+
+    /** 文章数 */
+    @Param({"1000", "50000"})
+    public int articles;
+
+    /** 视频数 */
+    @Param({"1000"})
+    public int videos;
+
+    /** 分类数 */
+    @Param({"20"})
+    public int categories;
+
+    private BenchDatabase database;
+    private TrainingArticleController articleController;
+    private TrainingVideoController videoController;
+    private TrainingCategoryController categoryController;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchDatabase.create()
+                .seedCategories(categories)
+                .seedArticles(articles, categories)
+                .seedVideos(videos, categories);
+        ConfigurableApplicationContext context = database.start();
+        articleController = context.getBean(TrainingArticleController.class);
+        videoController = context.getBean(TrainingVideoController.class);
+        categoryController = context.getBean(TrainingCategoryController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public CommonResult<Page<TrainingArticle>> articlePage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return articleController.page(random.nextInt(20) + 1, 10, null, randomCategory(random));
+    }
+
+    @Benchmark
+    public CommonResult<Page<TrainingArticle>> articleSearch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return articleController.page(1, 10, KEYWORDS[random.nextInt(KEYWORDS.length)], null);
+    }
+
+    @Benchmark
+    public CommonResult<Page<TrainingVideo>> videoPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return videoController.page(random.nextInt(20) + 1, 10, null, randomCategory(random));
+    }
+
+    @Benchmark
+    public CommonResult<Object> categoryList() {
+        return categoryController.list(1);
+    }
+
+    private Long randomCategory(ThreadLocalRandom random) {
+        return random.nextBoolean() ? (long) random.nextInt(categories) + 1 : null;
+    }
+}
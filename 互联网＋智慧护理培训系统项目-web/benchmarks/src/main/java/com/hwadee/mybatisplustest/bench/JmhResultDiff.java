@@ -0,0 +1,100 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 比较两次 JMH 结果(-rf json 输出)
+ *
+ * 按"基准方法 + 参数"对齐, 输出每项的基线值、当前值和变化百分比;
+ * 指定阈值时, 任一项退化超过阈值则以退出码1结束, 便于在构建脚本中拦截性能回退.
+ *
+ * 用法:
+ * mvn exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.JmhResultDiff -Dexec.args="base.json target/jmh-result.json 10"
+ *   参数: 基线结果 当前结果 [退化阈值(百分比)]
+ */
+public final class JmhResultDiff {
+
+    private JmhResultDiff() {
+    }
+
+    /** 一项结果: 模式(avgt/thrpt/sample/ss)、分数、误差、单位 */
+    record Score(String mode, double score, double error, String unit) {
+
+        /** 吞吐量越大越好, 其余模式(耗时)越小越好 */
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return Double.isNaN(error) ? String.format("%.3f", score) : String.format("%.3f ±%.3f", score, error);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: JmhResultDiff <基线结果.json> <当前结果.json> [退化阈值%]");
+            System.exit(2);
+        }
+        Map<String, Score> base = load(Path.of(args[0]));
+        Map<String, Score> head = load(Path.of(args[1]));
+        Double threshold = args.length > 2 ? Double.valueOf(args[2]) : null;
+
+        int regressions = 0;
+        System.out.printf("%-70s %6s %22s %22s %9s%n", "基准(参数)", "模式", "基线(±误差)", "当前(±误差)", "变化");
+        for (Map.Entry<String, Score> entry : head.entrySet()) {
+            Score now = entry.getValue();
+            Score before = base.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %6s %22s %22s %9s%n", entry.getKey(), now.mode(), "-", now.format(), "新增");
+                continue;
+            }
+            double change = before.score() == 0 ? 0 : (now.score() - before.score()) / before.score() * 100;
+            double worse = now.higherIsBetter() ? -change : change;  // 正数表示变差
+            boolean regressed = threshold != null && worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %6s %22s %22s %+8.1f%%%s%n", entry.getKey(), now.mode(),
+                    before.format(), now.format(), change, regressed ? "  <-- 退化" : "");
+        }
+        for (String key : base.keySet()) {
+            if (!head.containsKey(key)) {
+                System.out.printf("%-70s %6s %22s %22s %9s%n", key, base.get(key).mode(), base.get(key).format(), "-", "已删除");
+            }
+        }
+        if (!head.isEmpty()) {
+            System.out.println("单位: " + head.values().iterator().next().unit() + " (以各基准的 @OutputTimeUnit 为准)");
+        }
+        if (regressions > 0) {
+            System.err.printf("%d 项退化超过 %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /** 读取结果文件, key 为 "类名.方法名(参数=值, ...)", 按 key 排序 */
+    static Map<String, Score> load(Path file) throws IOException {
+        JSONArray results = JSON.parseArray(Files.readString(file, StandardCharsets.UTF_8));
+        Map<String, Score> scores = new TreeMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            String benchmark = result.getString("benchmark");
+            benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            JSONObject rawParams = result.getJSONObject("params");
+            Map<String, Object> params = rawParams == null ? Map.of() : new TreeMap<>(rawParams);  // 参数按名称排序
+            String key = params.isEmpty() ? benchmark : benchmark + params.toString().replace('{', '(').replace('}', ')');
+            JSONObject metric = result.getJSONObject("primaryMetric");
+            scores.put(key, new Score(result.getString("mode"), metric.getDoubleValue("score"),
+                    metric.getDoubleValue("scoreError"), metric.getString("scoreUnit")));
+        }
+        return scores;
+    }
+}
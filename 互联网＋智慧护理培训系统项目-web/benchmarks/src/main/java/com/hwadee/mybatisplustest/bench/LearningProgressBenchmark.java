@@ -0,0 +1,86 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.hwadee.mybatisplustest.common.CommonResult;
+import com.hwadee.mybatisplustest.controller.UserLearningProgressController;
+import com.hwadee.mybatisplustest.service.LearningAchievementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 学习进度与成就检查
+ *
+ * - recordProgress: POST /learning/progress/record, 更新已完成文章的进度(查询 + 更新, 不触发成就检查)
+ * - checkAndUnlockAchievements: 查询用户全部学习进度和已解锁成就, 与成就定义逐条比较;
+ *   预热阶段会把达到条件的成就解锁, 测量阶段为稳定的只读路径
+ *
+ * 每个用户都完成了 perUser 篇文章, perUser 决定每次检查读出的进度行数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LearningProgressBenchmark {
+
+    /** 用户数 */
+    @Param({"1000"})
+    public int users;
+
+    /** 每个用户已完成的文章数 */
+    @Param({"10", "100"})
+    public int perUser;
+
+    private BenchDatabase database;
+    private UserLearningProgressController controller;
+    private LearningAchievementService achievementService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchDatabase.create()
+                .seedUsers(users)
+                .seedArticles(perUser, 10)
+                .seedCompletedProgress(users, perUser);
+        ConfigurableApplicationContext context = database.start();
+        controller = context.getBean(UserLearningProgressController.class);
+        achievementService = context.getBean(LearningAchievementService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public CommonResult<?> recordProgress() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> body = new HashMap<>();
+        body.put("userId", random.nextInt(users) + 1);
+        body.put("articleId", random.nextInt(perUser) + 1);
+        body.put("progressPercent", 100);
+        body.put("isCompleted", true);  // 保持已完成, 数据集在测量期间不变
+        return controller.recordProgress(body);
+    }
+
+    @Benchmark
+    public void checkAndUnlockAchievements() {
+        achievementService.checkAndUnlockAchievements((long) ThreadLocalRandom.current().nextInt(users) + 1);
+    }
+}
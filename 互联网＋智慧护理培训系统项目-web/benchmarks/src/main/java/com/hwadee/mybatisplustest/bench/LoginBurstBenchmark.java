@@ -0,0 +1,101 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.hwadee.mybatisplustest.security.CredentialVerifier;
+import com.hwadee.mybatisplustest.security.PasswordHasher;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录突发压测: 1000 个并发登录的校验延迟与哈希 CPU 开销
+ *
+ * 模拟换班时段: 第一轮为冷启动(全部计算 PBKDF2), 第二轮为同一批账号重复登录(命中校验缓存)
+ * 只测 CredentialVerifier + PasswordHasher, 不含数据库查询
+ *
+ * 用法(benchmarks 目录):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.LoginBurstBenchmark -Dexec.args="--logins=1000"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   logins(1000) 并发登录数; threads(200) 线程池大小, 与 Tomcat 默认最大线程数一致; iterations(210000) PBKDF2 迭代次数
+ */
+public final class LoginBurstBenchmark {
+
+    private LoginBurstBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int logins = Integer.parseInt(options.getOrDefault("logins", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "200"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "210000"));
+
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        CredentialVerifier verifier = new CredentialVerifier(hasher, 10000, 900);
+        String[] stored = new String[logins];
+        for (int i = 0; i < logins; i++) {
+            stored[i] = hasher.hash("password" + i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            burst("冷启动(PBKDF2)", pool, verifier, stored);
+            burst("重复登录(缓存)", pool, verifier, stored);
+        } finally {
+            pool.shutdown();
+        }
+        Map<String, Object> stats = verifier.stats();
+        System.out.println("校验统计: " + stats);
+    }
+
+    private static void burst(String name, ExecutorService pool, CredentialVerifier verifier, String[] stored)
+            throws Exception {
+        int logins = stored.length;
+        CountDownLatch start = new CountDownLatch(1);
+        @SuppressWarnings("unchecked")
+        Future<Long>[] futures = new Future[logins];
+        for (int i = 0; i < logins; i++) {
+            int index = i;
+            futures[i] = pool.submit(() -> {
+                start.await();
+                if (!verifier.verify("user" + index, "password" + index, stored[index])) {
+                    throw new IllegalStateException("校验失败: user" + index);
+                }
+                return System.nanoTime();  // 完成时刻
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] latencies = new long[logins];
+        for (int i = 0; i < logins; i++) {
+            latencies[i] = futures[i].get() - begin;  // 从突发开始计时, 含排队时间, 反映用户感知的延迟
+        }
+        long wall = System.nanoTime() - begin;
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d 次登录, 总耗时 %d ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                name, logins, TimeUnit.NANOSECONDS.toMillis(wall),
+                millis(latencies[logins / 2]), millis(latencies[(int) (logins * 0.99) - 1]),
+                millis(latencies[logins - 1]));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
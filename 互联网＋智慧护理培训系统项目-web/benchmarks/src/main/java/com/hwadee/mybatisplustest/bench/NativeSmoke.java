@@ -0,0 +1,308 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 原生镜像冒烟测试: 分别启动原生可执行文件和 JVM 可执行jar, 请求主要接口, 对比就绪耗时和内存占用
+ *
+ * 每个被测程序的流程:
+ * 1. 以子进程启动(连接本地 MySQL, 使用独立端口), 轮询 /actuator/health 直到返回 200, 记为就绪耗时
+ * 2. 读取进程 RSS(/proc/<pid>/status 的 VmRSS, 没有时用 ps)
+ * 3. 依次 GET 主要读接口(可选先调用登录接口), 要求 HTTP 200 且响应体 code 为 "200";
+ *    这些接口覆盖了 Mapper 代理、Lambda 条件构造器、分页插件、Jackson/fastjson2 序列化等原生镜像容易缺少提示的路径
+ * 4. 再次读取 RSS 后结束进程
+ * 任一接口失败时打印响应和日志末尾, 进程退出码为 1.
+ *
+ * 用法(先在上级目录执行 mvn -Pnative native:compile -DskipTests 和 mvn package -DskipTests, 本地库已导入 mybatisplus_test.sql):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.NativeSmoke
+ *
+ * 参数(均为 --名称=值, 括号内为默认值, native 或 jar 设为空字符串则跳过该项):
+ *   native(../target/mybatis-plus-test) 原生可执行文件; jar(../target/mybatis-plus-test-0.0.1-SNAPSHOT-exec.jar) JVM 可执行jar;
+ *   db-url(jdbc:mysql://localhost:3306/mybatisplus_test...) db-user(root) db-password(123456) 数据库;
+ *   port(18080) management-port(18081) 应用和管理端口; timeout(120) 等待就绪的秒数;
+ *   login-user() login-password() 填写时先调用 /auth/staff/login 并带上 Token 请求其余接口;
+ *   java(当前 JVM) java 可执行文件; out(target/native-smoke.json) 结果文件
+ */
+public final class NativeSmoke {
+
+    /** 主要读接口, 参数取初始化数据中存在的ID */
+    private static final String[] ENDPOINTS = {
+            "/training/category/list",
+            "/training/article/list",
+            "/training/article/page?pageNo=1&pageSize=10",
+            "/training/video/list",
+            "/training/ppt/list",
+            "/training/tag/list",
+            "/achievement/definitions",
+            "/achievement/leaderboard",
+            "/notification/unread-count/1",
+            "/favorite/counts?articleIds=1,2",
+            "/patient/page?pageNo=1&pageSize=10",
+            "/user/page?pageNo=1&pageSize=10",
+            "/learning/progress/user/1",
+            "/article/view/count/1",
+    };
+
+    private static final String DEFAULT_DB_URL = "jdbc:mysql://localhost:3306/mybatisplus_test"
+            + "?useSSL=false&serverTimezone=Asia/Shanghai&rewriteBatchedStatements=true";  // 与 application.yml 相同
+
+    private NativeSmoke() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String nativeImage = options.getOrDefault("native", "../target/mybatis-plus-test");
+        String jar = options.getOrDefault("jar", "../target/mybatis-plus-test-0.0.1-SNAPSHOT-exec.jar");
+        String java = options.getOrDefault("java", Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        Path out = Paths.get(options.getOrDefault("out", "target/native-smoke.json"));
+
+        List<String> appArgs = List.of(
+                "--server.port=" + options.getOrDefault("port", "18080"),
+                "--management.server.port=" + options.getOrDefault("management-port", "18081"),
+                "--spring.datasource.url=" + options.getOrDefault("db-url", DEFAULT_DB_URL),
+                "--spring.datasource.username=" + options.getOrDefault("db-user", "root"),
+                "--spring.datasource.password=" + options.getOrDefault("db-password", "123456"),
+                "--spring.main.banner-mode=off");
+
+        Map<String, List<String>> targets = new LinkedHashMap<>();
+        if (!nativeImage.isEmpty()) {
+            targets.put("native", command(List.of(absolute(nativeImage)), appArgs));
+        }
+        if (!jar.isEmpty()) {
+            targets.put("jvm", command(List.of(java, "-jar", absolute(jar)), appArgs));
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("native 和 jar 至少指定一个");
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        boolean allOk = true;
+        for (Map.Entry<String, List<String>> target : targets.entrySet()) {
+            Path executable = Paths.get(target.getValue().get(target.getKey().equals("jvm") ? 2 : 0));
+            if (!Files.isRegularFile(executable)) {
+                System.out.println("未找到 " + executable + ", 跳过 " + target.getKey());
+                continue;
+            }
+            System.out.println("启动 " + target.getKey() + ": " + executable);
+            Map<String, Object> result = run(target.getValue(), options);
+            results.put(target.getKey(), result);
+            allOk &= Boolean.TRUE.equals(result.get("ok"));
+        }
+
+        System.out.printf("%n%-8s %12s %14s %14s %10s%n", "对比项", "就绪(ms)", "启动后RSS(MB)", "请求后RSS(MB)", "接口通过");
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> r = (Map<String, Object>) entry.getValue();
+            System.out.printf("%-8s %12s %14s %14s %10s%n", entry.getKey(), r.get("readyMs"),
+                    r.get("rssStartMb"), r.get("rssAfterMb"), r.get("passed") + "/" + ENDPOINTS.length);
+        }
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        JSONObject json = new JSONObject();
+        json.put("endpoints", ENDPOINTS);
+        json.put("targets", results);
+        Files.writeString(out, JSON.toJSONString(json, JSONWriter.Feature.PrettyFormat), StandardCharsets.UTF_8);
+        System.out.println("\n结果已写入 " + out.toAbsolutePath());
+        if (results.isEmpty() || !allOk) {
+            System.exit(1);
+        }
+    }
+
+    /** 启动一个被测程序, 完成检查后结束进程 */
+    private static Map<String, Object> run(List<String> command, Map<String, String> options)
+            throws IOException, InterruptedException {
+        String base = "http://localhost:" + options.getOrDefault("port", "18080");
+        String health = "http://localhost:" + options.getOrDefault("management-port", "18081") + "/actuator/health";
+        long timeoutMs = Long.parseLong(options.getOrDefault("timeout", "120")) * 1000;
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("command", command);
+        File log = File.createTempFile("native-smoke", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long readyMs = waitReady(client, health, process, start, timeoutMs);
+            if (readyMs < 0) {
+                System.out.println("未能就绪(进程" + (process.isAlive() ? "超时" : "退出码 " + process.exitValue()) + "), 日志末尾:");
+                printTail(log);
+                result.put("ok", false);
+                result.put("passed", 0);
+                return result;
+            }
+            result.put("readyMs", readyMs);
+            result.put("rssStartMb", rssMb(process.pid()));
+
+            String token = login(client, base, options);
+            List<String> failures = new ArrayList<>();
+            int passed = 0;
+            for (String endpoint : ENDPOINTS) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + endpoint))
+                        .timeout(Duration.ofSeconds(10)).GET();
+                if (token != null) {
+                    request.header("Authorization", "Bearer " + token);
+                }
+                String failure = check(client, request.build());
+                if (failure == null) {
+                    passed++;
+                } else {
+                    failures.add(endpoint + " " + failure);
+                    System.out.println("  失败 " + endpoint + " " + failure);
+                }
+            }
+            result.put("rssAfterMb", rssMb(process.pid()));
+            result.put("passed", passed);
+            result.put("failures", failures);
+            result.put("ok", failures.isEmpty());
+            if (!failures.isEmpty()) {
+                System.out.println("日志末尾:");
+                printTail(log);
+            }
+            return result;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    /** 轮询健康检查直到返回 200, 返回从启动进程开始的毫秒数, 超时或进程退出时返回 -1 */
+    private static long waitReady(HttpClient client, String health, Process process, long start, long timeoutMs)
+            throws InterruptedException, IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(health)).timeout(Duration.ofSeconds(2)).GET().build();
+        while ((System.nanoTime() - start) / 1_000_000 < timeoutMs) {
+            if (!process.isAlive()) {
+                return -1;
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (ConnectException e) {
+                // 端口尚未监听
+            }
+            Thread.sleep(20);
+        }
+        return -1;
+    }
+
+    /** 指定了登录账号时调用员工登录接口, 返回 Token */
+    private static String login(HttpClient client, String base, Map<String, String> options)
+            throws IOException, InterruptedException {
+        String username = options.get("login-user");
+        if (username == null || username.isEmpty()) {
+            return null;
+        }
+        JSONObject body = new JSONObject();
+        body.put("username", username);
+        body.put("password", options.getOrDefault("login-password", ""));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/auth/staff/login"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toJSONString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        JSONObject result = JSON.parseObject(response.body());
+        if (result == null || !"200".equals(result.getString("code"))) {
+            throw new IllegalStateException("登录失败: " + response.statusCode() + " " + response.body());
+        }
+        return result.getJSONObject("data").getString("token");
+    }
+
+    /** 请求接口, 通过返回 null, 否则返回失败原因 */
+    private static String check(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 200) {
+                return "HTTP " + response.statusCode() + ": " + abbreviate(response.body());
+            }
+            JSONObject body = JSON.parseObject(response.body());
+            if (body == null || !"200".equals(body.getString("code"))) {
+                return "code 不为 200: " + abbreviate(response.body());
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    /** 进程常驻内存(MB), 读取失败返回 -1 */
+    private static long rssMb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {  // VmRSS:   123456 kB
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException e) {
+            // 非 Linux, 改用 ps
+        }
+        try {
+            Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+            String output = new String(ps.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return ps.waitFor() == 0 && !output.isEmpty() ? Long.parseLong(output) / 1024 : -1;
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static void printTail(File log) throws IOException {
+        List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+        lines.subList(Math.max(0, lines.size() - 30), lines.size()).forEach(System.out::println);
+    }
+
+    private static String abbreviate(String text) {
+        return text == null || text.length() <= 200 ? text : text.substring(0, 200) + "...";
+    }
+
+    private static List<String> command(List<String> executable, List<String> appArgs) {
+        List<String> command = new ArrayList<>(executable);
+        command.addAll(appArgs);
+        return command;
+    }
+
+    private static String absolute(String path) {
+        return Paths.get(path).toAbsolutePath().normalize().toString();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,252 @@
+package com.hwadee.mybatisplustest.bench;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 病人搜索压测: 对比旧的三路 '%关键词%' OR 查询与新的索引查询在百万病人数据下的延迟
+ *
+ * 步骤:
+ * 1. patient 表不存在时创建, 行数不足时批量生成测试数据(默认100万)
+ * 2. 执行基线迁移脚本 V1__baseline.sql 建立搜索索引(忽略失败语句)
+ * 3. 分别用姓氏单字、姓名两字片段、电话前缀、病人编号前缀作为关键词,
+ *    执行分页查询(COUNT + LIMIT 10), 统计 p50/p99
+ *
+ * 用法(benchmarks 目录, 在本地 MySQL 的测试库上执行, 会写入大量数据):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.PatientSearchBenchmark -Dexec.args="--rows=1000000"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   db-url(jdbc:mysql://localhost:3306/patient_bench?useSSL=false&serverTimezone=Asia/Shanghai&rewriteBatchedStatements=true)
+ *   db-user(root) db-password(123456); rows(1000000) 数据行数; queries(200) 每类查询次数
+ */
+public final class PatientSearchBenchmark {
+
+    private static final String SURNAMES = "王李张刘陈杨黄赵吴周徐孙马朱胡郭何高林罗郑梁谢宋唐许韩冯邓曹彭曾肖田董袁潘于蒋蔡余杜叶程苏魏吕丁任沈";
+    private static final String GIVEN = "伟芳娜秀英敏静丽强磊军洋勇艳杰娟涛明超兰霞平刚桂英华玉萍红娥玲芬燕彬建国春梅海波宁凤德文";
+    private static final String ORDER_PAGE = " ORDER BY admission_date DESC, id DESC LIMIT 10";
+
+    private PatientSearchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("db-url",
+                "jdbc:mysql://localhost:3306/patient_bench?useSSL=false&serverTimezone=Asia/Shanghai&rewriteBatchedStatements=true");
+        String user = options.getOrDefault("db-user", "root");
+        String password = options.getOrDefault("db-password", "123456");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "1000000"));
+        int queries = Integer.parseInt(options.getOrDefault("queries", "200"));
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            createTable(conn);
+            seed(conn, rows);
+            runSchemaScript(conn);
+            Random random = new Random(42);
+            bench(conn, "姓氏单字", queries, () -> String.valueOf(SURNAMES.charAt(random.nextInt(SURNAMES.length()))));
+            bench(conn, "姓名两字", queries, () -> "" + SURNAMES.charAt(random.nextInt(SURNAMES.length()))
+                    + GIVEN.charAt(random.nextInt(GIVEN.length())));
+            bench(conn, "电话前缀", queries, () -> "13" + (100000 + random.nextInt(900000)));
+            bench(conn, "编号前缀", queries, () -> "P" + (2023 + random.nextInt(3)) + random.nextInt(100));
+        }
+    }
+
+    private interface KeywordSource {
+        String next();
+    }
+
+    private static void bench(Connection conn, String name, int queries, KeywordSource keywords) throws SQLException {
+        long[] legacy = new long[queries];
+        long[] indexed = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            String kw = keywords.next();
+            Integer status = i % 2 == 0 ? 1 : null;
+            legacy[i] = timePage(conn, legacyCondition(status), legacyParams(kw, status));
+            Object[] params = indexedParams(kw, status);
+            indexed[i] = timePage(conn, indexedCondition(kw, status), params);
+        }
+        report(name + " 旧查询(%kw% OR)", legacy);
+        report(name + " 新查询(索引)", indexed);
+    }
+
+    // ==================== 旧查询: 三路前后通配 OR, 状态条件与 OR 未加括号 ====================
+
+    private static String legacyCondition(Integer status) {
+        return "name LIKE ? OR patient_no LIKE ? OR phone LIKE ?" + (status == null ? "" : " AND status = ?");
+    }
+
+    private static Object[] legacyParams(String kw, Integer status) {
+        String like = "%" + kw + "%";
+        return status == null ? new Object[]{like, like, like} : new Object[]{like, like, like, status};
+    }
+
+    // ==================== 新查询: 与 PatientServiceImpl.searchWrapper 生成的条件一致 ====================
+
+    private static String indexedCondition(String kw, Integer status) {
+        String keyword;
+        if (kw.matches("\\d+")) {
+            keyword = "(phone LIKE ? OR patient_no LIKE ?)";
+        } else if (kw.matches("[A-Za-z0-9-]+")) {
+            keyword = "(patient_no LIKE ? OR name LIKE ?)";
+        } else if (kw.codePointCount(0, kw.length()) >= 2) {
+            keyword = "MATCH(name) AGAINST(? IN BOOLEAN MODE)";
+        } else {
+            keyword = "name LIKE ?";
+        }
+        return keyword + (status == null ? "" : " AND status = ?");
+    }
+
+    private static Object[] indexedParams(String kw, Integer status) {
+        List<Object> params = new ArrayList<>();
+        if (kw.matches("[A-Za-z0-9-]+")) {
+            params.add(kw + "%");
+            params.add(kw + "%");
+        } else if (kw.codePointCount(0, kw.length()) >= 2) {
+            params.add('"' + kw + '"');
+        } else {
+            params.add(kw + "%");
+        }
+        if (status != null) {
+            params.add(status);
+        }
+        return params.toArray();
+    }
+
+    /** 分页查询耗时(COUNT + 第一页), 纳秒 */
+    private static long timePage(Connection conn, String condition, Object[] params) throws SQLException {
+        long begin = System.nanoTime();
+        try (PreparedStatement count = prepare(conn, "SELECT COUNT(*) FROM patient WHERE " + condition, params);
+             ResultSet rs = count.executeQuery()) {
+            rs.next();
+        }
+        try (PreparedStatement page = prepare(conn, "SELECT * FROM patient WHERE " + condition + ORDER_PAGE, params);
+             ResultSet rs = page.executeQuery()) {
+            while (rs.next()) {
+                rs.getLong("id");
+            }
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, Object[] params) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+        return ps;
+    }
+
+    private static void report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-24s p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n", name,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[Math.max(0, (int) Math.ceil(sorted.length * 0.99) - 1)] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    // ==================== 数据准备 ====================
+
+    private static void createTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS `patient` ("
+                    + "`id` bigint NOT NULL AUTO_INCREMENT, `patient_no` varchar(32), `name` varchar(64),"
+                    + "`gender` int, `age` int, `id_card` varchar(32), `phone` varchar(32),"
+                    + "`emergency_contact` varchar(64), `emergency_phone` varchar(32), `address` varchar(256),"
+                    + "`admission_date` datetime, `diagnosis` varchar(512), `medical_history` text,"
+                    + "`allergy_history` text, `current_medication` text, `care_level` varchar(32),"
+                    + "`room_no` varchar(16), `bed_no` varchar(16), `status` int, `remarks` varchar(512),"
+                    + "`created_by` bigint, `created_at` datetime DEFAULT CURRENT_TIMESTAMP,"
+                    + "`updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,"
+                    + "PRIMARY KEY (`id`)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+    }
+
+    private static void seed(Connection conn, int rows) throws SQLException {
+        long existing;
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM patient")) {
+            rs.next();
+            existing = rs.getLong(1);
+        }
+        if (existing >= rows) {
+            return;
+        }
+        System.out.printf("生成测试数据: %d -> %d 行%n", existing, rows);
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO patient (patient_no, name, gender, age, phone,"
+                + " admission_date, care_level, room_no, bed_no, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long i = existing; i < rows; i++) {
+                ps.setString(1, String.format("P%d%07d", 2023 + i % 3, i));
+                ps.setString(2, "" + SURNAMES.charAt(random.nextInt(SURNAMES.length()))
+                        + GIVEN.charAt(random.nextInt(GIVEN.length()))
+                        + (random.nextBoolean() ? String.valueOf(GIVEN.charAt(random.nextInt(GIVEN.length()))) : ""));
+                ps.setInt(3, 1 + random.nextInt(2));
+                ps.setInt(4, 60 + random.nextInt(35));
+                ps.setString(5, "13" + (100000000 + random.nextInt(900000000)));
+                ps.setTimestamp(6, Timestamp.valueOf(base.plusMinutes(random.nextInt(3 * 365 * 24 * 60))));
+                ps.setString(7, "一级护理");
+                ps.setString(8, String.valueOf(100 + random.nextInt(900)));
+                ps.setString(9, String.valueOf(1 + random.nextInt(4)));
+                ps.setInt(10, 1 + random.nextInt(3));
+                ps.addBatch();
+                if ((i + 1) % 5000 == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** 执行基线迁移脚本(测试库不一定有完整的表, 忽略失败语句) */
+    private static void runSchemaScript(Connection conn) throws Exception {
+        String script;
+        try (InputStream in = PatientSearchBenchmark.class.getResourceAsStream("/db/migration/V1__baseline.sql")) {
+            if (in == null) {
+                return;
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement st = conn.createStatement()) {
+            for (String sql : script.split(";\\s*\\n")) {
+                if (!sql.isBlank()) {
+                    try {
+                        st.execute(sql);
+                    } catch (SQLException ignored) {
+                        // 单条失败不影响后续语句
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
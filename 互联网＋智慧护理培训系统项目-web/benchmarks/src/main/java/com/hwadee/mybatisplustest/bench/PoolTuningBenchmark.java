@@ -0,0 +1,296 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import com.hwadee.mybatisplustest.config.PoolSizingConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池调优对比: 在真实 MySQL 上比较默认配置与 pool-tuned 配置的批量插入速度、高并发点查吞吐量和取连接耗时
+ *
+ * 对比项:
+ *   plain    HikariCP 默认值(10 个连接), 驱动不加任何属性
+ *   default  application.yml 的实际配置: 在 plain 基础上开启 rewriteBatchedStatements(URL 中配置)
+ *   tuned    application-pool-tuned.yml: 连接数按 PoolSizingConfig 计算, 加上预编译缓存等驱动属性
+ *            (直接读取类路径上的 application-pool-tuned.yml, 与应用使用同一份配置)
+ *
+ * 每项依次执行:
+ * 1. 批量插入: 单线程向临时表插入 rows 行, 每 batch-size 行 executeBatch 一次并提交(与 saveBatch 的执行方式相同)
+ * 2. 高并发点查: threads 个线程循环"取连接 - 按主键查询 - 归还连接", 预热 warmup 秒后测量 duration 秒;
+ *    分别记录取连接耗时(即 hikaricp.connections.acquire, 线程多于连接数时体现为排队)和整次查询耗时
+ * 临时表 bench_pool_tuning 在结束时删除.
+ *
+ * 用法(benchmarks 目录, 本地 MySQL 已创建 mybatisplus_test 库):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.PoolTuningBenchmark -Dexec.args="--threads=64"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   db-url(jdbc:mysql://localhost:3306/mybatisplus_test?useSSL=false&serverTimezone=Asia/Shanghai) db-user(root) db-password(123456);
+ *   rows(100000) batch-size(1000) 批量插入; threads(64) warmup(5) duration(20) 点查;
+ *   variants(plain,default,tuned) 对比项; out(target/pool-tuning-result.json) 结果文件
+ */
+public final class PoolTuningBenchmark {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);  // 可记录的最大延迟
+
+    private static final String TABLE = "bench_pool_tuning";
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+    private static final String DRIVER_PREFIX = HIKARI_PREFIX + "data-source-properties.";
+
+    private PoolTuningBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("db-url", "jdbc:mysql://localhost:3306/mybatisplus_test?useSSL=false&serverTimezone=Asia/Shanghai");
+        String user = options.getOrDefault("db-user", "root");
+        String password = options.getOrDefault("db-password", "123456");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "20"));
+        String[] variants = options.getOrDefault("variants", "plain,default,tuned").split(",");
+        Path out = Path.of(options.getOrDefault("out", "target/pool-tuning-result.json"));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        try {
+            for (String variant : variants) {
+                HikariConfig config = config(variant, url, user, password);
+                System.out.printf("%n[%s] 最大连接数 %d, 驱动属性 %s%n", variant, config.getMaximumPoolSize(), config.getDataSourceProperties());
+                try (HikariDataSource dataSource = new HikariDataSource(config)) {
+                    recreateTable(dataSource);
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("maximumPoolSize", config.getMaximumPoolSize());
+                    result.put("dataSourceProperties", config.getDataSourceProperties());
+                    result.put("batchInsert", batchInsert(dataSource, rows, batchSize));
+                    result.put("pointSelect", pointSelect(dataSource, rows, threads, warmup, duration));
+                    results.put(variant, result);
+                }
+            }
+        } finally {
+            try (HikariDataSource dataSource = new HikariDataSource(config("plain", url, user, password));
+                 Connection conn = dataSource.getConnection();
+                 Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS " + TABLE);
+            }
+        }
+
+        System.out.printf("%n%-8s %6s %14s %12s %10s %10s %14s %14s %14s%n", "对比项", "连接数", "插入(行/秒)",
+                "点查(次/秒)", "p50(ms)", "p99(ms)", "取连接p50(ms)", "取连接p99(ms)", "取连接max(ms)");
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> r = (Map<String, Object>) entry.getValue();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> insert = (Map<String, Object>) r.get("batchInsert");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> select = (Map<String, Object>) r.get("pointSelect");
+            System.out.printf("%-8s %6d %14.0f %12.0f %10.2f %10.2f %14.3f %14.3f %14.3f%n", entry.getKey(),
+                    r.get("maximumPoolSize"), insert.get("rowsPerSecond"), select.get("throughput"),
+                    select.get("p50Ms"), select.get("p99Ms"), select.get("acquireP50Ms"), select.get("acquireP99Ms"),
+                    select.get("acquireMaxMs"));
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rows", rows);
+        settings.put("batchSize", batchSize);
+        settings.put("threads", threads);
+        settings.put("duration", duration);
+        settings.put("cores", Runtime.getRuntime().availableProcessors());
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        JSONObject json = new JSONObject();
+        json.put("settings", settings);
+        json.put("variants", results);
+        Files.writeString(out, JSON.toJSONString(json, JSONWriter.Feature.PrettyFormat), StandardCharsets.UTF_8);
+        System.out.println("\n结果已写入 " + out.toAbsolutePath());
+    }
+
+    /** 各对比项的连接池配置 */
+    private static HikariConfig config(String variant, String url, String user, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setPoolName("bench-" + variant);
+        switch (variant) {
+            case "plain":
+                break;
+            case "default":
+                config.addDataSourceProperty("rewriteBatchedStatements", "true");
+                break;
+            case "tuned":
+                Properties tuned = tunedProperties();
+                for (Object key : tuned.keySet()) {  // YAML 中的布尔和数字值不是字符串, 不能用 stringPropertyNames
+                    String name = key.toString();
+                    if (name.startsWith(DRIVER_PREFIX)) {
+                        config.addDataSourceProperty(name.substring(DRIVER_PREFIX.length()), String.valueOf(tuned.get(key)));
+                    }
+                }
+                config.setConnectionTimeout(Long.parseLong(tuned.getProperty(HIKARI_PREFIX + "connection-timeout", "30000")));
+                config.setMaxLifetime(Long.parseLong(tuned.getProperty(HIKARI_PREFIX + "max-lifetime", "1800000")));
+                config.setMaximumPoolSize(PoolSizingConfig.poolSize(Runtime.getRuntime().availableProcessors(),
+                        Integer.parseInt(tuned.getProperty("pool.sizing.spindles", "1")),
+                        Integer.parseInt(tuned.getProperty("pool.sizing.db-max-connections", "151")),
+                        Integer.parseInt(tuned.getProperty("pool.sizing.reserved-connections", "10")),
+                        Integer.parseInt(tuned.getProperty("pool.sizing.instances", "1"))));
+                break;
+            default:
+                throw new IllegalArgumentException("未知对比项: " + variant + ", 可选 plain, default, tuned");
+        }
+        return config;
+    }
+
+    /** 读取应用类路径上的 application-pool-tuned.yml(展开为 a.b.c 形式的键) */
+    private static Properties tunedProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application-pool-tuned.yml"));
+        Properties properties = yaml.getObject();
+        if (properties == null || properties.isEmpty()) {
+            throw new IllegalStateException("类路径上没有 application-pool-tuned.yml, 请先在上级目录执行 mvn install -DskipTests");
+        }
+        return properties;
+    }
+
+    private static void recreateTable(HikariDataSource dataSource) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + TABLE);
+            st.execute("CREATE TABLE " + TABLE + " (\n"
+                    + "  id bigint NOT NULL AUTO_INCREMENT,\n"
+                    + "  user_id bigint NOT NULL,\n"
+                    + "  article_id bigint NOT NULL,\n"
+                    + "  title varchar(200) NOT NULL,\n"
+                    + "  created_at datetime NOT NULL,\n"
+                    + "  PRIMARY KEY (id)\n"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+    }
+
+    /** 单线程批量插入, 每批提交一次 */
+    private static Map<String, Object> batchInsert(HikariDataSource dataSource, int rows, int batchSize) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long start = System.nanoTime();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("INSERT INTO " + TABLE
+                     + " (user_id, article_id, title, created_at) VALUES (?, ?, ?, ?)")) {
+            conn.setAutoCommit(false);
+            for (int i = 1; i <= rows; i++) {
+                ps.setLong(1, i % 2000 + 1);
+                ps.setLong(2, i % 500 + 1);
+                ps.setString(3, "压测标题 " + i);
+                ps.setTimestamp(4, now);
+                ps.addBatch();
+                if (i % batchSize == 0 || i == rows) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            conn.setAutoCommit(true);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  批量插入 %d 行, 耗时 %.2f 秒, %.0f 行/秒%n", rows, seconds, rows / seconds);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("seconds", seconds);
+        result.put("rowsPerSecond", rows / seconds);
+        return result;
+    }
+
+    /** 多线程按主键点查, 每次查询都从连接池取连接(与请求内单条查询的连接使用方式相同) */
+    private static Map<String, Object> pointSelect(HikariDataSource dataSource, int rows, int threads, int warmup, int duration)
+            throws InterruptedException {
+        Recorder queries = new Recorder(HIGHEST_MICROS, 3);
+        Recorder acquires = new Recorder(HIGHEST_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    boolean measured = now >= measureFrom;
+                    try (Connection conn = dataSource.getConnection()) {
+                        long acquired = System.nanoTime();
+                        try (PreparedStatement ps = conn.prepareStatement(
+                                "SELECT id, user_id, article_id, title, created_at FROM " + TABLE + " WHERE id = ?")) {
+                            ps.setLong(1, 1 + random.nextInt(rows));
+                            try (ResultSet rs = ps.executeQuery()) {
+                                rs.next();
+                            }
+                        }
+                        if (measured) {
+                            acquires.recordValue(Math.min(HIGHEST_MICROS, (acquired - now) / 1000));
+                            queries.recordValue(Math.min(HIGHEST_MICROS, (System.nanoTime() - now) / 1000));
+                        }
+                    } catch (SQLException e) {
+                        if (measured) {
+                            errors.increment();
+                        }
+                    }
+                }
+            }, "select-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Histogram query = queries.getIntervalHistogram();
+        Histogram acquire = acquires.getIntervalHistogram();
+        System.out.printf("  点查 %d 线程, %.0f 次/秒, p99 %.2f ms, 取连接 p99 %.3f ms%n", threads,
+                query.getTotalCount() / (double) duration, query.getValueAtPercentile(99) / 1000.0,
+                acquire.getValueAtPercentile(99) / 1000.0);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", query.getTotalCount());
+        result.put("errors", errors.sum());
+        result.put("throughput", query.getTotalCount() / (double) duration);
+        result.put("p50Ms", query.getValueAtPercentile(50) / 1000.0);
+        result.put("p99Ms", query.getValueAtPercentile(99) / 1000.0);
+        result.put("maxMs", query.getMaxValue() / 1000.0);
+        result.put("acquireP50Ms", acquire.getValueAtPercentile(50) / 1000.0);
+        result.put("acquireP99Ms", acquire.getValueAtPercentile(99) / 1000.0);
+        result.put("acquireMaxMs", acquire.getMaxValue() / 1000.0);
+        return result;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,165 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 冷启动耗时对比: 以子进程方式反复启动可执行jar, 统计从进程创建到上下文刷新完成后退出的耗时
+ *
+ * 每次启动加 -Dspring.context.exit=onRefresh(Bean 全部创建完后退出, 不启动 Tomcat 端口)和 --migration.enabled=false,
+ * 因此不需要数据库, 测到的是 JVM 启动 + 类加载 + 上下文刷新, 正是 AOT 和 CDS 优化的部分.
+ *
+ * 对比项(不具备条件的自动跳过):
+ *   jvm      普通启动
+ *   aot      -Dspring.aot.enabled=true, 需要用 -Pstartup 构建(jar 中包含 AOT 生成的代码)
+ *   cds      -XX:SharedArchiveFile=app.jsa, 需要 jar 同目录下有 -Pstartup 构建时生成的 app.jsa
+ *   aot+cds  两者同时使用(线上推荐的启动方式)
+ *   compare  compare 参数指定的另一个jar(如优化前版本)普通启动, 用于对比代码和依赖层面的改动
+ *
+ * 用法(先在上级目录执行 mvn -Pstartup package -DskipTests):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.StartupTime -Dexec.args="--runs=10"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   jar(../target/cds/app.jar) 被测jar; compare() 对比jar; runs(10) 每项计时次数; warmup(2) 每项预热次数(不计时, 让操作系统缓存jar文件);
+ *   java(当前 JVM) java 可执行文件; out(target/startup-result.json) 结果文件
+ */
+public final class StartupTime {
+
+    private StartupTime() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path jar = Paths.get(options.getOrDefault("jar", "../target/cds/app.jar")).toAbsolutePath().normalize();
+        String compare = options.get("compare");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "10"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+        String java = options.getOrDefault("java", Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        Path out = Paths.get(options.getOrDefault("out", "target/startup-result.json"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("找不到被测jar: " + jar + ", 请先在上级目录执行 mvn -Pstartup package -DskipTests");
+        }
+        Path archive = jar.resolveSibling("app.jsa");
+        boolean hasArchive = Files.isRegularFile(archive);
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jvm", List.of("-jar", jar.toString()));
+        variants.put("aot", List.of("-Dspring.aot.enabled=true", "-jar", jar.toString()));
+        if (hasArchive) {
+            variants.put("cds", List.of("-XX:SharedArchiveFile=" + archive, "-jar", jar.toString()));
+            variants.put("aot+cds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true", "-jar", jar.toString()));
+        } else {
+            System.out.println("未找到 " + archive + ", 跳过 CDS 对比");
+        }
+        if (compare != null) {
+            variants.put("compare", List.of("-jar", Paths.get(compare).toAbsolutePath().normalize().toString()));
+        }
+
+        System.out.printf("被测jar: %s%n每项预热 %d 次, 计时 %d 次%n%n", jar, warmup, runs);
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "对比项", "中位数(ms)", "最小(ms)", "最大(ms)", "相对jvm");
+        Map<String, Object> results = new LinkedHashMap<>();
+        Double baseline = null;
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            long[] millis = measure(java, variant.getValue(), warmup, runs);
+            if (millis == null) {
+                System.out.printf("%-10s 启动失败, 跳过(aot 需要用 -Pstartup 构建)%n", variant.getKey());
+                continue;
+            }
+            Arrays.sort(millis);
+            double median = median(millis);
+            if (baseline == null) {
+                baseline = median;
+            }
+            System.out.printf("%-10s %10.0f %10d %10d %9.0f%%%n", variant.getKey(), median, millis[0],
+                    millis[millis.length - 1], (median / baseline - 1) * 100);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("medianMs", median);
+            summary.put("minMs", millis[0]);
+            summary.put("maxMs", millis[millis.length - 1]);
+            summary.put("runsMs", millis);
+            summary.put("jvmArgs", variant.getValue());
+            results.put(variant.getKey(), summary);
+        }
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        JSONObject result = new JSONObject();
+        result.put("jar", jar.toString());
+        result.put("javaVersion", System.getProperty("java.version"));
+        result.put("variants", results);
+        Files.writeString(out, JSON.toJSONString(result, JSONWriter.Feature.PrettyFormat), StandardCharsets.UTF_8);
+        System.out.println("\n结果已写入 " + out.toAbsolutePath());
+    }
+
+    /** 预热后计时 runs 次, 任一次启动失败返回 null */
+    private static long[] measure(String java, List<String> jvmArgs, int warmup, int runs) throws IOException, InterruptedException {
+        long[] millis = new long[runs];
+        for (int i = 0; i < warmup + runs; i++) {
+            long elapsed = launch(java, jvmArgs);
+            if (elapsed < 0) {
+                return null;
+            }
+            if (i >= warmup) {
+                millis[i - warmup] = elapsed;
+            }
+        }
+        return millis;
+    }
+
+    /** 启动一次应用直到进程退出, 返回耗时(毫秒), 失败时打印日志末尾并返回 -1 */
+    private static long launch(String java, List<String> jvmArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.addAll(jvmArgs);
+        command.add("--migration.enabled=false");
+        command.add("--spring.main.banner-mode=off");
+        command.add("--logging.level.root=WARN");
+        File log = File.createTempFile("startup", ".log");
+        try {
+            ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log);
+            long start = System.nanoTime();
+            int exit = builder.start().waitFor();
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            if (exit != 0) {
+                List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+                System.out.println(String.join(" ", command) + " 退出码 " + exit + ":");
+                lines.subList(Math.max(0, lines.size() - 20), lines.size()).forEach(System.out::println);
+                return -1;
+            }
+            return elapsed;
+        } finally {
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    private static double median(long[] sorted) {
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hwadee.mybatisplustest.bench;
+
+import com.hwadee.mybatisplustest.security.SessionPrincipal;
+import com.hwadee.mybatisplustest.security.SignedTokenCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录 Token 校验开销对比(JMH)
+ *
+ * - sessionLookup: 内存会话表查找(与 SessionStore.validate 相同的 ConcurrentHashMap 查找 + 过期判断)
+ * - signedVerify: 签名 Token 校验(SignedTokenCodec.verify, 一次 HMAC-SHA256 + 解析)
+ *
+ * 运行方式(benchmarks 目录): mvn package exec:exec -Djmh.args="TokenVerify"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TokenVerifyBenchmark {
+
+    /** 在线会话数 */
+    @Param({"1000", "100000"})
+    public int sessions;
+
+    private final Map<String, SessionPrincipal> sessionMap = new ConcurrentHashMap<>();
+    private String[] sessionTokens;
+    private SignedTokenCodec codec;
+    private String[] signedTokens;
+
+    @Setup
+    public void setup() {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(12);
+        sessionTokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            String token = UUID.randomUUID().toString();
+            sessionMap.put(token, new SessionPrincipal((long) i, "user" + i, "nurse", "staff", expiresAt));
+            sessionTokens[i] = token;
+        }
+
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        keys.put("k2", new byte[32]);
+        keys.put("k1", new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+        codec = new SignedTokenCodec(keys, TimeUnit.HOURS.toMillis(12));
+        signedTokens = new String[Math.min(sessions, 1024)];  // 签名校验与Token数量无关, 取固定样本
+        for (int i = 0; i < signedTokens.length; i++) {
+            signedTokens[i] = codec.issue((long) i, "user" + i, "nurse", "staff");
+        }
+    }
+
+    @Benchmark
+    public SessionPrincipal sessionLookup() {
+        String token = sessionTokens[ThreadLocalRandom.current().nextInt(sessionTokens.length)];
+        SessionPrincipal principal = sessionMap.get(token);
+        return principal == null || principal.isExpired(System.currentTimeMillis()) ? null : principal;
+    }
+
+    @Benchmark
+    public SessionPrincipal signedVerify() {
+        return codec.verify(signedTokens[ThreadLocalRandom.current().nextInt(signedTokens.length)]);
+    }
+}
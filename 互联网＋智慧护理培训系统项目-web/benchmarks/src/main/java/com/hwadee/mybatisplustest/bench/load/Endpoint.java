@@ -0,0 +1,34 @@
+package com.hwadee.mybatisplustest.bench.load;
+
+/**
+ * 压测请求类型及其在常规流量中的权重
+ *
+ * 权重参考线上访问日志的大致比例: 护士在培训目录中翻页、观看视频时每隔一段时间上报进度(心跳)、
+ * 打开文章记录浏览、前端定时轮询未读通知数; 登录主要集中在交接班时段, 由 LoadTest 的登录高峰单独产生
+ */
+public enum Endpoint {
+
+    LOGIN("POST /auth/nurse/login", 2),
+    ARTICLE_PAGE("GET /training/article/page", 25),
+    VIDEO_PAGE("GET /training/video/page", 10),
+    CATEGORY_LIST("GET /training/category/list", 5),
+    VIDEO_HEARTBEAT("POST /learning/progress/record", 30),
+    VIEW_RECORD("POST /article/view/record", 13),
+    NOTIFICATION_POLL("GET /notification/unread-count", 15);
+
+    private final String label;  // 报表中显示的名称
+    private final int weight;    // 常规流量中的权重
+
+    Endpoint(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,276 @@
+package com.hwadee.mybatisplustest.bench.load;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import com.hwadee.mybatisplustest.bench.BenchDatabase;
+import com.hwadee.mybatisplustest.security.PasswordHasher;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 端到端 HTTP 压测: 启动真实应用(内嵌 Tomcat + H2 内存库), 按固定到达率发送混合流量
+ *
+ * 开环(open-loop)模型: 请求按泊松过程预先排定的时间发出, 不等待上一个请求返回;
+ * 延迟 = 响应完成时间 - 计划发出时间, 服务端变慢导致的排队(包括压测端因并发上限而推迟发送)都计入延迟,
+ * 避免"协调遗漏"(coordinated omission)低估尾延迟. 延迟用 HdrHistogram 记录(微秒, 3位有效数字).
+ *
+ * 流量组成: 常规流量按 Endpoint 权重抽样; 另外每隔 burst-every 秒出现一次持续 burst-length 秒的
+ * 登录高峰(交接班集中登录), 到达率为 burst-rate.
+ *
+ * 用法(benchmarks 目录):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.load.LoadTest -Dexec.args="--rate=300 --duration=120"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   rate(200) 常规流量每秒请求数; duration(60) 测量秒数; warmup(15) 预热秒数(不计入结果);
+ *   burst-rate(50) burst-every(30) burst-length(5) 登录高峰; max-in-flight(512) 最大并发请求数;
+ *   users(2000) articles(2000) videos(500) categories(20) notifications(20) 数据规模(每用户通知数);
+ *   pbkdf2-iterations(210000) 密码哈希迭代次数, 与线上一致时登录耗时才有参考意义;
+ *   url() 指定时压测已运行的服务而不启动内嵌应用, 数据规模需与该服务的库一致, 用户密码需为 password 参数;
+ *   password(Bench123456) seed(42) 随机种子; out(target/load-result.json) 结果文件, 同目录下输出各接口的 .hgrm 分布
+ */
+public final class LoadTest {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);  // 可记录的最大延迟
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);   // 单个请求的超时时间
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Recorder dispatchLag = new Recorder(HIGHEST_MICROS, 3);  // 实际发出时间落后计划的程度(压测端自身瓶颈)
+
+    private LoadTest() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        double burstRate = Double.parseDouble(options.getOrDefault("burst-rate", "50"));
+        int burstEvery = Integer.parseInt(options.getOrDefault("burst-every", "30"));
+        int burstLength = Integer.parseInt(options.getOrDefault("burst-length", "5"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "512"));
+        int users = Integer.parseInt(options.getOrDefault("users", "2000"));
+        int articles = Integer.parseInt(options.getOrDefault("articles", "2000"));
+        int videos = Integer.parseInt(options.getOrDefault("videos", "500"));
+        int categories = Integer.parseInt(options.getOrDefault("categories", "20"));
+        int notifications = Integer.parseInt(options.getOrDefault("notifications", "20"));
+        int iterations = Integer.parseInt(options.getOrDefault("pbkdf2-iterations", "210000"));
+        String password = options.getOrDefault("password", "Bench123456");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Path out = Path.of(options.getOrDefault("out", "target/load-result.json"));
+
+        BenchDatabase database = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            System.out.printf("准备数据: 用户 %d, 文章 %d, 视频 %d, 分类 %d%n", users, articles, videos, categories);
+            database = BenchDatabase.create()
+                    .seedUsers(users, new PasswordHasher(iterations).hash(password))
+                    .seedCategories(categories)
+                    .seedArticles(articles, categories)
+                    .seedVideos(videos, categories)
+                    .seedNotifications(users, notifications);
+            ConfigurableApplicationContext context = database.startServer(
+                    "password.pbkdf2-iterations=" + iterations,
+                    "login.rate-limit.trust-forwarded-for=true",  // 按 X-Forwarded-For 区分来源IP, 与经反向代理部署时一致
+                    "server.tomcat.threads.max=" + Math.max(200, maxInFlight));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadTest test = new LoadTest();
+            TrafficMix mix = new TrafficMix(baseUrl, password, users, articles, videos, categories, REQUEST_TIMEOUT);
+            test.run(mix, rate, burstRate, burstEvery, burstLength, warmup, duration, maxInFlight, seed);
+            test.report(out, rate, burstRate, duration);
+        } finally {
+            if (database != null) {
+                database.close();
+            }
+        }
+    }
+
+    /**
+     * 发送流量直到 warmup + duration 秒结束, 再等待已发出的请求全部返回
+     * 只有计划时间落在预热之后的请求计入结果
+     */
+    private void run(TrafficMix mix, double rate, double burstRate, int burstEvery, int burstLength,
+                     int warmup, int duration, int maxInFlight, long seed) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom arrivals = random.split();  // 到达时间与请求内容使用不同的随机序列, 调整流量组成不影响到达时间
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        long burstEveryNanos = TimeUnit.SECONDS.toNanos(burstEvery);
+        long burstLengthNanos = TimeUnit.SECONDS.toNanos(burstLength);
+
+        long nextRegular = start + interval(arrivals, rate);
+        long nextBurst = nextBurstArrival(start, start, arrivals, burstRate, burstEveryNanos, burstLengthNanos);
+        System.out.printf("开始压测: 预热 %d 秒, 测量 %d 秒%n", warmup, duration);
+        while (true) {
+            boolean burst = nextBurst < nextRegular;
+            long intended = burst ? nextBurst : nextRegular;
+            if (intended >= end) {
+                break;
+            }
+            Endpoint endpoint = burst ? Endpoint.LOGIN : mix.next(random);
+            HttpRequest request = mix.request(endpoint, random);
+            if (burst) {
+                nextBurst = nextBurstArrival(nextBurst, start, arrivals, burstRate, burstEveryNanos, burstLengthNanos);
+            } else {
+                nextRegular += interval(arrivals, rate);
+            }
+
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            inFlight.acquire();  // 并发已满时推迟发送, 推迟的时间同样计入延迟
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                dispatchLag.recordValue(Math.min(HIGHEST_MICROS, (System.nanoTime() - intended) / 1000));
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                  .whenComplete((response, failure) -> {
+                      inFlight.release();
+                      if (!measured) {
+                          return;
+                      }
+                      long micros = Math.min(HIGHEST_MICROS, (System.nanoTime() - intended) / 1000);
+                      recorders.get(endpoint).recordValue(micros);
+                      if (failure != null || response.statusCode() != 200 || !response.body().contains("\"code\":\"200\"")) {
+                          errors.get(endpoint).increment();
+                      }
+                  });
+        }
+        // 等待剩余请求返回: 每个请求最多等待 REQUEST_TIMEOUT, 再留 5 秒余量, 超过仍未返回的不再等待
+        long drainSeconds = REQUEST_TIMEOUT.toSeconds() + 5;
+        if (inFlight.tryAcquire(maxInFlight, drainSeconds, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        } else {
+            System.out.printf("等待 %d 秒后仍有 %d 个请求未返回, 未计入结果%n",
+                    drainSeconds, maxInFlight - inFlight.availablePermits());
+        }
+    }
+
+    /** 泊松过程的下一个到达间隔(纳秒) */
+    private static long interval(SplittableRandom random, double perSecond) {
+        return (long) (-Math.log(1 - random.nextDouble()) / perSecond * 1e9);
+    }
+
+    /** 登录高峰的下一个到达时间: 落在高峰窗口之外时顺延到下一个窗口开始处重新抽样 */
+    private static long nextBurstArrival(long from, long start, SplittableRandom random, double perSecond,
+                                         long everyNanos, long lengthNanos) {
+        if (perSecond <= 0 || lengthNanos <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long next = from + interval(random, perSecond);
+        while ((next - start) % everyNanos >= lengthNanos) {
+            long windowStart = start + ((next - start) / everyNanos + 1) * everyNanos;
+            next = windowStart + interval(random, perSecond);
+        }
+        return next;
+    }
+
+    /** 打印各接口的延迟分位数, 并写出 JSON 结果和 .hgrm 分布文件 */
+    private void report(Path out, double rate, double burstRate, int duration) throws IOException {
+        Path dir = out.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+
+        System.out.printf("%n%-34s %8s %7s %8s %9s %9s %9s %9s %9s%n",
+                "接口", "请求数", "错误", "请求/秒", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            long errorCount = errors.get(endpoint).sum();
+            print(endpoint.label(), histogram, errorCount, duration);
+            endpoints.put(endpoint.label(), summary(histogram, errorCount, duration));
+            try (PrintStream hgrm = new PrintStream(dir.resolve("load-" + endpoint.name().toLowerCase() + ".hgrm").toFile(), StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);  // 以毫秒输出, 可用 HdrHistogram 在线绘图工具打开
+            }
+        }
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        print("合计", total, totalErrors, duration);
+
+        Histogram lag = dispatchLag.getIntervalHistogram();
+        System.out.printf("%n压测端发送延迟 p99 %.2f ms, max %.2f ms(持续偏大说明压测端或并发上限成为瓶颈)%n",
+                lag.getValueAtPercentile(99) / 1000.0, lag.getMaxValue() / 1000.0);
+
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("rate", rate);
+        settings.put("burstRate", burstRate);
+        settings.put("duration", duration);
+        JSONObject result = new JSONObject();
+        result.put("settings", settings);
+        result.put("endpoints", endpoints);
+        result.put("total", summary(total, totalErrors, duration));
+        Files.writeString(out, JSON.toJSONString(result, JSONWriter.Feature.PrettyFormat), StandardCharsets.UTF_8);
+        System.out.println("结果已写入 " + out.toAbsolutePath());
+    }
+
+    private static void print(String label, Histogram histogram, long errorCount, int duration) {
+        System.out.printf("%-34s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                histogram.getTotalCount(), errorCount, histogram.getTotalCount() / (double) duration,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errorCount, int duration) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errorCount);
+        summary.put("throughput", histogram.getTotalCount() / (double) duration);
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
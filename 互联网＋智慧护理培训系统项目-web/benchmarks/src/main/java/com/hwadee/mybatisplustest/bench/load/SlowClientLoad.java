@@ -0,0 +1,257 @@
+package com.hwadee.mybatisplustest.bench.load;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import com.hwadee.mybatisplustest.bench.BenchDatabase;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 慢客户端压测: 对比平台线程与虚拟线程模式在慢客户端占用请求线程时的吞吐量
+ *
+ * 两组客户端同时运行:
+ * - 慢客户端: 用原始 Socket 向 POST /article/view/record 发送请求, 请求体每隔 slow-interval-ms 毫秒才发送 1 个字节
+ *   (弱网下的移动端上传). Tomcat 读取请求体是阻塞的, 每个慢请求在整个上传期间占用一个请求线程
+ * - 快客户端: fast-clients 个线程循环请求培训目录接口(闭环, 收到响应后立即发下一个), 统计测量期内的吞吐量和延迟
+ * 平台线程模式下慢客户端数超过 Tomcat 线程数(tomcat-threads)后, 快请求只能等慢请求释放线程, 吞吐量骤降;
+ * 虚拟线程模式下每个请求一个虚拟线程, 慢请求只占用一个挂起的虚拟线程, 快请求不受影响.
+ *
+ * 对比项(依次在同一进程内启动内嵌应用 + H2 内存库):
+ *   platform          平台线程(默认配置)
+ *   virtual           虚拟线程 + 数据库并发限制(db-limiter 默认随虚拟线程开启)
+ *   virtual-nolimit   虚拟线程, 关闭数据库并发限制, 用于观察限流本身的影响
+ * 虚拟线程需要 Java 21, 在更低版本上运行时只测 platform; 只看运行时版本, 被测应用jar不必用 -Pvthreads 构建.
+ *
+ * 用法(benchmarks 目录, 用 Java 21 运行):
+ * mvn package exec:java -Dexec.mainClass=com.hwadee.mybatisplustest.bench.load.SlowClientLoad -Dexec.args="--slow-clients=400"
+ *
+ * 参数(均为 --名称=值, 括号内为默认值):
+ *   slow-clients(400) 慢客户端连接数; slow-interval-ms(500) 慢客户端每字节间隔; slow-bytes(40) 慢请求体字节数;
+ *   fast-clients(64) 快客户端线程数; tomcat-threads(200) 平台线程模式的 Tomcat 最大线程数;
+ *   warmup(10) 预热秒数; duration(30) 测量秒数; articles(2000) categories(20) 数据规模;
+ *   variants(platform,virtual,virtual-nolimit) 对比项; out(target/slow-client-result.json) 结果文件
+ */
+public final class SlowClientLoad {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);  // 可记录的最大延迟
+
+    private static final List<String> VARIANTS = List.of("platform", "virtual", "virtual-nolimit");
+
+    private SlowClientLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int slowClients = Integer.parseInt(options.getOrDefault("slow-clients", "400"));
+        int slowIntervalMs = Integer.parseInt(options.getOrDefault("slow-interval-ms", "500"));
+        int slowBytes = Integer.parseInt(options.getOrDefault("slow-bytes", "40"));
+        int fastClients = Integer.parseInt(options.getOrDefault("fast-clients", "64"));
+        int tomcatThreads = Integer.parseInt(options.getOrDefault("tomcat-threads", "200"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int articles = Integer.parseInt(options.getOrDefault("articles", "2000"));
+        int categories = Integer.parseInt(options.getOrDefault("categories", "20"));
+        List<String> variants = Arrays.asList(options.getOrDefault("variants", String.join(",", VARIANTS)).split(","));
+        Path out = Path.of(options.getOrDefault("out", "target/slow-client-result.json"));
+        for (String variant : variants) {
+            if (!VARIANTS.contains(variant)) {
+                throw new IllegalArgumentException("未知对比项: " + variant + ", 可选 " + VARIANTS);
+            }
+        }
+        if (Runtime.version().feature() < 21) {
+            System.out.println("当前 Java " + Runtime.version().feature() + " 不支持虚拟线程, 只测 platform");
+            variants = variants.contains("platform") ? List.of("platform") : List.of();
+        }
+
+        System.out.printf("慢客户端 %d 个(每 %dms 发送 1 字节, 请求体 %d 字节), 快客户端 %d 个, 预热 %d 秒, 测量 %d 秒%n",
+                slowClients, slowIntervalMs, slowBytes, fastClients, warmup, duration);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String variant : variants) {
+            try (BenchDatabase database = BenchDatabase.create().seedCategories(categories).seedArticles(articles, categories)) {
+                List<String> properties = new ArrayList<>(List.of(
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "server.tomcat.max-connections=" + Math.max(8192, (slowClients + fastClients) * 2),
+                        "spring.threads.virtual.enabled=" + !variant.equals("platform")));
+                if (variant.equals("virtual-nolimit")) {
+                    properties.add("db-limiter.enabled=false");
+                }
+                ConfigurableApplicationContext context = database.startServer(properties.toArray(String[]::new));
+                int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+                System.out.printf("%n[%s] 已启动, 端口 %d%n", variant, port);
+                results.put(variant, run(port, slowClients, slowIntervalMs, slowBytes, fastClients, categories, warmup, duration));
+            }
+        }
+
+        System.out.printf("%n%-16s %10s %7s %9s %9s %9s %9s %12s%n",
+                "对比项", "请求/秒", "错误", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "慢请求完成");
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> r = (Map<String, Object>) entry.getValue();
+            System.out.printf("%-16s %10.1f %7d %9.2f %9.2f %9.2f %9.2f %12d%n", entry.getKey(),
+                    r.get("throughput"), r.get("errors"), r.get("p50Ms"), r.get("p90Ms"), r.get("p99Ms"), r.get("maxMs"),
+                    r.get("slowCompleted"));
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("slowClients", slowClients);
+        settings.put("slowIntervalMs", slowIntervalMs);
+        settings.put("slowBytes", slowBytes);
+        settings.put("fastClients", fastClients);
+        settings.put("tomcatThreads", tomcatThreads);
+        settings.put("duration", duration);
+        settings.put("javaVersion", System.getProperty("java.version"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        JSONObject result = new JSONObject();
+        result.put("settings", settings);
+        result.put("variants", results);
+        Files.writeString(out, JSON.toJSONString(result, JSONWriter.Feature.PrettyFormat), StandardCharsets.UTF_8);
+        System.out.println("\n结果已写入 " + out.toAbsolutePath());
+    }
+
+    /** 启动慢客户端和快客户端, 预热后测量 duration 秒, 返回快请求的吞吐量与延迟 */
+    private static Map<String, Object> run(int port, int slowClients, int slowIntervalMs, int slowBytes,
+                                           int fastClients, int categories, int warmup, int duration) throws InterruptedException {
+        Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        AtomicInteger slowCompleted = new AtomicInteger();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < slowClients; i++) {
+            Thread slow = new Thread(() -> slowClient(port, slowIntervalMs, slowBytes, end, measureFrom, slowCompleted), "slow-" + i);
+            slow.setDaemon(true);
+            threads.add(slow);
+            slow.start();
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://localhost:" + port;
+        for (int i = 0; i < fastClients; i++) {
+            SplittableRandom random = new SplittableRandom(i);
+            Thread fast = new Thread(() -> fastClient(client, base, categories, random, end, measureFrom, recorder, errors), "fast-" + i);
+            fast.setDaemon(true);
+            threads.add(fast);
+            fast.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 35_000);  // 慢请求在测量结束后最多再等一个读超时
+        }
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errors.sum());
+        summary.put("throughput", histogram.getTotalCount() / (double) duration);
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        summary.put("slowCompleted", slowCompleted.get());
+        return summary;
+    }
+
+    /** 快客户端: 循环请求培训目录接口直到测量结束 */
+    private static void fastClient(HttpClient client, String base, int categories, SplittableRandom random,
+                                   long end, long measureFrom, Recorder recorder, LongAdder errors) {
+        while (System.nanoTime() < end) {
+            String path = switch (random.nextInt(3)) {
+                case 0 -> "/training/article/page?pageNo=" + (1 + random.nextInt(20)) + "&pageSize=10";
+                case 1 -> "/training/article/list?categoryId=" + (1 + random.nextInt(categories));
+                default -> "/training/category/list";
+            };
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30)).GET().build();
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                ok = response.statusCode() == 200 && response.body().contains("\"code\":\"200\"");
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long done = System.nanoTime();
+            if (sent >= measureFrom && done <= end) {  // 只统计完全落在测量期内的请求
+                recorder.recordValue(Math.min(HIGHEST_MICROS, (done - sent) / 1000));
+                if (!ok) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    /** 慢客户端: 逐字节发送请求体, 收到响应后用新连接重复, 直到测量结束 */
+    private static void slowClient(int port, int intervalMs, int bodyBytes, long end, long measureFrom, AtomicInteger completed) {
+        String json = "{\"articleId\":1}";
+        byte[] body = (" ".repeat(Math.max(0, bodyBytes - json.length())) + json).getBytes(StandardCharsets.UTF_8);  // JSON 前导空白合法
+        String head = "POST /article/view/record HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\nConnection: close\r\n\r\n";
+        while (System.nanoTime() < end) {
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.setSoTimeout(30_000);
+                OutputStream output = socket.getOutputStream();
+                output.write(head.getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+                for (byte b : body) {
+                    Thread.sleep(intervalMs);
+                    output.write(b);
+                    output.flush();
+                }
+                InputStream input = socket.getInputStream();
+                while (input.read() >= 0) {
+                    // 读完响应(Connection: close, 服务端发送完关闭连接)
+                }
+                if (System.nanoTime() >= measureFrom) {
+                    completed.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // 连接被拒绝或超时, 重新连接
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hwadee.mybatisplustest.bench.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * 按权重抽取请求类型, 并构造对应的 HTTP 请求
+ *
+ * 数据规模需与被测库一致: 用户 id 1..users(用户名 nurse0..), 文章 id 1..articles, 视频 id 1..videos, 分类 id 1..categories
+ */
+final class TrafficMix {
+
+    private static final String[] KEYWORDS = {"静脉", "压疮", "心肺复苏", "无菌", "用药", "跌倒"};
+    private static final Endpoint[] ENDPOINTS = Endpoint.values();
+
+    private final String baseUrl;
+    private final String password;
+    private final int users;
+    private final int articles;
+    private final int videos;
+    private final int categories;
+    private final Duration timeout;
+    private final int[] cumulative = new int[ENDPOINTS.length];  // 累计权重, 用于按权重抽样
+
+    TrafficMix(String baseUrl, String password, int users, int articles, int videos, int categories, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+        this.users = users;
+        this.articles = articles;
+        this.videos = videos;
+        this.categories = categories;
+        this.timeout = timeout;
+        int sum = 0;
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            sum += ENDPOINTS[i].weight();
+            cumulative[i] = sum;
+        }
+    }
+
+    /** 按权重抽取一个常规请求类型 */
+    Endpoint next(SplittableRandom random) {
+        int pick = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (pick < cumulative[i]) {
+                return ENDPOINTS[i];
+            }
+        }
+        return ENDPOINTS[ENDPOINTS.length - 1];
+    }
+
+    /** 构造请求, 每个请求随机选一个用户 */
+    HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+        long userId = random.nextInt(users) + 1;
+        return switch (endpoint) {
+            case LOGIN -> post("/auth/nurse/login",
+                    "{\"username\":\"nurse" + (userId - 1) + "\",\"password\":\"" + password + "\"}")
+                    .header("X-Forwarded-For", clientIp(userId))  // 每个用户一个来源IP, 避免全部落入同一个IP限流桶
+                    .build();
+            case ARTICLE_PAGE -> get("/training/article/page?" + pageQuery(random, true));
+            case VIDEO_PAGE -> get("/training/video/page?" + pageQuery(random, false));
+            case CATEGORY_LIST -> get("/training/category/list?status=1");
+            case VIDEO_HEARTBEAT -> post("/learning/progress/record",
+                    "{\"userId\":" + userId + ",\"videoId\":" + (random.nextInt(videos) + 1)
+                            + ",\"progressPercent\":" + (random.nextInt(99) + 1) + ",\"isCompleted\":false}")
+                    .build();
+            case VIEW_RECORD -> post("/article/view/record",
+                    "{\"articleId\":" + (random.nextInt(articles) + 1) + ",\"userId\":" + userId + "}")
+                    .build();
+            case NOTIFICATION_POLL -> get("/notification/unread-count/" + userId);
+        };
+    }
+
+    /** 前20页内随机翻页, 一半带分类筛选, 文章有十分之一按关键词搜索 */
+    private String pageQuery(SplittableRandom random, boolean allowKeyword) {
+        StringBuilder query = new StringBuilder("pageNo=").append(random.nextInt(20) + 1).append("&pageSize=10");
+        if (random.nextBoolean()) {
+            query.append("&categoryId=").append(random.nextInt(categories) + 1);
+        }
+        if (allowKeyword && random.nextInt(10) == 0) {
+            query.append("&keyword=").append(URLEncoder.encode(KEYWORDS[random.nextInt(KEYWORDS.length)], StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static String clientIp(long userId) {
+        return "10." + (userId >> 16 & 255) + "." + (userId >> 8 & 255) + "." + (userId & 255);
+    }
+}
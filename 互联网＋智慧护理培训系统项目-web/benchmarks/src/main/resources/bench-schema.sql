@@ -0,0 +1,229 @@
+-- 基准测试用表结构(H2, MySQL 兼容模式)
+-- 与 src/main/resources/db/migration 下的迁移脚本及线上库保持一致的列和索引; 线上脚本中的 INFORMATION_SCHEMA/PREPARE 写法 H2 不支持, 因此单独维护
+
+CREATE TABLE IF NOT EXISTS `user` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `username` varchar(64),
+  `age` int,
+  `email` varchar(128),
+  `password` varchar(255),
+  `role` varchar(32),
+  `avatar` varchar(512),
+  `phone` varchar(32),
+  `address` varchar(256),
+  `department` varchar(64),
+  `position` varchar(64),
+  `version` int NOT NULL DEFAULT 0
+);
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_user_username` ON `user` (`username`);
+
+CREATE TABLE IF NOT EXISTS `admin` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `admin_no` varchar(32),
+  `username` varchar(64),
+  `password` varchar(255),
+  `real_name` varchar(64),
+  `email` varchar(128),
+  `phone` varchar(32),
+  `avatar` varchar(512),
+  `status` int DEFAULT 1,
+  `last_login_time` datetime,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS `idx_admin_username` ON `admin` (`username`);
+
+CREATE TABLE IF NOT EXISTS `admin_login_log` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `admin_id` bigint,
+  `username` varchar(64),
+  `success` tinyint NOT NULL DEFAULT 0,
+  `ip` varchar(64),
+  `user_agent` varchar(255),
+  `login_time` datetime NOT NULL
+);
+CREATE INDEX IF NOT EXISTS `idx_admin_login_log_admin_time` ON `admin_login_log` (`admin_id`, `login_time`);
+
+CREATE TABLE IF NOT EXISTS `training_category` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `name` varchar(128),
+  `description` varchar(512),
+  `sort_order` int DEFAULT 0,
+  `status` tinyint DEFAULT 1,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS `training_tag` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `name` varchar(128),
+  `status` tinyint DEFAULT 1,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS `training_article` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `title` varchar(256),
+  `cover_url` varchar(512),
+  `category_id` bigint,
+  `tag_ids` varchar(512),
+  `content` clob,
+  `publish_status` tinyint DEFAULT 0,
+  `publish_at` datetime,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS `idx_article_status_publish` ON `training_article` (`publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_article_category_publish` ON `training_article` (`category_id`, `publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_article_publish` ON `training_article` (`publish_at`, `id`);
+
+CREATE TABLE IF NOT EXISTS `training_video` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `title` varchar(256),
+  `cover_url` varchar(512),
+  `video_url` varchar(1024),
+  `duration_seconds` int,
+  `category_id` bigint,
+  `tag_ids` varchar(512),
+  `publish_status` tinyint DEFAULT 0,
+  `publish_at` datetime,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS `idx_video_status_publish` ON `training_video` (`publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_video_category_publish` ON `training_video` (`category_id`, `publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_video_publish` ON `training_video` (`publish_at`, `id`);
+
+CREATE TABLE IF NOT EXISTS `training_ppt` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `title` varchar(256),
+  `cover_url` varchar(512),
+  `file_url` varchar(1024),
+  `pages` int,
+  `category_id` bigint,
+  `tag_ids` varchar(512),
+  `publish_status` tinyint DEFAULT 0,
+  `publish_at` datetime,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS `idx_ppt_status_publish` ON `training_ppt` (`publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_ppt_category_publish` ON `training_ppt` (`category_id`, `publish_status`, `publish_at`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_ppt_publish` ON `training_ppt` (`publish_at`, `id`);
+
+CREATE TABLE IF NOT EXISTS `achievement_definition` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `achievement_type` varchar(64) NOT NULL,
+  `achievement_name` varchar(128),
+  `achievement_desc` varchar(512),
+  `icon` varchar(32),
+  `points` int DEFAULT 0,
+  `requirement` varchar(256),
+  `required_articles` int,
+  `sort_order` int DEFAULT 0,
+  `status` tinyint DEFAULT 1,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_achievement_type` ON `achievement_definition` (`achievement_type`);
+
+INSERT IGNORE INTO `achievement_definition` (achievement_type, achievement_name, achievement_desc, icon, points, requirement, required_articles, sort_order)
+VALUES ('first_article', '首次完成', '完成了第一篇文章的学习', '🎉', 10, '完成1篇文章', 1, 1),
+       ('halfway', '半程达成', '完成了5篇文章的学习', '📚', 30, '完成5篇文章', 5, 2),
+       ('completed_all', '完美完成', '完成了所有10篇文章的学习', '🏆', 100, '完成10篇文章', 10, 3);
+
+CREATE TABLE IF NOT EXISTS `learning_achievement` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `user_id` bigint,
+  `achievement_type` varchar(64),
+  `achievement_name` varchar(128),
+  `achievement_desc` varchar(512),
+  `icon` varchar(32),
+  `points` int,
+  `unlocked_at` datetime,
+  `created_at` datetime
+);
+CREATE INDEX IF NOT EXISTS `idx_achievement_user_unlocked` ON `learning_achievement` (`user_id`, `unlocked_at`);
+
+CREATE TABLE IF NOT EXISTS `notification` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `user_id` bigint,
+  `type` varchar(32),
+  `title` varchar(128),
+  `content` varchar(512),
+  `icon` varchar(32),
+  `is_read` boolean DEFAULT FALSE,
+  `read_at` datetime,
+  `created_at` datetime
+);
+CREATE INDEX IF NOT EXISTS `idx_notification_user_read_created` ON `notification` (`user_id`, `is_read`, `created_at`);
+
+CREATE TABLE IF NOT EXISTS `article_view` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `article_id` bigint,
+  `user_id` bigint,
+  `view_count` int,
+  `last_viewed_at` datetime,
+  `created_at` datetime,
+  `updated_at` datetime
+);
+CREATE INDEX IF NOT EXISTS `idx_article_view_article_user` ON `article_view` (`article_id`, `user_id`);
+CREATE INDEX IF NOT EXISTS `idx_article_view_user_viewed` ON `article_view` (`user_id`, `last_viewed_at`);
+
+CREATE TABLE IF NOT EXISTS `user_learning_progress` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `user_id` bigint,
+  `article_id` bigint,
+  `video_id` bigint,
+  `progress_percent` int,
+  `is_completed` boolean,
+  `started_at` datetime,
+  `completed_at` datetime,
+  `last_studied_at` datetime,
+  `created_at` datetime,
+  `updated_at` datetime
+);
+CREATE INDEX IF NOT EXISTS `idx_progress_user_article_video` ON `user_learning_progress` (`user_id`, `article_id`, `video_id`);
+
+CREATE TABLE IF NOT EXISTS `user_favorite` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `user_id` bigint NOT NULL,
+  `article_id` bigint,
+  `video_id` bigint,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `article_key` bigint GENERATED ALWAYS AS (IFNULL(`article_id`, 0)),
+  `video_key` bigint GENERATED ALWAYS AS (IFNULL(`video_id`, 0))
+);
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_user_favorite` ON `user_favorite` (`user_id`, `article_key`, `video_key`);
+CREATE INDEX IF NOT EXISTS `idx_user_favorite_article` ON `user_favorite` (`article_id`);
+CREATE INDEX IF NOT EXISTS `idx_user_favorite_video` ON `user_favorite` (`video_id`);
+
+CREATE TABLE IF NOT EXISTS `patient` (
+  `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `patient_no` varchar(32),
+  `name` varchar(64),
+  `gender` int,
+  `age` int,
+  `id_card` varchar(32),
+  `phone` varchar(32),
+  `emergency_contact` varchar(64),
+  `emergency_phone` varchar(32),
+  `address` varchar(256),
+  `admission_date` datetime,
+  `diagnosis` varchar(512),
+  `medical_history` clob,
+  `allergy_history` clob,
+  `current_medication` clob,
+  `care_level` varchar(32),
+  `room_no` varchar(16),
+  `bed_no` varchar(16),
+  `status` int,
+  `remarks` varchar(512),
+  `created_by` bigint,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `version` int NOT NULL DEFAULT 0
+);
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_patient_no` ON `patient` (`patient_no`);
+CREATE INDEX IF NOT EXISTS `idx_patient_status_admission` ON `patient` (`status`, `admission_date`, `id`);
@@ -3,6 +3,7 @@ package com.hwadee.mybatisplustest;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * 1. Spring Boot 应用程序的启动类
  * 2. 配置MyBatis-Plus的Mapper扫描路径
  * 3. 启用Spring事务管理功能
+ * 4. 启用定时任务(缓存对账等后台任务)
  * 
  * 注解说明:
  * @SpringBootApplication - Spring Boot核心注解,包含:
@@ -22,9 +24,13 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * @EnableTransactionManagement - 启用Spring声明式事务管理
  *   作用: 允许在Service层使用@Transactional注解来管理数据库事务
  * 
+ * @EnableScheduling - 启用Spring定时任务
+ *   作用: 允许组件使用@Scheduled注解声明定时执行的方法
+ * 
  * @MapperScan - 指定MyBatis-Plus的Mapper接口扫描路径
  *   作用: 自动将指定包下的Mapper接口注册为Spring Bean
  *   路径: com.hwadee.mybatisplustest.mapper
+ *   注意: 只在这里扫描一次, 配置类上不要重复添加, 否则每个Mapper会被扫描和注册两遍
  * 
  * @author AI Assistant
  * @version 1.6.0
@@ -32,6 +38,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  */
 @SpringBootApplication
 @EnableTransactionManagement
+@EnableScheduling
 @MapperScan("com.hwadee.mybatisplustest.mapper")
 public class MybatisPlusTestApplication {
 
@@ -0,0 +1,109 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.hwadee.mybatisplustest.common.CommonResult;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
+import com.hwadee.mybatisplustest.mapper.AchievementDefinitionMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成就定义缓存 - 进程内不可变快照
+ *
+ * 功能说明:
+ * 1. 启动完成后从 achievement_definition 表加载启用的成就定义
+ *    (不在 Bean 初始化时加载: CDS 训练运行在上下文刷新后即退出, 不连接数据库, 也不给冷启动增加一次查询)
+ * 2. 同时预先序列化 /achievement/definitions 的完整响应体(JSON字节数组)
+ * 3. 管理员修改定义后调用 reload() 整体替换快照, 读取方无锁
+ *
+ * 成就规则引擎(LearningAchievementServiceImpl)与定义接口共用同一份快照
+ * 加载完成前, 或启动时加载失败(数据库不可用)时, 快照保持未就绪, 之后每次访问先重试加载,
+ * 仍未就绪时 definitions()/json() 抛出 IllegalStateException, 调用方用 ready() 判断并返回 503,
+ * 不会把空的定义列表当作"没有成就"
+ * 注意: 快照中的实体对象为共享只读数据, 调用方不得修改
+ */
+@Slf4j
+@Component
+public class AchievementDefinitionCache {
+
+    /** 快照: 定义列表 + 预序列化响应体 */
+    private record Snapshot(List<AchievementDefinition> definitions, byte[] json) {
+    }
+
+    @Resource
+    private AchievementDefinitionMapper definitionMapper;  // 成就定义数据访问层
+
+    private volatile Snapshot snapshot;  // 首次加载成功前为 null
+
+    /**
+     * 重新加载成就定义
+     * 启动完成后执行一次, 之后由管理接口在定义变更时调用
+     * 加载失败时保留旧快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        try {
+            LambdaQueryWrapper<AchievementDefinition> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(AchievementDefinition::getStatus, 1)  // 仅加载启用的定义
+                   .orderByAsc(AchievementDefinition::getSortOrder)
+                   .orderByAsc(AchievementDefinition::getId);
+            snapshot = build(definitionMapper.selectList(wrapper));
+            log.info("成就定义加载完成, 共 {} 条", snapshot.definitions().size());
+        } catch (Exception e) {
+            log.warn("成就定义加载失败, 继续使用旧快照: {}", e.getMessage());
+        }
+    }
+
+    /** 快照是否已加载; 尚未加载成功时先重试一次 */
+    public boolean ready() {
+        if (snapshot == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+            }
+        }
+        return snapshot != null;
+    }
+
+    /** 当前启用的成就定义(不可变列表) */
+    public List<AchievementDefinition> definitions() {
+        return loaded().definitions();
+    }
+
+    /** /achievement/definitions 预序列化响应体 */
+    public byte[] json() {
+        return loaded().json();
+    }
+
+    private Snapshot loaded() {
+        if (!ready()) {
+            throw new IllegalStateException("成就定义尚未加载");
+        }
+        return snapshot;
+    }
+
+    private static Snapshot build(List<AchievementDefinition> definitions) {
+        List<Map<String, Object>> view = new ArrayList<>(definitions.size());
+        for (AchievementDefinition d : definitions) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("type", d.getAchievementType());  // 成就类型
+            item.put("name", d.getAchievementName());  // 成就名称
+            item.put("desc", d.getAchievementDesc());  // 成就描述
+            item.put("icon", d.getIcon());  // 成就图标
+            item.put("points", d.getPoints());  // 获得积分
+            item.put("requirement", d.getRequirement());  // 解锁条件
+            view.add(item);
+        }
+        return new Snapshot(List.copyOf(definitions), JSON.toJSONBytes(CommonResult.success(view)));
+    }
+}
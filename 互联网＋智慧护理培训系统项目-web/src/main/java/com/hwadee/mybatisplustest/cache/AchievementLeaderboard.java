@@ -0,0 +1,358 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.hwadee.mybatisplustest.entity.LearningAchievement;
+import com.hwadee.mybatisplustest.entity.User;
+import com.hwadee.mybatisplustest.mapper.LearningAchievementMapper;
+import com.hwadee.mybatisplustest.mapper.UserMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 成就积分排行榜 - 内存排名结构
+ *
+ * 功能说明:
+ * 1. 启动时按 learning_achievement 汇总每个用户的总积分, 构建全局榜和部门榜
+ * 2. 每次解锁成就时增量更新, 无需再扫描 learning_achievement 表
+ * 3. 支持前N名、用户名次、用户前后邻居查询, 更新和查询均为 O(log n)
+ * 4. 按 leaderboard.reload-interval-ms 定时与数据库对账
+ *
+ * 排名规则: 积分降序, 积分相同名次并列(并列名次 = 积分更高的人数 + 1)
+ * 并发说明: 读写锁保护所有排名树, 查询可并发, 更新互斥
+ *
+ * 重新加载期间的变更:
+ * - 积分变更记录用户ID; 汇总查询后重新查询这些用户的总积分再换入新榜(成就记录先落库再调用 addPoints,
+ *   重新查询一定能读到, 不会重复累加), 重新查询期间又有变更时继续重复, 直到没有新变更
+ * - 部门变更记录目标部门, 换入前按顺序重放
+ *
+ * 首次加载成功前排行榜未就绪: 不接收增量(否则会从0开始累加出错误的总积分), ready() 返回 false,
+ * 查询接口返回 503; 访问时和定时对账时重试加载
+ */
+@Slf4j
+@Component
+public class AchievementLeaderboard {
+
+    /** 排行榜条目 */
+    public record Entry(Long userId, long points, int rank) {
+    }
+
+    /** 重新加载期间的部门变更 */
+    private record DepartmentChange(Long userId, String department) {
+    }
+
+    /** 一组排名树: 全院榜、部门榜与用户部门 */
+    private static final class Boards {
+        final ScoreRankTree global = new ScoreRankTree();                    // 全院榜
+        final Map<String, ScoreRankTree> departmentBoards = new HashMap<>();  // 部门 -> 部门榜
+        final Map<Long, String> departmentOf = new HashMap<>();              // 用户 -> 部门, 没有部门为空串
+
+        /** 设置用户总积分, 同步到所在部门榜 */
+        void setPoints(long userId, long total) {
+            global.put(userId, total);
+            String department = departmentOf.get(userId);
+            if (department != null && !department.isEmpty()) {
+                departmentBoards.computeIfAbsent(department, k -> new ScoreRankTree()).put(userId, total);
+            }
+        }
+
+        /** 把用户移动到目标部门榜, 目标为空串表示不属于任何部门 */
+        void changeDepartment(long userId, String target) {
+            String previous = departmentOf.put(userId, target);
+            if (previous != null && !previous.isEmpty() && !previous.equals(target)) {
+                ScoreRankTree board = departmentBoards.get(previous);
+                if (board != null) {
+                    board.remove(userId);
+                }
+            }
+            Long points = global.pointsOf(userId);
+            if (!target.isEmpty() && points != null) {
+                departmentBoards.computeIfAbsent(target, k -> new ScoreRankTree()).put(userId, points);
+            }
+        }
+    }
+
+    @Resource
+    private LearningAchievementMapper achievementMapper;  // 成就数据访问层
+
+    @Resource
+    private UserMapper userMapper;  // 用户数据访问层(用于获取部门)
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Boards boards = new Boards();
+    private volatile boolean ready;                   // 是否已成功加载过
+    private Set<Long> pointChanges;                   // 重新加载期间积分有变化的用户, 不在加载时为 null
+    private List<DepartmentChange> departmentChanges;  // 重新加载期间的部门变更, 不在加载时为 null
+    private final ReentrantLock reloadLock = new ReentrantLock();  // 同一时间只有一个重新加载
+
+    /**
+     * 重新加载排行榜
+     * 应用启动完成后执行一次, 之后按 leaderboard.reload-interval-ms 定时对账
+     * 执行 SUM(points) GROUP BY user_id 聚合查询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${leaderboard.reload-interval-ms:600000}",
+               fixedDelayString = "${leaderboard.reload-interval-ms:600000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /** 排行榜是否可用; 尚未加载成功且没有其他线程在加载时, 先重试一次 */
+    public boolean ready() {
+        if (!ready && reloadLock.tryLock()) {
+            try {
+                if (!ready) {
+                    doReload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return ready;
+    }
+
+    private void doReload() {
+        lock.writeLock().lock();
+        try {
+            pointChanges = new HashSet<>();  // 从查询开始前记录变更
+            departmentChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            LambdaQueryWrapper<User> userWrapper = new LambdaQueryWrapper<>();
+            userWrapper.select(User::getId, User::getDepartment);
+            Boards newBoards = new Boards();
+            for (User user : userMapper.selectList(userWrapper)) {
+                newBoards.departmentOf.put(user.getId(), normalize(user.getDepartment()));
+            }
+            for (Map.Entry<Long, Long> entry : sumPoints(null).entrySet()) {
+                newBoards.setPoints(entry.getKey(), entry.getValue());
+            }
+
+            int replayed = 0;
+            while (true) {
+                Set<Long> changedUsers;
+                List<DepartmentChange> changedDepartments;
+                lock.writeLock().lock();
+                try {
+                    if (pointChanges.isEmpty()) {
+                        for (DepartmentChange change : departmentChanges) {  // 查询结果可能早于这些变更, 以变更为准
+                            newBoards.changeDepartment(change.userId(), change.department());
+                        }
+                        replayed += departmentChanges.size();
+                        boards = newBoards;
+                        ready = true;
+                        pointChanges = null;
+                        departmentChanges = null;
+                        break;
+                    }
+                    changedUsers = pointChanges;
+                    changedDepartments = departmentChanges;
+                    pointChanges = new HashSet<>();
+                    departmentChanges = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (DepartmentChange change : changedDepartments) {
+                    newBoards.changeDepartment(change.userId(), change.department());
+                }
+                Map<Long, Long> totals = sumPoints(changedUsers);  // 在锁外重新查询这些用户
+                for (Long userId : changedUsers) {
+                    Long total = totals.get(userId);
+                    if (total != null) {
+                        newBoards.setPoints(userId, total);
+                    }
+                }
+                replayed += changedDepartments.size() + changedUsers.size();
+            }
+            log.info("成就排行榜加载完成, 上榜用户数: {}, 重放加载期间变更 {} 次", newBoards.global.size(), replayed);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pointChanges = null;  // 保留旧榜, 加载期间的变更已直接写入旧榜
+                departmentChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // 加载失败不影响应用启动; 从未加载成功时保持未就绪, 等待重试
+            log.warn("成就排行榜加载失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 为用户累加积分(解锁成就时调用, 成就记录已落库)
+     *
+     * @param userId 用户ID
+     * @param points 新增积分
+     */
+    public void addPoints(Long userId, int points) {
+        if (userId == null || points == 0) {
+            return;
+        }
+        String loaded = departmentOf(userId);
+
+        lock.writeLock().lock();
+        try {
+            if (pointChanges != null) {
+                pointChanges.add(userId);
+            }
+            if (!ready) {  // 没有基准总积分, 等加载时从数据库汇总
+                return;
+            }
+            // 查询部门期间可能有部门变更, 已知的部门以内存为准
+            boards.departmentOf.putIfAbsent(userId, loaded);
+            Long current = boards.global.pointsOf(userId);
+            boards.setPoints(userId, (current == null ? 0 : current) + points);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 用户部门变更时, 将其移动到新的部门榜
+     *
+     * @param userId 用户ID
+     * @param department 新部门, 为空表示不属于任何部门
+     */
+    public void changeDepartment(Long userId, String department) {
+        if (userId == null) {
+            return;
+        }
+        String target = normalize(department);
+
+        lock.writeLock().lock();
+        try {
+            if (departmentChanges != null) {
+                departmentChanges.add(new DepartmentChange(userId, target));
+            }
+            boards.changeDepartment(userId, target);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取前N名
+     *
+     * @param department 部门, 为空表示全院榜
+     * @param limit 返回条数
+     * @return 排行榜条目列表
+     */
+    public List<Entry> top(String department, int limit) {
+        lock.readLock().lock();
+        try {
+            ScoreRankTree board = boardOf(department);
+            return board == null ? new ArrayList<>() : toEntries(board, board.range(0, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取用户名次及其前后邻居
+     *
+     * @param userId 用户ID
+     * @param department 部门, 为空表示全院榜
+     * @param radius 前后各取几名
+     * @return 包含 userId、points、rank、total、neighbours 的结果
+     */
+    public Map<String, Object> around(Long userId, String department, int radius) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", userId);
+
+        lock.readLock().lock();
+        try {
+            ScoreRankTree board = boardOf(department);
+            int total = board == null ? 0 : board.size();
+            int index = board == null ? -1 : board.indexOf(userId);
+            result.put("total", total);
+
+            if (index < 0) {  // 未上榜: 积分为0, 排在所有上榜用户之后
+                result.put("points", 0L);
+                result.put("rank", total + 1);
+                result.put("neighbours", board == null
+                        ? new ArrayList<>()
+                        : toEntries(board, board.range(total - radius, total)));
+                return result;
+            }
+
+            long points = board.pointsOf(userId);
+            result.put("points", points);
+            result.put("rank", board.countAbove(points) + 1);
+            result.put("neighbours", toEntries(board, board.range(index - radius, index + radius + 1)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== 内部方法 ====================
+
+    private ScoreRankTree boardOf(String department) {
+        return department == null || department.isEmpty() ? boards.global : boards.departmentBoards.get(department);
+    }
+
+    private static String normalize(String department) {
+        return department == null ? "" : department;
+    }
+
+    /** 汇总用户总积分, userIds 为 null 表示全部用户 */
+    private Map<Long, Long> sumPoints(Collection<Long> userIds) {
+        QueryWrapper<LearningAchievement> sumWrapper = new QueryWrapper<>();
+        sumWrapper.select("user_id", "SUM(points) AS total_points")
+                  .in(userIds != null, "user_id", userIds)
+                  .groupBy("user_id");
+        Map<Long, Long> totals = new HashMap<>();
+        for (Map<String, Object> row : achievementMapper.selectMaps(sumWrapper)) {
+            Object userId = row.get("user_id");
+            Object total = row.get("total_points");
+            if (userId != null && total != null) {
+                totals.put(((Number) userId).longValue(), ((Number) total).longValue());
+            }
+        }
+        return totals;
+    }
+
+    private List<Entry> toEntries(ScoreRankTree board, List<long[]> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            entries.add(new Entry(row[0], row[1], board.countAbove(row[1]) + 1));
+        }
+        return entries;
+    }
+
+    /** 获取用户部门(没有部门为空串), 未缓存时查询一次 user 表 */
+    private String departmentOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            String department = boards.departmentOf.get(userId);
+            if (department != null) {
+                return department;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        User user = userMapper.selectById(userId);
+        return normalize(user == null ? null : user.getDepartment());
+    }
+}
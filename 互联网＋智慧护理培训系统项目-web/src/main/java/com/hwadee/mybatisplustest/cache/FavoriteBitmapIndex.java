@@ -0,0 +1,174 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.hwadee.mybatisplustest.entity.UserFavorite;
+import com.hwadee.mybatisplustest.mapper.UserFavoriteMapper;
+import jakarta.annotation.Resource;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户收藏位图索引
+ *
+ * 功能说明:
+ * 1. 每个用户维护两个压缩位图(Roaring): 已收藏的文章ID、已收藏的视频ID
+ * 2. 首次访问某用户时从 user_favorite 懒加载, 之后由添加/取消收藏同步维护
+ * 3. 支持一次判断一整页卡片的收藏状态, 无需逐条查询数据库
+ * 4. 缓存用户数超过上限时淘汰最久未访问的用户(一次淘汰到上限的90%, 分摊扫描开销), 被淘汰的用户下次访问时重新加载
+ *
+ * 并发说明:
+ * - 加载与同步更新都在 ConcurrentHashMap 的同一键上执行(computeIfAbsent/computeIfPresent),
+ *   加载过程中的更新会等待加载完成后再应用, 不会丢失
+ * - 位图本身非线程安全, 读写均在用户条目上加锁
+ * - 淘汰用 remove(key, value), 只移除扫描时看到的那个条目; 被淘汰用户的同步更新会被跳过, 数据库已是最新, 重新加载即可
+ *
+ * 配置项:
+ * - favorite.bitmap.max-users: 缓存的用户数上限, 默认10000
+ */
+@Component
+public class FavoriteBitmapIndex {
+
+    /** 单个用户的收藏位图 */
+    private static final class UserBitmaps {
+        final Roaring64Bitmap articles = new Roaring64Bitmap();  // 已收藏文章
+        final Roaring64Bitmap videos = new Roaring64Bitmap();    // 已收藏视频
+        volatile long lastAccess = System.nanoTime();              // 最近访问时间, 淘汰依据
+    }
+
+    @Resource
+    private UserFavoriteMapper favoriteMapper;  // 收藏数据访问层
+
+    private final ConcurrentHashMap<Long, UserBitmaps> users = new ConcurrentHashMap<>();
+    private final Object trimMonitor = new Object();  // 同一时间只有一个线程做淘汰扫描
+    private final int maxUsers;
+
+    public FavoriteBitmapIndex(@Value("${favorite.bitmap.max-users:10000}") int maxUsers) {
+        this.maxUsers = Math.max(1, maxUsers);
+    }
+
+    /**
+     * 批量判断收藏状态
+     *
+     * @param userId 用户ID
+     * @param articleIds 文章ID列表(可为空)
+     * @param videoIds 视频ID列表(可为空)
+     * @return {"articles": {id: 是否收藏}, "videos": {id: 是否收藏}}
+     */
+    public Map<String, Map<Long, Boolean>> check(Long userId, Collection<Long> articleIds, Collection<Long> videoIds) {
+        UserBitmaps bitmaps = users.computeIfAbsent(userId, this::load);
+        bitmaps.lastAccess = System.nanoTime();
+        if (users.size() > maxUsers) {
+            trim();
+        }
+        Map<Long, Boolean> articles = new LinkedHashMap<>();
+        Map<Long, Boolean> videos = new LinkedHashMap<>();
+        synchronized (bitmaps) {
+            if (articleIds != null) {
+                for (Long id : articleIds) {
+                    articles.put(id, id != null && bitmaps.articles.contains(id));
+                }
+            }
+            if (videoIds != null) {
+                for (Long id : videoIds) {
+                    videos.put(id, id != null && bitmaps.videos.contains(id));
+                }
+            }
+        }
+        Map<String, Map<Long, Boolean>> result = new LinkedHashMap<>();
+        result.put("articles", articles);
+        result.put("videos", videos);
+        return result;
+    }
+
+    /** 添加收藏后同步位图(用户未加载时无需处理, 下次懒加载会读到新数据) */
+    public void add(Long userId, Long articleId, Long videoId) {
+        users.computeIfPresent(userId, (id, bitmaps) -> {
+            synchronized (bitmaps) {
+                if (articleId != null) {
+                    bitmaps.articles.addLong(articleId);
+                }
+                if (videoId != null) {
+                    bitmaps.videos.addLong(videoId);
+                }
+            }
+            return bitmaps;
+        });
+    }
+
+    /** 取消收藏后同步位图 */
+    public void remove(Long userId, Long articleId, Long videoId) {
+        users.computeIfPresent(userId, (id, bitmaps) -> {
+            synchronized (bitmaps) {
+                if (articleId != null) {
+                    bitmaps.articles.removeLong(articleId);
+                }
+                if (videoId != null) {
+                    bitmaps.videos.removeLong(videoId);
+                }
+            }
+            return bitmaps;
+        });
+    }
+
+    /** 丢弃某用户的位图, 下次访问时重新加载 */
+    public void evict(Long userId) {
+        users.remove(userId);
+    }
+
+    /** 淘汰候选: 用户条目及扫描时的访问时间 */
+    private record Candidate(Long userId, UserBitmaps bitmaps, long lastAccess) {
+    }
+
+    /** 当前缓存的用户数 */
+    public int size() {
+        return users.size();
+    }
+
+    /** 淘汰最久未访问的用户, 直到用户数不超过上限的90% */
+    private void trim() {
+        synchronized (trimMonitor) {
+            int target = maxUsers - maxUsers / 10;
+            int excess = users.size() - target;
+            if (users.size() <= maxUsers || excess <= 0) {  // 其他线程已经淘汰过
+                return;
+            }
+            // 先复制访问时间再排序, 排序期间的并发访问不会改变比较结果
+            List<Candidate> eldest = users.entrySet().stream()
+                    .map(e -> new Candidate(e.getKey(), e.getValue(), e.getValue().lastAccess))
+                    .sorted(Comparator.comparingLong(Candidate::lastAccess))
+                    .limit(excess)
+                    .toList();
+            for (Candidate candidate : eldest) {
+                users.remove(candidate.userId(), candidate.bitmaps());
+            }
+        }
+    }
+
+    /** 从数据库加载用户的全部收藏 */
+    private UserBitmaps load(Long userId) {
+        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(UserFavorite::getArticleId, UserFavorite::getVideoId)  // 只取ID列
+               .eq(UserFavorite::getUserId, userId);
+        UserBitmaps bitmaps = new UserBitmaps();
+        for (UserFavorite favorite : favoriteMapper.selectList(wrapper)) {
+            if (favorite == null) {  // 所有列均为NULL时MyBatis返回null
+                continue;
+            }
+            if (favorite.getArticleId() != null) {
+                bitmaps.articles.addLong(favorite.getArticleId());
+            }
+            if (favorite.getVideoId() != null) {
+                bitmaps.videos.addLong(favorite.getVideoId());
+            }
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.hwadee.mybatisplustest.entity.UserFavorite;
+import com.hwadee.mybatisplustest.mapper.UserFavoriteMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容收藏数计数器
+ *
+ * 功能说明:
+ * 1. 维护每篇文章、每个视频的收藏数, 启动时通过 GROUP BY 一次性加载
+ * 2. 添加/取消收藏时原子增减, 查询时直接读内存, 不再执行 COUNT(*)
+ * 3. 定时与数据库对账(默认10分钟), 修正并发或直接改库造成的偏差
+ *
+ * 注意: 对账期间发生的增减可能被对账结果覆盖, 偏差会在下一次对账时修正
+ */
+@Slf4j
+@Component
+public class FavoriteCounter {
+
+    @Resource
+    private UserFavoriteMapper favoriteMapper;  // 收藏数据访问层
+
+    private volatile Map<Long, AtomicLong> articleCounts = new ConcurrentHashMap<>();  // 文章ID -> 收藏数
+    private volatile Map<Long, AtomicLong> videoCounts = new ConcurrentHashMap<>();    // 视频ID -> 收藏数
+
+    /**
+     * 从数据库重新统计全部收藏数
+     * 启动完成后执行一次, 之后按 favorite.count.reconcile-interval-ms 定时执行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${favorite.count.reconcile-interval-ms:600000}",
+               fixedDelayString = "${favorite.count.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            articleCounts = countBy("article_id");
+            videoCounts = countBy("video_id");
+            log.debug("收藏数对账完成, 文章 {} 篇, 视频 {} 个", articleCounts.size(), videoCounts.size());
+        } catch (Exception e) {
+            log.warn("收藏数对账失败: {}", e.getMessage());
+        }
+    }
+
+    /** 收藏数变化(添加为正, 取消为负) */
+    public void increment(Long articleId, Long videoId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (articleId != null) {
+            articleCounts.computeIfAbsent(articleId, k -> new AtomicLong()).addAndGet(delta);
+        }
+        if (videoId != null) {
+            videoCounts.computeIfAbsent(videoId, k -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    /** 单篇文章的收藏数 */
+    public long articleCount(Long articleId) {
+        return valueOf(articleCounts.get(articleId));
+    }
+
+    /** 单个视频的收藏数 */
+    public long videoCount(Long videoId) {
+        return valueOf(videoCounts.get(videoId));
+    }
+
+    /**
+     * 批量获取收藏数
+     *
+     * @return {"articles": {id: 收藏数}, "videos": {id: 收藏数}}
+     */
+    public Map<String, Map<Long, Long>> counts(Collection<Long> articleIds, Collection<Long> videoIds) {
+        Map<Long, Long> articles = new LinkedHashMap<>();
+        Map<Long, Long> videos = new LinkedHashMap<>();
+        if (articleIds != null) {
+            for (Long id : articleIds) {
+                articles.put(id, valueOf(id == null ? null : articleCounts.get(id)));
+            }
+        }
+        if (videoIds != null) {
+            for (Long id : videoIds) {
+                videos.put(id, valueOf(id == null ? null : videoCounts.get(id)));
+            }
+        }
+        Map<String, Map<Long, Long>> result = new LinkedHashMap<>();
+        result.put("articles", articles);
+        result.put("videos", videos);
+        return result;
+    }
+
+    private static long valueOf(AtomicLong counter) {
+        return counter == null ? 0 : Math.max(0, counter.get());
+    }
+
+    /** SELECT column, COUNT(*) FROM user_favorite WHERE column IS NOT NULL GROUP BY column */
+    private Map<Long, AtomicLong> countBy(String column) {
+        QueryWrapper<UserFavorite> wrapper = new QueryWrapper<>();
+        wrapper.select(column, "COUNT(*) AS favorite_count")
+               .isNotNull(column)
+               .groupBy(column);
+        List<Map<String, Object>> rows = favoriteMapper.selectMaps(wrapper);
+        Map<Long, AtomicLong> counts = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+        for (Map<String, Object> row : rows) {
+            Object id = row.get(column);
+            Object count = row.get("favorite_count");
+            if (id != null && count != null) {
+                counts.put(((Number) id).longValue(), new AtomicLong(((Number) count).longValue()));
+            }
+        }
+        return counts;
+    }
+}
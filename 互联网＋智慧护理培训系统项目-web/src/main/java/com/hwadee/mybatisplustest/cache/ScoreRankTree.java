@@ -0,0 +1,193 @@
+package com.hwadee.mybatisplustest.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 积分排名树 - 顺序统计树(Treap)
+ *
+ * 功能说明:
+ * 1. 按"积分降序、用户ID升序"维护所有用户的排名顺序
+ * 2. 每个节点记录子树大小, 插入/删除/求名次/按名次取值均为 O(log n)
+ * 3. 额外维护 userId -> 积分 的哈希表, 用于定位已有节点
+ *
+ * 注意: 非线程安全, 由 AchievementLeaderboard 统一加锁后访问
+ */
+class ScoreRankTree {
+
+    /** 树节点 */
+    private static final class Node {
+        final long userId;     // 用户ID
+        final long points;     // 总积分
+        final int priority;    // 堆优先级(随机)
+        int size = 1;          // 子树节点数
+        Node left;
+        Node right;
+
+        Node(long userId, long points, int priority) {
+            this.userId = userId;
+            this.points = points;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Long> pointsByUser = new HashMap<>();  // 用户当前积分
+    private final SplittableRandom random = new SplittableRandom();  // 优先级生成器
+    private Node root;
+
+    /** 当前上榜人数 */
+    int size() {
+        return size(root);
+    }
+
+    /** 获取用户积分, 未上榜返回null */
+    Long pointsOf(long userId) {
+        return pointsByUser.get(userId);
+    }
+
+    /** 设置用户积分(已存在则先移除旧节点) */
+    void put(long userId, long points) {
+        Long old = pointsByUser.put(userId, points);
+        if (old != null) {
+            root = delete(root, old, userId);
+        }
+        Node[] parts = split(root, points, userId);
+        root = merge(merge(parts[0], new Node(userId, points, random.nextInt())), parts[1]);
+    }
+
+    /** 移除用户 */
+    void remove(long userId) {
+        Long old = pointsByUser.remove(userId);
+        if (old != null) {
+            root = delete(root, old, userId);
+        }
+    }
+
+    /** 用户在树中的位置(从0开始), 未上榜返回-1 */
+    int indexOf(long userId) {
+        Long points = pointsByUser.get(userId);
+        return points == null ? -1 : countBefore(points, userId);
+    }
+
+    /** 积分严格高于 points 的人数, 加1即为并列排名 */
+    int countAbove(long points) {
+        return countBefore(points, Long.MIN_VALUE);
+    }
+
+    /** 取位置区间 [from, to) 内的 {userId, points} */
+    List<long[]> range(int from, int to) {
+        int start = Math.max(0, from);
+        int end = Math.min(size(), to);
+        List<long[]> result = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            Node node = select(i);
+            result.add(new long[]{node.userId, node.points});
+        }
+        return result;
+    }
+
+    // ==================== 内部实现 ====================
+
+    /** 排序规则: 积分高的在前, 积分相同按用户ID升序 */
+    private static int compare(long aPoints, long aUser, long bPoints, long bUser) {
+        if (aPoints != bPoints) {
+            return aPoints > bPoints ? -1 : 1;
+        }
+        return Long.compare(aUser, bUser);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /** 排在 (points, userId) 之前的节点数 */
+    private int countBefore(long points, long userId) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node.points, node.userId, points, userId) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /** 取第 index 个节点(从0开始) */
+    private Node select(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("index: " + index);
+    }
+
+    /** 按键拆分: 左树全部小于 (points, userId), 右树大于等于 */
+    private Node[] split(Node node, long points, long userId) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(node.points, node.userId, points, userId) < 0) {
+            Node[] parts = split(node.right, points, userId);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, points, userId);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    /** 合并两棵树, 要求 left 中所有键小于 right */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node delete(Node node, long points, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(points, userId, node.points, node.userId);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = delete(node.left, points, userId);
+        } else {
+            node.right = delete(node.right, points, userId);
+        }
+        update(node);
+        return node;
+    }
+}
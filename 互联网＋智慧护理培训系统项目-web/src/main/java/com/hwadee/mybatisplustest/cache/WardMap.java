@@ -0,0 +1,281 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.hwadee.mybatisplustest.entity.Patient;
+import com.hwadee.mybatisplustest.mapper.PatientMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 病区床位图 - 在院病人的内存索引
+ *
+ * 功能说明:
+ * 1. 启动时加载所有在院病人(status=1), 按 房间号 -> 床位 组织, 并统计各护理等级人数
+ * 2. 病人新增/修改/删除后由 PatientController 同步更新, 查询不再访问数据库
+ * 3. 定时与数据库对账(默认5分钟), 修正直接改库造成的偏差
+ *
+ * 并发说明: 读写锁保护全部索引, 查询可并发, 更新互斥;
+ * 重新加载时数据库查询在锁外执行, 查询期间的 upsert/remove 先记录下来, 换入新索引前在新索引上重放, 不会被旧快照覆盖
+ */
+@Slf4j
+@Component
+public class WardMap {
+
+    /** 在院病人状态 */
+    private static final int STATUS_ACTIVE = 1;
+
+    /** 床位占用信息 */
+    public record Bed(Long patientId, String patientNo, String name, Integer gender, Integer age,
+                      String roomNo, String bedNo, String careLevel) {
+    }
+
+    /** 床位号排序: 纯数字床位号在前并按数值(2 在 10 之前), 其余按字典序(A2 在 A10 之后), 同床位(数据异常)按病人ID */
+    private static final Comparator<Bed> BED_ORDER = Comparator
+            .comparing((Bed b) -> b.bedNo() == null ? "" : b.bedNo(), WardMap::compareBedNo)
+            .thenComparing(Bed::patientId);
+
+    /** 重新加载期间的一次变更: bed 为 null 表示移除 */
+    private record Delta(Long patientId, Bed bed) {
+    }
+
+    /** 单个房间: 床位集合 + 护理等级计数 */
+    private static final class Room {
+        final TreeSet<Bed> beds = new TreeSet<>(BED_ORDER);
+        final Map<String, Integer> careLevels = new TreeMap<>();
+    }
+
+    @Resource
+    private PatientMapper patientMapper;  // 病人数据访问层
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Bed> byPatient = new HashMap<>();            // 病人ID -> 床位
+    private TreeMap<String, Room> rooms = new TreeMap<>();         // 房间号 -> 房间
+    private Map<String, Integer> careLevels = new TreeMap<>();     // 护理等级 -> 人数(全病区)
+    private List<Delta> deltas;                                    // 重新加载期间的变更, 不在加载时为 null
+    private final Object reloadMonitor = new Object();             // 同一时间只有一个重新加载(定时对账与导入后刷新)
+
+    /**
+     * 从数据库重新加载
+     * 启动完成后执行一次, 之后按 ward-map.reload-interval-ms 定时对账
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ward-map.reload-interval-ms:300000}",
+               fixedDelayString = "${ward-map.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (reloadMonitor) {
+            doReload();
+        }
+    }
+
+    private void doReload() {
+        lock.writeLock().lock();
+        try {
+            deltas = new ArrayList<>();  // 从查询开始前记录变更
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            LambdaQueryWrapper<Patient> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Patient::getId, Patient::getPatientNo, Patient::getName, Patient::getGender,
+                           Patient::getAge, Patient::getRoomNo, Patient::getBedNo, Patient::getCareLevel,
+                           Patient::getStatus)  // 只取床位图需要的列
+                   .eq(Patient::getStatus, STATUS_ACTIVE);
+            Map<Long, Bed> newByPatient = new HashMap<>();
+            TreeMap<String, Room> newRooms = new TreeMap<>();
+            Map<String, Integer> newCareLevels = new TreeMap<>();
+            for (Patient patient : patientMapper.selectList(wrapper)) {
+                Bed bed = toBed(patient);
+                if (bed != null) {
+                    newByPatient.put(bed.patientId(), bed);
+                    add(newRooms, newCareLevels, bed);
+                }
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                replayed = deltas.size();
+                for (Delta delta : deltas) {  // 查询结果可能早于这些变更, 以变更为准
+                    apply(newByPatient, newRooms, newCareLevels, delta.patientId(), delta.bed());
+                }
+                byPatient = newByPatient;
+                rooms = newRooms;
+                careLevels = newCareLevels;
+                deltas = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("病区床位图加载完成, 在院病人 {} 人, 房间 {} 间, 重放加载期间变更 {} 次",
+                    newByPatient.size(), newRooms.size(), replayed);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                deltas = null;  // 保留旧索引, 加载期间的变更已直接写入旧索引
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("病区床位图加载失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 病人新增或修改后同步(传入数据库中的完整记录)
+     * 非在院或未分配房间的病人会从床位图中移除
+     */
+    public void upsert(Patient patient) {
+        if (patient == null || patient.getId() == null) {
+            return;
+        }
+        change(patient.getId(), toBed(patient));
+    }
+
+    /** 病人删除后同步 */
+    public void remove(Long patientId) {
+        if (patientId == null) {
+            return;
+        }
+        change(patientId, null);
+    }
+
+    /** 写入当前索引; 正在重新加载时同时记录, 换入新索引前重放 */
+    private void change(Long patientId, Bed bed) {
+        lock.writeLock().lock();
+        try {
+            apply(byPatient, rooms, careLevels, patientId, bed);
+            if (deltas != null) {
+                deltas.add(new Delta(patientId, bed));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 床位图查询
+     *
+     * @param roomNo 房间号(可选), 为空时返回全部房间
+     * @param careLevel 护理等级(可选), 只返回该等级的床位
+     * @return {"occupied": 在院人数, "careLevels": {等级: 人数}, "rooms": [{"roomNo", "occupied", "careLevels", "beds"}]}
+     */
+    public Map<String, Object> snapshot(String roomNo, String careLevel) {
+        boolean filterLevel = careLevel != null && !careLevel.isEmpty();
+        List<Map<String, Object>> roomViews = new ArrayList<>();
+        Map<String, Object> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Map<String, Room> selected = roomNo == null || roomNo.isEmpty()
+                    ? rooms
+                    : rooms.containsKey(roomNo) ? Map.of(roomNo, rooms.get(roomNo)) : Map.of();
+            for (Map.Entry<String, Room> entry : selected.entrySet()) {
+                Room room = entry.getValue();
+                List<Bed> beds = new ArrayList<>(room.beds.size());
+                for (Bed bed : room.beds) {
+                    if (!filterLevel || careLevel.equals(bed.careLevel())) {
+                        beds.add(bed);
+                    }
+                }
+                if (filterLevel && beds.isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> view = new LinkedHashMap<>();
+                view.put("roomNo", entry.getKey());
+                view.put("occupied", room.beds.size());
+                view.put("careLevels", new LinkedHashMap<>(room.careLevels));
+                view.put("beds", beds);
+                roomViews.add(view);
+            }
+            result.put("occupied", byPatient.size());
+            result.put("careLevels", new LinkedHashMap<>(careLevels));
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("rooms", roomViews);
+        return result;
+    }
+
+    private static Bed toBed(Patient patient) {
+        if (patient.getStatus() == null || patient.getStatus() != STATUS_ACTIVE
+                || patient.getRoomNo() == null || patient.getRoomNo().isEmpty()) {
+            return null;
+        }
+        return new Bed(patient.getId(), patient.getPatientNo(), patient.getName(), patient.getGender(),
+                patient.getAge(), patient.getRoomNo(), patient.getBedNo(), patient.getCareLevel());
+    }
+
+    /** 把病人的床位替换为 bed(null 表示移除) */
+    private static void apply(Map<Long, Bed> byPatient, TreeMap<String, Room> rooms, Map<String, Integer> careLevels,
+                              Long patientId, Bed bed) {
+        Bed old = byPatient.remove(patientId);
+        if (old != null) {
+            remove(rooms, careLevels, old);
+        }
+        if (bed != null) {
+            byPatient.put(bed.patientId(), bed);
+            add(rooms, careLevels, bed);
+        }
+    }
+
+    /** 床位号比较: 两个都是纯数字时先比长度(即按数值), 纯数字排在其他床位号之前, 其余按字典序 */
+    static int compareBedNo(String a, String b) {
+        boolean digitsA = isDigits(a);
+        boolean digitsB = isDigits(b);
+        if (digitsA != digitsB) {
+            return digitsA ? -1 : 1;
+        }
+        if (digitsA && a.length() != b.length()) {
+            return Integer.compare(a.length(), b.length());
+        }
+        return a.compareTo(b);
+    }
+
+    private static boolean isDigits(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(TreeMap<String, Room> rooms, Map<String, Integer> careLevels, Bed bed) {
+        Room room = rooms.computeIfAbsent(bed.roomNo(), k -> new Room());
+        room.beds.add(bed);
+        String level = levelKey(bed);
+        room.careLevels.merge(level, 1, Integer::sum);
+        careLevels.merge(level, 1, Integer::sum);
+    }
+
+    private static void remove(TreeMap<String, Room> rooms, Map<String, Integer> careLevels, Bed bed) {
+        Room room = rooms.get(bed.roomNo());
+        if (room == null || !room.beds.remove(bed)) {
+            return;
+        }
+        String level = levelKey(bed);
+        room.careLevels.computeIfPresent(level, (k, v) -> v > 1 ? v - 1 : null);
+        careLevels.computeIfPresent(level, (k, v) -> v > 1 ? v - 1 : null);
+        if (room.beds.isEmpty()) {
+            rooms.remove(bed.roomNo());
+        }
+    }
+
+    private static String levelKey(Bed bed) {
+        return bed.careLevel() == null || bed.careLevel().isEmpty() ? "未设置" : bed.careLevel();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hwadee.mybatisplustest.common;
+
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+
+import java.util.Set;
+
+/**
+ * 局部更新(PATCH)条件构造
+ *
+ * 只 SET 请求中出现的字段(值为 null 时置空), 并带乐观锁条件:
+ * UPDATE 表 SET 列1 = ?, 列2 = ?, version = version + 1 WHERE id = ? AND version = ?
+ * 不需要先查询整条记录, 影响行数为0表示记录不存在或已被他人修改
+ */
+public final class PartialUpdate {
+
+    /** 各表共用的只读属性: 主键、版本号和审计字段, 由服务端维护 */
+    public static final Set<String> READ_ONLY = Set.of("id", "version", "createdBy", "createdAt", "updatedAt");
+
+    private PartialUpdate() {
+    }
+
+    /**
+     * 构造局部更新条件
+     *
+     * @param changes 由请求体转换得到的实体, 只读取 fields 中列出的属性
+     * @param fields 请求体中出现的属性名
+     * @param id 主键
+     * @param version 客户端读取时的版本号
+     * @param readOnly 不允许通过 PATCH 修改的属性(如创建人、创建时间)
+     * @return 更新条件, 传给 IService.update(wrapper)
+     * @throws IllegalArgumentException 没有可更新的字段
+     */
+    public static <T> UpdateWrapper<T> of(T changes, Set<String> fields, Object id, int version, Set<String> readOnly) {
+        TableInfo table = TableInfoHelper.getTableInfo(changes.getClass());
+        TableFieldInfo versionField = table.getVersionFieldInfo();
+        UpdateWrapper<T> wrapper = new UpdateWrapper<>();
+        boolean any = false;
+        for (TableFieldInfo field : table.getFieldList()) {
+            String property = field.getProperty();
+            if (field.isVersion() || !fields.contains(property) || readOnly.contains(property)) {
+                continue;
+            }
+            wrapper.set(field.getColumn(), table.getPropertyValue(changes, property));
+            any = true;
+        }
+        if (!any) {
+            throw new IllegalArgumentException("没有可更新的字段");
+        }
+        String versionColumn = versionField.getColumn();
+        wrapper.setSql(versionColumn + " = " + versionColumn + " + 1")
+               .eq(table.getKeyColumn(), id)
+               .eq(versionColumn, version);
+        return wrapper;
+    }
+}
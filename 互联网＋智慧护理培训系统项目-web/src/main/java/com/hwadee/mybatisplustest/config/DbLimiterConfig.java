@@ -0,0 +1,73 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库并发限制(db-limiter.enabled, 默认跟随 spring.threads.virtual.enabled)
+ *
+ * 把容器中的 DataSource 包装为 LimitedDataSource, MyBatis、事务管理器、SchemaMigrator 取连接都经过信号量;
+ * Actuator 的连接池指标和健康检查通过 unwrap 仍能拿到 HikariDataSource.
+ * 指标: db.limiter.active / db.limiter.waiting (Gauge), db.limiter.timeouts (Counter), db.limiter.wait (Timer, 排队时间)
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "db-limiter.enabled", havingValue = "true")
+public class DbLimiterConfig {
+
+    /** 静态方法: BeanPostProcessor 要先于其他 Bean 创建, 参数从 Environment 读取而不是 @Value 注入 */
+    @Bean
+    static BeanPostProcessor dataSourceLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof LimitedDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("db-limiter.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {  // 0: 与连接池最大连接数相同
+                    maxConcurrent = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                long timeoutMs = environment.getProperty("db-limiter.acquire-timeout-ms", Long.class, 5000L);
+                log.info("数据库并发限制: 数据源 {} 最多 {} 个并发连接, 等待超时 {}ms", beanName, maxConcurrent, timeoutMs);
+                return new LimitedDataSource(dataSource, maxConcurrent, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dbLimiterMetrics(DataSource dataSource) throws SQLException {
+        LimitedDataSource limiter = dataSource.unwrap(LimitedDataSource.class);
+        return registry -> {
+            Gauge.builder("db.limiter.active", limiter, LimitedDataSource::active)
+                    .description("已取得许可(持有连接)的线程数")
+                    .register(registry);
+            Gauge.builder("db.limiter.waiting", limiter, LimitedDataSource::waiting)
+                    .description("排队等待数据库许可的线程数")
+                    .register(registry);
+            Gauge.builder("db.limiter.max", limiter, LimitedDataSource::maxConcurrent)
+                    .description("数据库并发上限")
+                    .register(registry);
+            FunctionCounter.builder("db.limiter.timeouts", limiter, LimitedDataSource::timeouts)
+                    .description("等待数据库许可超时次数")
+                    .register(registry);
+            Timer wait = Timer.builder("db.limiter.wait")
+                    .description("取连接前在并发限制上的排队时间")
+                    .register(registry);
+            limiter.setWaitListener(nanos -> wait.record(nanos, TimeUnit.NANOSECONDS));
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.hwadee.mybatisplustest.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 数据库并发限制: 取连接前先取得信号量许可, 连接关闭(归还连接池)时释放
+ *
+ * 虚拟线程模式下请求线程数不再受 Tomcat 线程池限制, 上千个请求同时取连接时会一起挤进 Hikari 的等待队列,
+ * 连接池内部的交接和超时处理在大量等待者下开销明显; 这里用公平信号量在连接池外排队, 同时取连接的线程数不超过连接数,
+ * 等待者按先后顺序获得许可. 等待超时抛出 SQLTransientConnectionException, 与连接池取连接超时的异常类型一致.
+ *
+ * 事务内的多次查询由 Spring 绑定在同一连接上, 只占用一个许可; 同一线程同时持有两个连接(如 REQUIRES_NEW)会占用两个许可.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final LongAdder timeouts = new LongAdder();
+    private volatile LongConsumer waitListener = nanos -> { };  // 每次取得许可的等待时间(纳秒), 由指标注册时设置
+
+    public LimitedDataSource(DataSource target, int maxConcurrent, long acquireTimeoutMs) {
+        super(target);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+            waitListener.accept(System.nanoTime() - start);
+            if (!acquired) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(String.format("数据库并发已达上限 %d, 等待 %dms 未取得连接",
+                        maxConcurrent, TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接时被中断", e);
+        }
+    }
+
+    /** 代理连接的 close: 归还连接后释放许可, 重复 close 只释放一次 */
+    private Connection releaseOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":  // 按代理对象本身比较, Spring 判断是否为同一连接时用到
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                target.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    public void setWaitListener(LongConsumer waitListener) {
+        this.waitListener = waitListener;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /** 正在使用的许可数(已取得连接且未归还) */
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /** 正在排队等待许可的线程数 */
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    /** 等待超时次数(累计) */
+    public long timeouts() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,209 @@
+package com.hwadee.mybatisplustest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mapper 方法耗时统计与慢SQL日志(MyBatis 插件)
+ *
+ * 指标: mybatis.mapper (Timer), 标签 mapper=接口名, method=方法名, type=SELECT/INSERT/UPDATE/DELETE, outcome=success/error
+ * 分页查询的 COUNT 语句在同一次 selectPage 调用内执行, 计入该 Mapper 方法
+ * 耗时超过 sql-diagnostics.slow-threshold-ms 时记录告警日志: 语句ID、SQL 和绑定参数(密码类参数打码, 长文本截断)
+ * 打码按参数名和占位符对应的列名判断: 条件构造器的参数名是 ew.paramNameValuePairs.MPGENVALn, 看不出是哪一列,
+ * 因此同时按 SQL 中占位符前面的列名(password = ?、SET password = ?、INSERT 列表中的位置)判断
+ *
+ * 开销说明:
+ * - 每个 MappedStatement 的 Timer 首次调用时注册并缓存, 之后只有一次 ConcurrentHashMap 查找
+ * - 用 System.nanoTime 计时, 直接 record(纳秒), 不创建 Timer.Sample
+ * - 分页插件等内层拦截器会再次调用 Executor.query, 用线程内嵌套深度只统计最外层调用
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    public static final String METRIC_NAME = "mybatis.mapper";
+
+    private static final int MAX_PARAMETER_LENGTH = 64;  // 日志中单个参数的最大长度
+    private static final String MASK = "******";
+    private static final Pattern SENSITIVE = Pattern.compile("password", Pattern.CASE_INSENSITIVE);  // 需要打码的参数名/列名
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*INSERT\\s+(?:IGNORE\\s+)?INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*", Pattern.CASE_INSENSITIVE);
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    private final ConcurrentHashMap<String, Timer[]> timers = new ConcurrentHashMap<>();  // 语句ID -> [成功, 失败]
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);   // 当前线程的嵌套深度
+
+    public MapperMetricsInterceptor(MeterRegistry registry, long slowThresholdMs) {
+        this.registry = registry;
+        this.slowThresholdNanos = slowThresholdMs <= 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        int[] level = depth.get();
+        if (level[0] > 0) {  // 内层调用, 已由外层计时
+            return invocation.proceed();
+        }
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        level[0]++;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            level[0]--;
+            long elapsed = System.nanoTime() - start;
+            timersOf(statement)[success ? 0 : 1].record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed > slowThresholdNanos) {
+                logSlow(statement, invocation.getArgs(), elapsed);
+            }
+        }
+    }
+
+    private void logSlow(MappedStatement statement, Object[] args, long elapsedNanos) {
+        try {
+            Object parameter = args[1];
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(parameter);
+            log.warn("慢SQL {}ms {}\nSQL: {}\n参数: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statement.getId(),
+                    boundSql.getSql().replaceAll("\\s+", " "), parameters(statement.getConfiguration(), boundSql, parameter));
+        } catch (RuntimeException e) {  // 日志失败不影响业务
+            log.warn("慢SQL {}ms {} (参数解析失败: {})", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statement.getId(), e.getMessage());
+        }
+    }
+
+    /** 按占位符顺序取出绑定参数, 取值规则与 DefaultParameterHandler 相同 */
+    static List<Object> parameters(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<Object> values = new ArrayList<>();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        boolean[] sensitiveColumns = sensitivePlaceholders(boundSql.getSql(), mappings.size());
+        MetaObject meta = null;
+        for (int i = 0; i < mappings.size(); i++) {
+            ParameterMapping mapping = mappings.get(i);
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            if (sensitiveColumns[i] || SENSITIVE.matcher(property).find()) {
+                values.add(MASK);
+                continue;
+            }
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                if (meta == null) {
+                    meta = configuration.newMetaObject(parameter);
+                }
+                value = meta.getValue(property);
+            }
+            if (value instanceof String s && s.length() > MAX_PARAMETER_LENGTH) {
+                value = s.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * 每个占位符绑定的列是否需要打码
+     * INSERT INTO t (a, password) VALUES (?, ?), (?, ?): 按 VALUES 中的位置对应列名;
+     * 其他语句: 看上一个占位符到本占位符之间的 SQL 片段(WHERE password = ?、SET password = ?)是否出现密码列
+     */
+    static boolean[] sensitivePlaceholders(String sql, int count) {
+        boolean[] sensitive = new boolean[count];
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find() && sql.lastIndexOf('?', insert.end()) < 0) {
+            String[] columns = insert.group(1).split(",");
+            List<Integer> columnOfPlaceholder = new ArrayList<>();  // 第一组 VALUES 中每个占位符对应的列序号
+            int column = 0;
+            int depth = 0;
+            for (int i = insert.end(); i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    break;
+                } else if (c == ',' && depth == 1) {
+                    column++;
+                } else if (c == '?') {
+                    columnOfPlaceholder.add(column);
+                }
+            }
+            if (!columnOfPlaceholder.isEmpty()) {
+                for (int i = 0; i < count; i++) {  // 多组 VALUES 按同样的列顺序重复
+                    int index = columnOfPlaceholder.get(i % columnOfPlaceholder.size());
+                    sensitive[i] = index < columns.length && SENSITIVE.matcher(columns[index]).find();
+                }
+                return sensitive;
+            }
+        }
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            int at = sql.indexOf('?', from);
+            if (at < 0) {
+                break;
+            }
+            sensitive[i] = SENSITIVE.matcher(sql.substring(from, at)).find();
+            from = at + 1;
+        }
+        return sensitive;
+    }
+
+    private Timer[] timersOf(MappedStatement statement) {
+        Timer[] pair = timers.get(statement.getId());
+        return pair != null ? pair : timers.computeIfAbsent(statement.getId(), id -> register(statement));
+    }
+
+    private Timer[] register(MappedStatement statement) {
+        String id = statement.getId();  // 如 com.hwadee.mybatisplustest.mapper.UserMapper.selectList
+        int lastDot = id.lastIndexOf('.');
+        String namespace = lastDot < 0 ? "" : id.substring(0, lastDot);
+        String mapper = namespace.substring(namespace.lastIndexOf('.') + 1);
+        String method = id.substring(lastDot + 1);
+        String type = statement.getSqlCommandType().name();
+        return new Timer[]{timer(mapper, method, type, "success"), timer(mapper, method, type, "error")};
+    }
+
+    private Timer timer(String mapper, String method, String type, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Mapper 方法执行耗时(含分页 COUNT)")
+                .tags("mapper", mapper, "method", method, "type", type, "outcome", outcome)
+                .register(registry);
+    }
+}
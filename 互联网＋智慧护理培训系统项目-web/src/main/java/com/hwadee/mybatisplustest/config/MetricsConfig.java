@@ -0,0 +1,50 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.hwadee.mybatisplustest.security.CredentialVerifier;
+import com.hwadee.mybatisplustest.security.LoginRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * 业务组件指标
+ *
+ * 接口耗时(http.server.requests)和连接池(hikaricp.*)由 Actuator 自动采集, Mapper 耗时见 MapperMetricsInterceptor;
+ * 这里把登录限流和密码校验已有的累计计数注册为 Prometheus 指标, 只在抓取时读取, 不影响登录路径
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder loginMetrics(LoginRateLimiter rateLimiter, CredentialVerifier credentialVerifier) {
+        return registry -> {
+            for (String result : new String[]{"allowed", "rejectedByUser", "rejectedByIp"}) {
+                FunctionCounter.builder("login.rate.limit", rateLimiter, limiter -> limiter.stats().get(result))
+                        .description("登录限流判定次数")
+                        .tag("result", result)
+                        .register(registry);
+            }
+            FunctionCounter.builder("password.verifications", credentialVerifier, verifier -> number(verifier.stats(), "verifications"))
+                    .description("密码校验次数")
+                    .register(registry);
+            FunctionCounter.builder("password.verify.cache.hits", credentialVerifier, verifier -> number(verifier.stats(), "cacheHits"))
+                    .description("密码校验缓存命中次数")
+                    .register(registry);
+            FunctionCounter.builder("password.kdf", credentialVerifier, verifier -> number(verifier.stats(), "kdfCount"))
+                    .description("PBKDF2 计算次数")
+                    .register(registry);
+            Gauge.builder("password.verify.cache.size", credentialVerifier, verifier -> number(verifier.stats(), "cacheSize"))
+                    .description("密码校验缓存条目数")
+                    .register(registry);
+        };
+    }
+
+    private static double number(Map<String, Object> stats, String key) {
+        Object value = stats.get(key);
+        return value instanceof Number n ? n.doubleValue() : 0;
+    }
+}
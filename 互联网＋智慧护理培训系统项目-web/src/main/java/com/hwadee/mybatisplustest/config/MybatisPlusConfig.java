@@ -2,8 +2,10 @@ package com.hwadee.mybatisplustest.config;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
-import org.mybatis.spring.annotation.MapperScan;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,17 +14,39 @@ import org.springframework.context.annotation.Configuration;
  * @date 2025年10月21日 15:11
  */
 @Configuration
-@MapperScan("com.hwadee.mybatisplustest.mapper")
 public class MybatisPlusConfig {
 
     /**
-     * 添加分页插件
+     * 添加SQL诊断、乐观锁插件和分页插件
+     * SQL诊断: 统计单个请求内的语句数, 发现 N+1 查询(见 SqlDiagnosticsInnerInterceptor)
+     * 乐观锁: 实体带 @Version 字段且传入版本号时, updateById 追加 WHERE version = 旧版本 并把版本号 +1
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(SqlDiagnosticsInnerInterceptor sqlDiagnostics) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(sqlDiagnostics);
+        interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL)); // 如果配置多个插件, 切记分页最后添加
         // 如果有多数据源可以不配具体类型, 否则都建议配上具体的 DbType
         return interceptor;
     }
+
+    @Bean
+    public SqlDiagnosticsInnerInterceptor sqlDiagnosticsInnerInterceptor(
+            @Value("${sql-diagnostics.max-statements-per-request:50}") int maxStatements,
+            @Value("${sql-diagnostics.max-repeats-per-request:10}") int maxRepeats,
+            @Value("${sql-diagnostics.fail-on-violation:false}") boolean failOnViolation) {
+        return new SqlDiagnosticsInnerInterceptor(maxStatements, maxRepeats, failOnViolation);
+    }
+
+    /**
+     * Mapper 方法耗时统计和慢SQL日志插件
+     * MyBatis-Plus 自动配置会把容器中所有 Interceptor 注册到 SqlSessionFactory, 与上面的 MybatisPlusInterceptor 并列
+     * (InnerInterceptor 只有执行前的回调, 无法计时, 因此耗时统计用 MyBatis 原生插件)
+     */
+    @Bean
+    public MapperMetricsInterceptor mapperMetricsInterceptor(MeterRegistry registry,
+                                                             @Value("${sql-diagnostics.slow-threshold-ms:500}") long slowThresholdMs) {
+        return new MapperMetricsInterceptor(registry, slowThresholdMs);
+    }
 }
@@ -0,0 +1,192 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractLambdaWrapper;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.hwadee.mybatisplustest.cache.AchievementLeaderboard;
+import com.hwadee.mybatisplustest.cache.WardMap;
+import com.hwadee.mybatisplustest.common.CommonResult;
+import com.hwadee.mybatisplustest.importer.ImportReport;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.cache.decorators.FifoCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.logging.slf4j.Slf4jImpl;
+import org.apache.ibatis.logging.stdout.StdOutImpl;
+import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.ResolvableType;
+
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.TreeSet;
+
+/**
+ * GraalVM 原生镜像支持(mvn -Pnative native:compile)
+ *
+ * 原生镜像在构建时确定可达代码, 运行时的反射、动态代理、序列化都需要提前登记, 这里补充 Spring AOT 无法自动推断的部分:
+ * 1. Mapper: 每个 Mapper 接口的 JDK 代理和方法反射, 以及 BaseMapper 泛型对应的实体类
+ *    (构建时从 MapperFactoryBean 的 Bean 定义中读取, 新增 Mapper 无需修改这里)
+ * 2. MyBatis/MyBatis-Plus 内部: 按类名反射创建的语言驱动、日志实现、缓存, 插件代理的 Executor/StatementHandler,
+ *    以及动态 SQL 中 OGNL 表达式(ew.sqlSegment 等)访问的条件构造器和分页对象
+ * 3. Lambda 条件构造器: MyBatis-Plus 通过可序列化 Lambda 的 writeReplace 取得 SerializedLambda 解析字段名,
+ *    需要把使用 Entity::getXxx 的类登记为 lambdaCapturingTypes,
+ *    见 META-INF/native-image/com.hwadee/mybatis-plus-test-lambda/serialization-config.json, 新增使用 Lambda 条件的类时需同步添加
+ * 4. 响应体: Jackson(接口返回值)和 fastjson2(预序列化响应、会话持久化)序列化的类型
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.MybatisHints.class)
+@RegisterReflectionForBinding({CommonResult.class, Page.class, ImportReport.class, ImportReport.RowError.class,
+        WardMap.Bed.class, AchievementLeaderboard.Entry.class})
+public class NativeConfig {
+
+    /** 构建时登记 Mapper 接口的代理和反射 */
+    @Bean
+    static MapperAotProcessor mapperAotProcessor() {
+        return new MapperAotProcessor();
+    }
+
+    /** 为 MapperFactoryBean 补充泛型类型, 使 AOT 生成的 Bean 定义带上 Mapper 接口类型 */
+    @Bean
+    static MapperFactoryBeanTypePostProcessor mapperFactoryBeanTypePostProcessor() {
+        return new MapperFactoryBeanTypePostProcessor();
+    }
+
+    /** MyBatis/MyBatis-Plus 内部按类名反射或动态代理使用的类型 */
+    static class MybatisHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            MemberCategory[] all = MemberCategory.values();
+            for (Class<?> type : new Class<?>[]{
+                    XMLLanguageDriver.class, RawLanguageDriver.class,
+                    Log.class, Slf4jImpl.class, StdOutImpl.class, NoLoggingImpl.class,
+                    PerpetualCache.class, FifoCache.class, LruCache.class, SoftCache.class, WeakCache.class,
+                    ArrayList.class, HashMap.class, LinkedHashMap.class, HashSet.class, TreeSet.class,
+                    MapperMethod.ParamMap.class, DynamicContext.class,
+                    Wrapper.class, AbstractWrapper.class, AbstractLambdaWrapper.class, MergeSegments.class,
+                    QueryWrapper.class, UpdateWrapper.class, LambdaQueryWrapper.class, LambdaUpdateWrapper.class,
+                    Page.class, SerializedLambda.class,
+                    MybatisPlusInterceptor.class, MapperMetricsInterceptor.class}) {
+                hints.reflection().registerType(type, all);
+            }
+            hints.reflection().registerType(TypeReference.of("com.baomidou.mybatisplus.core.MybatisXMLLanguageDriver"), all);
+            hints.reflection().registerType(TypeReference.of("org.apache.ibatis.scripting.xmltags.DynamicContext$ContextMap"), all);
+
+            // 插件通过 JDK 代理包装 Executor/StatementHandler, 并反射调用被拦截的方法
+            for (Class<?> type : new Class<?>[]{Executor.class, StatementHandler.class, ParameterHandler.class, ResultSetHandler.class}) {
+                hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.proxies().registerJdkProxy(type);
+            }
+            // BaseMapper 的 default 方法由 Mapper 代理通过 MethodHandle 调用
+            hints.reflection().registerType(BaseMapper.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+
+    static class MapperAotProcessor implements BeanFactoryInitializationAotProcessor, BeanRegistrationExcludeFilter {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        /** 扫描器本身只在启动时注册 Mapper 的 Bean 定义, AOT 已生成这些定义, 运行时不再需要 */
+        @Override
+        public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+            return MapperScannerConfigurer.class == registeredBean.getBeanClass();
+        }
+
+        @Override
+        public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+            String[] beanNames = beanFactory.getBeanNamesForType(MapperFactoryBean.class);
+            if (beanNames.length == 0) {
+                return null;
+            }
+            return (context, code) -> {
+                RuntimeHints hints = context.getRuntimeHints();
+                for (String beanName : beanNames) {
+                    Class<?> mapper = mapperInterface(beanFactory.getBeanDefinition(beanName.substring(1)));  // 去掉 FactoryBean 前缀 &
+                    if (mapper != null) {
+                        register(mapper, hints);
+                    }
+                }
+            };
+        }
+
+        private void register(Class<?> mapper, RuntimeHints hints) {
+            hints.proxies().registerJdkProxy(mapper);
+            hints.reflection().registerType(mapper, MemberCategory.INTROSPECT_PUBLIC_METHODS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            Class<?> entity = ResolvableType.forClass(mapper).as(BaseMapper.class).resolveGeneric(0);
+            if (entity != null) {
+                hints.reflection().registerType(entity, MemberCategory.values());  // MyBatis 反射读写属性, Jackson 序列化
+            }
+            for (Method method : mapper.getDeclaredMethods()) {  // 自定义查询的参数和返回类型
+                bindingRegistrar.registerReflectionHints(hints.reflection(), method.getGenericReturnType());
+                for (java.lang.reflect.Type parameter : method.getGenericParameterTypes()) {
+                    bindingRegistrar.registerReflectionHints(hints.reflection(), parameter);
+                }
+            }
+        }
+    }
+
+    static class MapperFactoryBeanTypePostProcessor implements MergedBeanDefinitionPostProcessor {
+
+        @Override
+        public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+            if (!beanDefinition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())
+                    || !beanDefinition.getResolvableType().hasUnresolvableGenerics()) {
+                return;
+            }
+            Class<?> mapper = mapperInterface(beanDefinition);
+            if (mapper != null) {
+                beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(beanDefinition.getBeanClass(), mapper));
+            }
+        }
+    }
+
+    /** MapperScan 在 Bean 定义的 mapperInterface 属性中记录了 Mapper 接口 */
+    private static Class<?> mapperInterface(BeanDefinition beanDefinition) {
+        PropertyValue value = beanDefinition.getPropertyValues().getPropertyValue("mapperInterface");
+        return value != null && value.getValue() instanceof Class<?> type ? type : null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * 按 CPU 核数和数据库连接上限计算连接池大小(pool.sizing.enabled, pool-tuned 配置中开启)
+ *
+ * 连接数 = 核数 * 2 + 磁盘数(HikariCP 推荐公式: 查询在 CPU 和磁盘 IO 之间交替, 连接数多于此值只会在数据库端排队),
+ * 再以 (数据库 max_connections - 预留连接) / 实例数 为上限, 多个实例加起来不会超过数据库允许的连接数.
+ * 最小空闲连接数不设置时与最大连接数相同(固定大小连接池, 避免流量上来时临时建连接).
+ *
+ * 在 DbLimiterConfig 包装数据源之前执行(Ordered), 并发限制的默认许可数读到的是计算后的连接数;
+ * spring.datasource.hikari.maximum-pool-size 显式配置时以配置为准(按 Spring Boot 宽松绑定判断,
+ * maximumPoolSize、环境变量 SPRING_DATASOURCE_HIKARI_MAXIMUMPOOLSIZE 等写法同样生效).
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "pool.sizing.enabled", havingValue = "true")
+public class PoolSizingConfig {
+
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new PoolSizer(environment);
+    }
+
+    /** 连接池大小: min(核数 * 2 + 磁盘数, (数据库连接上限 - 预留) / 实例数), 至少 2 */
+    public static int poolSize(int cores, int spindles, int dbMaxConnections, int reserved, int instances) {
+        int byCpu = cores * 2 + spindles;
+        int byDatabase = (dbMaxConnections - reserved) / Math.max(1, instances);
+        return Math.max(2, Math.min(byCpu, byDatabase));
+    }
+
+    static class PoolSizer implements BeanPostProcessor, Ordered {
+
+        private static final String MAX_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+        private final Environment environment;
+
+        PoolSizer(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            if (Binder.get(environment).bind(MAX_POOL_SIZE, Integer.class).isBound()) {
+                log.info("连接池 {} 使用显式配置的最大连接数 {}", beanName, hikari.getMaximumPoolSize());
+                return bean;
+            }
+            int cores = Runtime.getRuntime().availableProcessors();
+            int size = poolSize(cores,
+                    environment.getProperty("pool.sizing.spindles", Integer.class, 1),
+                    environment.getProperty("pool.sizing.db-max-connections", Integer.class, 151),
+                    environment.getProperty("pool.sizing.reserved-connections", Integer.class, 10),
+                    environment.getProperty("pool.sizing.instances", Integer.class, 1));
+            hikari.setMaximumPoolSize(size);  // 连接池在第一次取连接时才启动, 此时仍可修改
+            log.info("连接池 {} 最大连接数 {}(CPU 核数 {})", beanName, size, cores);
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hwadee.mybatisplustest.config;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 为每个 HTTP 请求开启 SQL 语句计数, 请求结束时对超限的请求记录告警
+ * 计数规则见 SqlDiagnosticsInnerInterceptor
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    @Resource
+    private SqlDiagnosticsInnerInterceptor diagnostics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlDiagnosticsInnerInterceptor.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlDiagnosticsInnerInterceptor.RequestStats stats = SqlDiagnosticsInnerInterceptor.end();
+            if (stats != null && diagnostics.violated(stats)) {
+                log.warn("SQL诊断: {} {} 执行了 {} 条语句, {} 重复 {} 次, 疑似 N+1 查询",
+                        request.getMethod(), request.getRequestURI(), stats.total(),
+                        stats.mostRepeated(), stats.mostRepeatedCount());
+            }
+        }
+    }
+}
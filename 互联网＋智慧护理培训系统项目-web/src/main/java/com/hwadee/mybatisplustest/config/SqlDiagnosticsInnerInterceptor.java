@@ -0,0 +1,124 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 单个 HTTP 请求内的 SQL 语句计数(N+1 检测)
+ *
+ * 请求开始时 SqlDiagnosticsFilter 调用 begin(), 结束时调用 end() 取回统计;
+ * 期间每执行一条语句按规范化后的 SQL(即"语句形状", 与参数无关)计数: 合并空白, IN 列表的多个占位符合并为一个.
+ * 不按 MappedStatement ID 计数: 条件构造器查询都走 BaseMapper.selectList 等同一个 ID, 同一 Mapper 上的不同查询会被误判为重复.
+ * 以下情况视为违规:
+ * - 请求内语句总数超过 max-statements-per-request
+ * - 同一语句在请求内重复超过 max-repeats-per-request 次(循环中逐条查询/更新, 典型 N+1)
+ *
+ * fail-on-violation=true 时(测试环境)在超限的那条语句执行前抛出异常, 让问题在测试中直接失败;
+ * 否则只在请求结束时由过滤器记录一条告警. 不在请求线程中执行的语句(定时任务等)不计数.
+ * 分页插件的 COUNT 语句由分页插件直接执行, 不经过本拦截器, 不计入.
+ */
+public class SqlDiagnosticsInnerInterceptor implements InnerInterceptor {
+
+    /** 单个请求的语句统计 */
+    public static final class RequestStats {
+        private final Map<String, int[]> counts = new HashMap<>();  // 规范化 SQL -> 执行次数
+        private int total;
+        private String mostRepeated;
+        private int mostRepeatedCount;
+
+        public int total() {
+            return total;
+        }
+
+        /** 重复次数最多的语句(语句ID: SQL) */
+        public String mostRepeated() {
+            return mostRepeated;
+        }
+
+        public int mostRepeatedCount() {
+            return mostRepeatedCount;
+        }
+
+        private void record(String statementId, String sql) {
+            total++;
+            int count = ++counts.computeIfAbsent(sql, key -> new int[1])[0];
+            if (count > mostRepeatedCount) {
+                mostRepeatedCount = count;
+                mostRepeated = statementId + ": " + sql;
+            }
+        }
+    }
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PUNCTUATION = Pattern.compile(" ?([(),]) ?");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(,\\?)+");
+
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean failOnViolation;
+
+    public SqlDiagnosticsInnerInterceptor(int maxStatements, int maxRepeats, boolean failOnViolation) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.failOnViolation = failOnViolation;
+    }
+
+    /** 请求开始, 开始计数 */
+    public static void begin() {
+        CURRENT.set(new RequestStats());
+    }
+
+    /** 请求结束, 返回本请求的统计并停止计数 */
+    public static RequestStats end() {
+        RequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /** 统计是否超出限制 */
+    public boolean violated(RequestStats stats) {
+        return stats.total > maxStatements || stats.mostRepeatedCount > maxRepeats;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            record(stats, ms, boundSql);
+        }
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            record(stats, ms, ms.getBoundSql(parameter));
+        }
+    }
+
+    /** 规范化 SQL: 合并空白, 去掉括号和逗号两侧的空格, IN 列表的占位符合并为一个(只是参数个数不同的语句视为同一形状) */
+    static String normalize(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        collapsed = PUNCTUATION.matcher(collapsed).replaceAll("$1");
+        return PLACEHOLDER_LIST.matcher(collapsed).replaceAll("?");
+    }
+
+    private void record(RequestStats stats, MappedStatement ms, BoundSql boundSql) {
+        stats.record(ms.getId(), normalize(boundSql.getSql()));
+        if (failOnViolation && violated(stats)) {
+            throw new IllegalStateException(String.format(
+                    "SQL诊断: 单个请求已执行 %d 条语句(上限 %d), %s 重复 %d 次(上限 %d), 疑似 N+1 查询",
+                    stats.total, maxStatements, stats.mostRepeated, stats.mostRepeatedCount, maxRepeats));
+        }
+    }
+}
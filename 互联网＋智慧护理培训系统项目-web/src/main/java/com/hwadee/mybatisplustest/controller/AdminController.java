@@ -7,21 +7,25 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.hwadee.mybatisplustest.common.CommonResult;
 // 导入管理员实体类
 import com.hwadee.mybatisplustest.entity.Admin;
+// 导入管理员登录记录器
+import com.hwadee.mybatisplustest.security.AdminLoginRecorder;
+// 导入登录Token服务
+import com.hwadee.mybatisplustest.security.AuthTokenService;
+// 导入登录限流器
+import com.hwadee.mybatisplustest.security.LoginRateLimiter;
 // 导入管理员服务接口
 import com.hwadee.mybatisplustest.service.AdminService;
 // 导入Jakarta EE的Resource注解
 import jakarta.annotation.Resource;
+// 导入HTTP请求对象，用于获取客户端IP
+import jakarta.servlet.http.HttpServletRequest;
 // 导入Spring Web的注解
 import org.springframework.web.bind.annotation.*;
 
-// 导入Java 8时间API的LocalDateTime类
-import java.time.LocalDateTime;
 // 导入HashMap用于构建响应数据
 import java.util.HashMap;
 // 导入Map接口
 import java.util.Map;
-// 导入UUID类，用于生成随机Token
-import java.util.UUID;
 
 /**
  * 管理员控制器
@@ -55,14 +59,32 @@ public class AdminController {
     @Resource
     private AdminService adminService;  // 管理员服务层接口
 
+    /**
+     * 登录Token服务
+     */
+    @Resource
+    private AuthTokenService authTokenService;  // 签发登录Token
+
+    /**
+     * 登录限流器
+     */
+    @Resource
+    private LoginRateLimiter loginRateLimiter;  // 按用户名和IP限制登录频率
+
+    /**
+     * 管理员登录记录器
+     */
+    @Resource
+    private AdminLoginRecorder loginRecorder;  // 异步记录最后登录时间和登录审计日志
+
     /**
      * 管理员登录
      * 
      * 功能说明：
      * 1. 验证管理员用户名和密码
      * 2. 检查管理员账号状态（status=1为正常）
-     * 3. 登录成功后生成UUID Token
-     * 4. 更新最后登录时间
+     * 3. 登录成功后生成Token并创建会话
+     * 4. 异步记录最后登录时间和登录审计日志
      * 5. 返回管理员基本信息和Token
      * 
      * 请求示例：
@@ -82,10 +104,11 @@ public class AdminController {
      * }
      * 
      * @param body 请求体，包含username和password
+     * @param request HTTP请求，用于按客户端IP限流
      * @return CommonResult 登录结果
      */
     @PostMapping("/login")
-    public CommonResult<Object> login(@RequestBody Map<String, String> body) {  // 接收Map类型的请求数据
+    public CommonResult<Object> login(@RequestBody Map<String, String> body, HttpServletRequest request) {  // 接收Map类型的请求数据
         // 从请求体中获取用户名和密码，默认值为空字符串
         String username = body.getOrDefault("username", "");  // 获取用户名
         String password = body.getOrDefault("password", "");  // 获取密码
@@ -95,6 +118,11 @@ public class AdminController {
             return CommonResult.error("用户名或密码不能为空");  // 返回错误信息
         }
         
+        // 限流检查：超过频率限制直接拒绝，不查询数据库
+        if (!loginRateLimiter.tryAcquire(username, request)) {
+            return new CommonResult<>("429", "登录尝试过于频繁，请稍后再试", null);
+        }
+        
         // 构建Lambda查询条件
         LambdaQueryWrapper<Admin> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Admin::getUsername, username)  // 用户名匹配
@@ -102,15 +130,16 @@ public class AdminController {
                .eq(Admin::getStatus, 1);           // 状态为1（正常）
         Admin admin = adminService.getOne(wrapper);  // 执行查询，获取单个管理员对象
         
+        // 记录最后登录时间和审计日志(异步批量写库，不阻塞登录响应)
+        loginRecorder.record(admin == null ? null : admin.getId(), username, admin != null,
+                loginRateLimiter.clientIp(request), request.getHeader("User-Agent"));
+        
         // 判断管理员是否存在
         if (admin != null) {  // 登录成功
-            // 更新最后登录时间
-            admin.setLastLoginTime(LocalDateTime.now());  // 设置为当前时间
-            adminService.updateById(admin);  // 更新到数据库
             
             // 构建响应数据
             Map<String, Object> resp = new HashMap<>();  // 创建HashMap存储响应数据
-            resp.put("token", UUID.randomUUID().toString());  // 生成随机UUID作为Token
+            resp.put("token", authTokenService.issue(admin.getId(), admin.getUsername(), "admin", "admin"));  // 签发登录Token
             resp.put("adminId", admin.getId());         // 管理员ID
             resp.put("username", admin.getUsername());  // 用户名
             resp.put("realName", admin.getRealName());  // 真实姓名
@@ -174,6 +203,26 @@ public class AdminController {
                 ? CommonResult.success(true)    // 成功响应
                 : CommonResult.error("更新失败");  // 失败响应
     }
+
+    /**
+     * 登录限流统计
+     * 
+     * 功能说明：
+     * 1. 返回登录限流器的累计放行、拒绝次数
+     * 2. 用于观察换班高峰和脚本撞库时的限流情况
+     * 
+     * 请求示例：
+     * GET /admin/login-limiter/stats
+     * 
+     * 响应示例：
+     * {"code": "200", "data": {"allowed": 1200, "rejectedByUser": 35, "rejectedByIp": 0}}
+     * 
+     * @return CommonResult 限流统计
+     */
+    @GetMapping("/login-limiter/stats")
+    public CommonResult<Map<String, Long>> loginLimiterStats() {
+        return CommonResult.success(loginRateLimiter.stats());  // 返回限流计数
+    }
 }  // AdminController类结束
 
 
@@ -1,19 +1,41 @@
 // 包声明：定义当前类所属的包路径
 package com.hwadee.mybatisplustest.controller;
 
+// 导入fastjson2序列化
+import com.alibaba.fastjson2.JSON;
 // 导入MyBatis-Plus的Lambda查询构造器
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+// 导入成就定义缓存
+import com.hwadee.mybatisplustest.cache.AchievementDefinitionCache;
+// 导入成就积分排行榜
+import com.hwadee.mybatisplustest.cache.AchievementLeaderboard;
 // 导入统一响应结果封装类
 import com.hwadee.mybatisplustest.common.CommonResult;
+// 导入成就定义实体类
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
 // 导入学习成就实体类
 import com.hwadee.mybatisplustest.entity.LearningAchievement;
+// 导入成就定义服务接口
+import com.hwadee.mybatisplustest.service.AchievementDefinitionService;
 // 导入学习成就服务接口
 import com.hwadee.mybatisplustest.service.LearningAchievementService;
 // 导入Jakarta EE的Resource注解
 import jakarta.annotation.Resource;
+// 导入HTTP响应对象
+import jakarta.servlet.http.HttpServletResponse;
+// 导入唯一键冲突异常
+import org.springframework.dao.DuplicateKeyException;
+// 导入HTTP状态码
+import org.springframework.http.HttpStatus;
+// 导入响应类型
+import org.springframework.http.MediaType;
+// 导入响应实体
+import org.springframework.http.ResponseEntity;
 // 导入Spring Web的注解
 import org.springframework.web.bind.annotation.*;
 
+// 导入Java 8时间API的LocalDateTime类
+import java.time.LocalDateTime;
 // 导入HashMap用于构建响应数据
 import java.util.HashMap;
 // 导入List接口
@@ -24,7 +46,7 @@ import java.util.Map;
 /**
  * 学习成就管理控制器
  * 
- * 功能：获取用户成就、检查并解锁成就、获取成就定义
+ * 功能：获取用户成就、检查并解锁成就、获取成就定义、管理成就定义、积分排行榜
  * 智慧护理培训系统 - 学习成就系统模块
  */
 @RestController  // RESTful控制器
@@ -32,9 +54,21 @@ import java.util.Map;
 @CrossOrigin(origins = "*")  // 允许跨域
 public class LearningAchievementController {
 
+    private static final String DEFINITIONS_NOT_READY = "成就定义尚未加载，请稍后重试";  // 快照未就绪提示
+    private static final String LEADERBOARD_NOT_READY = "排行榜尚未加载，请稍后重试";  // 排行榜未就绪提示
+
     @Resource  // 依赖注入
     private LearningAchievementService achievementService;  // 成就服务层
 
+    @Resource  // 依赖注入
+    private AchievementLeaderboard leaderboard;  // 内存积分排行榜
+
+    @Resource  // 依赖注入
+    private AchievementDefinitionService definitionService;  // 成就定义服务层
+
+    @Resource  // 依赖注入
+    private AchievementDefinitionCache definitionCache;  // 成就定义内存快照
+
     /**获取用户成就列表-包含总积分和成就数量*/
     // 获取用户成就列表
     @GetMapping("/user/{userId}")
@@ -62,7 +96,11 @@ public class LearningAchievementController {
     /**检查并自动解锁成就*/
     // 检查并解锁成就
     @PostMapping("/check/{userId}")
-    public CommonResult<?> checkAchievements(@PathVariable Long userId) {  // URL路径参数
+    public CommonResult<?> checkAchievements(@PathVariable Long userId, HttpServletResponse response) {  // URL路径参数
+        if (!definitionCache.ready()) {  // 定义未加载时不能按空列表检查
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);  // 503
+            return CommonResult.error(DEFINITIONS_NOT_READY);  // 返回错误
+        }
         achievementService.checkAndUnlockAchievements(userId);  // 调用服务层检查成就
         return CommonResult.success("成就检查完成");  // 返回成功响应
     }
@@ -70,36 +108,107 @@ public class LearningAchievementController {
     /**获取所有成就定义-用于显示未解锁的成就*/
     // 获取所有成就定义（用于显示未解锁的成就）
     @GetMapping("/definitions")
-    public CommonResult<?> getAchievementDefinitions() {  // 无参数
-        // 定义成就列表（可配置化到数据库）
-        List<Map<String, Object>> definitions = List.of(
-            Map.of(  // 第一个成就：首次完成
-                "type", "first_article",  // 成就类型
-                "name", "首次完成",  // 成就名称
-                "desc", "完成了第一篇文章的学习",  // 成就描述
-                "icon", "🎉",  // 成就图标
-                "points", 10,  // 获得积分
-                "requirement", "完成1篇文章"  // 解锁条件
-            ),
-            Map.of(  // 第二个成就：半程达成
-                "type", "halfway",
-                "name", "半程达成",
-                "desc", "完成了5篇文章的学习",
-                "icon", "📚",
-                "points", 30,
-                "requirement", "完成5篇文章"
-            ),
-            Map.of(  // 第三个成就：完美完成
-                "type", "completed_all",
-                "name", "完美完成",
-                "desc", "完成了所有10篇文章的学习",
-                "icon", "🏆",
-                "points", 100,
-                "requirement", "完成10篇文章"
-            )
-        );
-
-        return CommonResult.success(definitions);  // 返回成就定义列表
+    public ResponseEntity<byte[]> getAchievementDefinitions() {  // 无参数
+        // 直接返回预序列化的响应体，定义来自 achievement_definition 表的内存快照
+        if (!definitionCache.ready()) {  // 定义未加载时返回503，而不是空列表
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)  // JSON响应
+                    .body(JSON.toJSONBytes(CommonResult.error(DEFINITIONS_NOT_READY)));  // 错误响应体
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)  // JSON响应
+                .body(definitionCache.json());  // 预序列化的字节数组
+    }
+
+    /**管理员：获取全部成就定义-包含已禁用的定义*/
+    // 管理员：获取全部成就定义
+    @GetMapping("/definition/all")
+    public CommonResult<?> getAllDefinitions() {  // 无参数
+        LambdaQueryWrapper<AchievementDefinition> wrapper = new LambdaQueryWrapper<>();
+        wrapper.orderByAsc(AchievementDefinition::getSortOrder)  // 按排序序号升序
+               .orderByAsc(AchievementDefinition::getId);  // 再按ID升序
+        return CommonResult.success(definitionService.list(wrapper));  // 返回定义列表
+    }
+
+    /**管理员：新增或修改成就定义-保存后立即刷新内存快照*/
+    // 管理员：保存成就定义
+    @PostMapping("/definition/save")
+    public CommonResult<?> saveDefinition(@RequestBody AchievementDefinition definition) {  // 接收JSON数据
+        // 参数校验：成就类型必填
+        if (definition.getAchievementType() == null || definition.getAchievementType().isEmpty()) {
+            return CommonResult.error("成就类型不能为空");  // 返回错误
+        }
+
+        LocalDateTime now = LocalDateTime.now();  // 获取当前时间
+        if (definition.getId() == null) {  // 新增
+            definition.setCreatedAt(now);  // 设置创建时间
+            if (definition.getStatus() == null) {  // 默认启用
+                definition.setStatus(1);
+            }
+        }
+        definition.setUpdatedAt(now);  // 设置更新时间
+
+        try {  // 异常处理
+            definitionService.saveOrUpdate(definition);  // 保存到数据库
+        } catch (DuplicateKeyException e) {  // 成就类型唯一键冲突
+            return CommonResult.error("成就类型已存在");  // 返回错误
+        }
+        definitionCache.reload();  // 刷新内存快照
+        return CommonResult.success(definition);  // 返回保存后的定义
+    }
+
+    /**管理员：删除成就定义-删除后立即刷新内存快照*/
+    // 管理员：删除成就定义
+    @DeleteMapping("/definition/delete/{id}")
+    public CommonResult<?> deleteDefinition(@PathVariable Long id) {  // URL路径参数
+        boolean removed = definitionService.removeById(id);  // 执行删除
+        if (removed) {  // 删除成功
+            definitionCache.reload();  // 刷新内存快照
+        }
+        return removed ? CommonResult.success("删除成功") : CommonResult.error("删除失败");  // 返回结果
+    }
+
+    /**管理员：手动刷新成就定义快照-用于直接修改数据库后的同步*/
+    // 管理员：刷新成就定义
+    @PostMapping("/definition/reload")
+    public CommonResult<?> reloadDefinitions(HttpServletResponse response) {  // 无参数
+        definitionCache.reload();  // 重新加载
+        if (!definitionCache.ready()) {  // 加载失败且之前从未加载成功
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);  // 503
+            return CommonResult.error(DEFINITIONS_NOT_READY);  // 返回错误
+        }
+        return CommonResult.success(definitionCache.definitions().size());  // 返回当前启用的定义数量
+    }
+
+    /**积分排行榜-前N名，可按部门筛选*/
+    // 获取积分排行榜
+    @GetMapping("/leaderboard")
+    public CommonResult<?> getLeaderboard(
+            @RequestParam(defaultValue = "10") int limit,  // 返回条数，默认10
+            @RequestParam(required = false) String department,  // 部门（可选，为空表示全院榜）
+            HttpServletResponse response) {
+        if (!leaderboard.ready()) {  // 未加载时返回503，而不是空榜
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);  // 503
+            return CommonResult.error(LEADERBOARD_NOT_READY);  // 返回错误
+        }
+        int size = Math.max(1, Math.min(limit, 100));  // 限制条数在1~100之间
+        return CommonResult.success(leaderboard.top(department, size));  // 直接读取内存排名
+    }
+
+    /**用户积分名次-包含前后邻居，可按部门筛选*/
+    // 获取用户名次
+    @GetMapping("/leaderboard/user/{userId}")
+    public CommonResult<?> getUserRank(
+            @PathVariable Long userId,  // URL路径参数
+            @RequestParam(required = false) String department,  // 部门（可选）
+            @RequestParam(defaultValue = "2") int radius,  // 前后各取几名，默认2
+            HttpServletResponse response) {
+        if (!leaderboard.ready()) {  // 未加载时返回503，而不是按0分排名
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);  // 503
+            return CommonResult.error(LEADERBOARD_NOT_READY);  // 返回错误
+        }
+        int size = Math.max(0, Math.min(radius, 20));  // 限制邻居数量在0~20之间
+        return CommonResult.success(leaderboard.around(userId, department, size));  // 直接读取内存排名
     }
 }  // LearningAchievementController类结束
 
@@ -5,25 +5,56 @@ package com.hwadee.mybatisplustest.controller;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 // 导入MyBatis-Plus的分页插件Page类
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+// 导入病区床位图
+import com.hwadee.mybatisplustest.cache.WardMap;
 // 导入统一响应结果封装类
 import com.hwadee.mybatisplustest.common.CommonResult;
 // 导入病人实体类
 import com.hwadee.mybatisplustest.entity.Patient;
+// 导入导出响应工具和行写出器
+import com.hwadee.mybatisplustest.export.ExportResponse;
+import com.hwadee.mybatisplustest.export.RowWriter;
+// 导入病人批量导入器和导入结果
+import com.hwadee.mybatisplustest.importer.ImportReport;
+import com.hwadee.mybatisplustest.importer.PatientImporter;
+// 导入登录会话主体及过滤器(读取当前登录用户)
+import com.hwadee.mybatisplustest.security.SessionAuthFilter;
+import com.hwadee.mybatisplustest.security.SessionPrincipal;
 // 导入病人服务接口
 import com.hwadee.mybatisplustest.service.PatientService;
+// 导入Jackson的ObjectMapper，用于把局部更新的请求体转换为实体
+import com.fasterxml.jackson.databind.ObjectMapper;
 // 导入Jakarta EE的Resource注解，用于依赖注入
 import jakarta.annotation.Resource;
+// 导入Servlet请求和响应，导出接口直接写响应流
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+// 导入唯一键冲突异常(病人编号唯一索引 uk_patient_no)
+import org.springframework.dao.DuplicateKeyException;
 // 导入Spring Web的注解：RestController、RequestMapping、PathVariable、RequestBody等
 import org.springframework.web.bind.annotation.*;
+// 导入上传文件类型
+import org.springframework.web.multipart.MultipartFile;
+
+// 导入IO异常和输入流
+import java.io.IOException;
+import java.io.InputStream;
+// 导入Map和Set接口
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 病人信息管理控制器
  * 
  * 功能说明：
  * 1. 提供病人信息的增删改查(CRUD)接口
- * 2. 支持关键词搜索(姓名、编号、电话)
+ * 2. 支持关键词搜索(姓名包含、编号/电话前缀)，均走索引
  * 3. 支持按状态筛选(1=在院, 2=出院, 3=转院)
  * 4. 支持分页查询和列表查询
+ * 5. 提供病区床位图(内存索引)，按房间查看床位占用和护理等级分布
+ * 6. 支持导出病人花名册(CSV/Excel)，流式写出，不受数据量限制
+ * 7. 支持CSV批量导入病人，分块校验并批量写入，返回逐行错误
+ * 8. 支持局部更新(PATCH)，只写入变更字段，按版本号做乐观锁校验
  * 
  * 使用场景：
  * - 医护人员管理病人基本信息
@@ -58,11 +89,38 @@ public class PatientController {
     @Resource
     private PatientService patientService;  // 病人服务层接口，处理病人相关的业务逻辑
 
+    /**
+     * 病区床位图
+     * 作用：病人新增、修改、删除后同步更新床位占用情况
+     */
+    @Resource
+    private WardMap wardMap;  // 在院病人的内存床位索引
+
+    /**
+     * 病人批量导入器
+     * 作用：CSV流式解析、并行校验、JDBC批量写入
+     */
+    @Resource
+    private PatientImporter patientImporter;  // 批量导入
+
+    /**
+     * JSON转换器
+     * 作用：局部更新时把请求体Map转换为Patient，日期等类型与@RequestBody一致
+     */
+    @Resource
+    private ObjectMapper objectMapper;  // Spring Boot自动配置的ObjectMapper
+
+    /**
+     * 床位图相关字段：局部更新涉及这些字段时才需要同步床位图
+     */
+    private static final Set<String> WARD_FIELDS = Set.of("patientNo", "name", "gender", "age",
+            "roomNo", "bedNo", "careLevel", "status");
+
     /**
      * 获取病人列表 - 不分页
      * 
      * 功能说明：
-     * 1. 支持关键词模糊搜索(姓名、病人编号、电话)
+     * 1. 支持关键词搜索：病人编号/电话按前缀匹配，姓名按包含匹配(ngram全文索引)
      * 2. 支持按状态精确筛选(1=在院, 2=出院, 3=转院)
      * 3. 按入院日期和ID降序排列(最新的排在前面)
      * 
@@ -80,7 +138,7 @@ public class PatientController {
      * 响应示例：
      * {"code": "200", "data": [{...}, {...}]}
      * 
-     * @param keyword 搜索关键词(可选)，匹配姓名/编号/电话
+     * @param keyword 搜索关键词(可选)，匹配姓名/编号前缀/电话前缀
      * @param status 病人状态(可选)，1=在院, 2=出院, 3=转院
      * @return CommonResult 包含病人列表数据
      */
@@ -89,24 +147,8 @@ public class PatientController {
     public CommonResult<?> list(
             @RequestParam(value = "keyword", required = false) String keyword,  // @RequestParam：获取URL参数，required=false表示可选
             @RequestParam(value = "status", required = false) Integer status) {  // 状态参数，可选
-        // 创建Lambda查询构造器，使用方法引用代替字符串字段名，类型安全
-        LambdaQueryWrapper<Patient> wrapper = new LambdaQueryWrapper<>();  // 实例化查询构造器
-        
-        // 判断关键词是否为空
-        if (keyword != null && !keyword.isEmpty()) {  // 关键词不为空时执行搜索
-            // 添加模糊搜索条件：姓名 LIKE '%keyword%' OR 编号 LIKE '%keyword%' OR 电话 LIKE '%keyword%'
-            wrapper.like(Patient::getName, keyword)          // 姓名模糊匹配
-                   .or().like(Patient::getPatientNo, keyword)  // OR 病人编号模糊匹配
-                   .or().like(Patient::getPhone, keyword);      // OR 电话号码模糊匹配
-        }
-        // 判断状态是否为空
-        if (status != null) {  // 状态不为空时添加筛选条件
-            // 添加等值匹配条件：AND status = #{status}
-            wrapper.eq(Patient::getStatus, status);  // 精确匹配状态
-        }
-        // 添加排序条件：先按入院日期降序，再按ID降序
-        wrapper.orderByDesc(Patient::getAdmissionDate)  // ORDER BY admission_date DESC
-               .orderByDesc(Patient::getId);              // ORDER BY id DESC
+        // 构造搜索条件：(关键词条件) AND status = ?，关键词走索引(编号/电话前缀、姓名ngram全文索引)
+        LambdaQueryWrapper<Patient> wrapper = patientService.searchWrapper(keyword, status);  // 已包含排序条件
         
         // 调用Service层的list方法，执行查询并返回结果列表
         return CommonResult.success(patientService.list(wrapper));  // 返回成功响应和病人列表
@@ -144,7 +186,7 @@ public class PatientController {
      * 
      * @param pageNo 页码，从1开始，默认1
      * @param pageSize 每页数量，默认10
-     * @param keyword 搜索关键词，匹配姓名/编号/电话
+     * @param keyword 搜索关键词，匹配姓名/编号前缀/电话前缀
      * @param status 病人状态，1=在院, 2=出院, 3=转院
      * @return CommonResult<Page<Patient>> 分页结果
      */
@@ -158,24 +200,8 @@ public class PatientController {
         // 创建分页对象，指定当前页码和每页数量
         Page<Patient> page = new Page<>(pageNo, pageSize);  // MyBatis-Plus的Page对象
         
-        // 创建Lambda查询构造器，构造查询条件
-        LambdaQueryWrapper<Patient> wrapper = new LambdaQueryWrapper<>();  // 实例化查询构造器
-        
-        // 判断关键词是否为空
-        if (keyword != null && !keyword.isEmpty()) {  // 关键词不为空时添加搜索条件
-            // 添加模糊搜索：姓名 OR 编号 OR 电话
-            wrapper.like(Patient::getName, keyword)          // 姓名 LIKE '%keyword%'
-                   .or().like(Patient::getPatientNo, keyword)  // OR patient_no LIKE '%keyword%'
-                   .or().like(Patient::getPhone, keyword);      // OR phone LIKE '%keyword%'
-        }
-        // 判断状态是否为空
-        if (status != null) {  // 状态不为空时添加筛选条件
-            // 添加精确匹配条件
-            wrapper.eq(Patient::getStatus, status);  // AND status = #{status}
-        }
-        // 添加排序条件：先按入院日期降序，再按ID降序
-        wrapper.orderByDesc(Patient::getAdmissionDate)  // ORDER BY admission_date DESC
-               .orderByDesc(Patient::getId);              // , id DESC
+        // 构造搜索条件：(关键词条件) AND status = ?，并按入院日期、ID降序
+        LambdaQueryWrapper<Patient> wrapper = patientService.searchWrapper(keyword, status);  // 关键词条件整体加括号
         
         // 调用Service层的page方法，执行分页查询
         patientService.page(page, wrapper);  // 自动填充page对象的records和total属性
@@ -259,7 +285,7 @@ public class PatientController {
      * 
      * 注意事项：
      * - 即使前端传入id，也会被设置为null，确保是创建操作
-     * - 病人编号patientNo应该唯一，建议前端校验
+     * - 病人编号patientNo唯一(唯一索引 uk_patient_no)，重复时返回错误
      * 
      * @param patient 病人对象，由@RequestBody将JSON转换为Patient实体
      * @return CommonResult<Patient> 保存后的病人信息(包含自动生成的ID)
@@ -271,7 +297,13 @@ public class PatientController {
         patient.setId(null);  // 即使前端传入id，也强制设置为null
         
         // 调用Service层的save方法，将病人信息保存到数据库
-        patientService.save(patient);  // 执行：INSERT INTO patient (...) VALUES (...)
+        try {
+            patientService.save(patient);  // 执行：INSERT INTO patient (...) VALUES (...)
+        } catch (DuplicateKeyException e) {  // 病人编号唯一键冲突
+            return CommonResult.error("病人编号已存在");
+        }
+        // 按数据库中的完整记录(含默认值)同步床位图
+        wardMap.upsert(patientService.getById(patient.getId()));
         
         // 返回成功响应，包含保存后的病人对象（此时patient.id已被赋值）
         return CommonResult.success(patient);  // MyBatis-Plus会自动回填id值
@@ -312,6 +344,8 @@ public class PatientController {
      * 注意事项：
      * - 必须包含id字段，否则无法定位要更新的记录
      * - 只更新传入的非空字段
+     * - 传入version(读取时的版本号)时启用乐观锁，记录已被他人修改则返回409
+     * - 只修改个别字段时建议使用 PATCH /patient/{id}
      * 
      * @param patient 病人对象，必须包含id字段
      * @return CommonResult<Boolean> 更新是否成功
@@ -320,7 +354,18 @@ public class PatientController {
     @PostMapping("/update")
     public CommonResult<Boolean> update(@RequestBody Patient patient) {  // @RequestBody：将JSON请求体转换为Patient对象
         // 调用Service层的updateById方法，根据ID更新病人信息
-        boolean ok = patientService.updateById(patient);  // 执行：UPDATE patient SET ... WHERE id = #{id}
+        // 带version时乐观锁插件追加 AND version = ?，并把版本号+1
+        boolean ok;
+        try {
+            ok = patientService.updateById(patient);  // 执行：UPDATE patient SET ... WHERE id = #{id}
+        } catch (DuplicateKeyException e) {  // 改成了其他病人的编号
+            return CommonResult.error("病人编号已存在");
+        }
+        if (ok) {  // 只更新了部分字段，重新读取完整记录后同步床位图
+            wardMap.upsert(patientService.getById(patient.getId()));
+        } else if (patient.getVersion() != null) {  // 版本号不一致
+            return updateFailed(patient.getId());
+        }
         
         // 根据更新结果返回不同的响应
         return ok   // 如果更新成功(ok=true)
@@ -328,6 +373,63 @@ public class PatientController {
                 : CommonResult.error("更新失败");  // 返回失败响应
     }
 
+    /**
+     * 局部更新病人信息(PATCH)
+     * 
+     * 功能说明：
+     * 1. 只写入请求体中出现的字段，值为null表示清空该字段
+     * 2. 必须携带version(读取时的版本号)，UPDATE ... WHERE id = ? AND version = ? 一条语句完成校验和写入，
+     *    不需要先查询，行锁持有时间最短
+     * 3. 版本号不一致(已被他人修改)返回409，前端需重新读取后再提交
+     * 
+     * 请求方式：PATCH
+     * 请求路径：/patient/{id}
+     * 
+     * 请求示例：
+     * PATCH /patient/1
+     * Body: {"version": 3, "careLevel": "特级护理", "remarks": null}
+     * 
+     * 响应示例（成功）：
+     * {"code": "200", "data": {"id": 1, "version": 4}}
+     * 
+     * 响应示例（冲突）：
+     * {"code": "409", "message": "病人信息已被他人修改，请刷新后重试"}
+     * 
+     * @param id 病人ID
+     * @param body 要修改的字段及version
+     * @return CommonResult 新的版本号
+     */
+    @PatchMapping("/{id}")
+    public CommonResult<Map<String, Object>> patch(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        if (!(body.get("version") instanceof Number version)) {
+            return CommonResult.error("缺少版本号version");
+        }
+        Patient changes = objectMapper.convertValue(body, Patient.class);  // 类型转换与@RequestBody一致
+        boolean ok;
+        try {
+            ok = patientService.patch(id, version.intValue(), changes, body.keySet());  // 只SET传入的字段
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(e.getMessage());  // 没有可更新的字段
+        } catch (DuplicateKeyException e) {
+            return CommonResult.error("病人编号已存在");
+        }
+        if (!ok) {
+            return updateFailed(id);
+        }
+        if (body.keySet().stream().anyMatch(WARD_FIELDS::contains)) {  // 影响床位图时才重新读取
+            wardMap.upsert(patientService.getById(id));
+        }
+        return CommonResult.success(Map.of("id", id, "version", version.intValue() + 1));
+    }
+
+    /** 更新影响0行：区分记录不存在和版本冲突 */
+    private <T> CommonResult<T> updateFailed(Long id) {
+        if (id == null || !patientService.lambdaQuery().eq(Patient::getId, id).exists()) {
+            return CommonResult.error("病人不存在");
+        }
+        return new CommonResult<>("409", "病人信息已被他人修改，请刷新后重试", null);
+    }
+
     /**
      * 删除病人信息
      * 
@@ -366,12 +468,126 @@ public class PatientController {
     public CommonResult<Boolean> delete(@PathVariable("id") Long id) {  // @PathVariable：从URL路径提取id参数
         // 调用Service层的removeById方法，根据ID删除病人
         boolean ok = patientService.removeById(id);  // 执行：DELETE FROM patient WHERE id = #{id}
+        if (ok) {
+            wardMap.remove(id);  // 从床位图中移除
+        }
         
         // 根据删除结果返回不同的响应
         return ok   // 如果删除成功(ok=true)
                 ? CommonResult.success(true)    // 返回成功响应
                 : CommonResult.error("删除失败");  // 返回失败响应
     }
+
+    /**
+     * 病区床位图
+     * 
+     * 功能说明：
+     * 1. 返回在院病人(status=1)按房间、床位组织的占用情况
+     * 2. 统计全病区和每个房间各护理等级的人数
+     * 3. 数据来自内存索引，不查询数据库
+     * 
+     * 使用场景：
+     * - 护理看板查看某房间哪些床位有人、是谁、护理等级
+     * - 统计特级/一级护理病人分布
+     * 
+     * 请求方式：GET
+     * 请求路径：/patient/ward-map
+     * 
+     * 请求示例：
+     * GET /patient/ward-map?roomNo=301
+     * GET /patient/ward-map?careLevel=特级护理
+     * 
+     * 响应示例：
+     * {
+     *   "code": "200",
+     *   "data": {
+     *     "occupied": 42,
+     *     "careLevels": {"一级护理": 12, "二级护理": 30},
+     *     "rooms": [{"roomNo": "301", "occupied": 2, "careLevels": {...}, "beds": [{"bedNo": "1", "name": "张三", ...}]}]
+     *   }
+     * }
+     * 
+     * @param roomNo 房间号(可选)，为空时返回全部房间
+     * @param careLevel 护理等级(可选)，只返回该等级的床位
+     * @return CommonResult 床位图数据
+     */
+    @GetMapping("/ward-map")
+    public CommonResult<Map<String, Object>> getWardMap(
+            @RequestParam(value = "roomNo", required = false) String roomNo,         // 房间号，可选
+            @RequestParam(value = "careLevel", required = false) String careLevel) {  // 护理等级，可选
+        return CommonResult.success(wardMap.snapshot(roomNo, careLevel));  // 直接读取内存床位图
+    }
+
+    /**
+     * 导出病人花名册
+     * 
+     * 功能说明：
+     * 1. 筛选条件与 /patient/list 相同(关键词、状态)
+     * 2. 通过数据库游标逐行读取并直接写入响应流，内存占用固定，可导出百万级数据
+     * 3. CSV 格式在客户端支持 gzip 时压缩传输；Excel 格式单表最多 1048575 行
+     * 
+     * 请求方式：GET
+     * 请求路径：/patient/export
+     * 
+     * 请求示例：
+     * GET /patient/export?format=csv&status=1
+     * GET /patient/export?format=xlsx&keyword=张
+     * 
+     * @param format 导出格式 csv(默认) / xlsx
+     * @param keyword 搜索关键词(可选)
+     * @param status 病人状态(可选)，1=在院, 2=出院, 3=转院
+     */
+    @GetMapping(value = "/export", produces = {ExportResponse.CSV_TYPE, ExportResponse.XLSX_TYPE})
+    public void export(
+            @RequestParam(value = "format", defaultValue = "csv") String format,  // 导出格式
+            @RequestParam(value = "keyword", required = false) String keyword,   // 搜索关键词，可选
+            @RequestParam(value = "status", required = false) Integer status,    // 状态，可选
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportResponse.write(request, response, format, "病人花名册",
+                writer -> patientService.exportPatients(keyword, status, writer));  // 游标逐行写出, 失败时中断下载
+    }
+
+    /**
+     * CSV批量导入病人
+     * 
+     * 功能说明：
+     * 1. 首行为表头，列名可用导出文件的中文列名(病人编号、姓名...)或字段名(patientNo、name...)
+     * 2. 校验病人编号(必填、文件内和库内唯一)、姓名(必填)、身份证号(含校验位)、电话、日期等格式
+     * 3. 每块1000行一个事务批量写入，有错误的行跳过，其余行正常导入
+     * 4. 返回总行数、成功/失败行数、逐行错误明细和吞吐量(行/秒)
+     * 
+     * 请求方式：POST
+     * 请求路径：/patient/import
+     * 请求格式：multipart/form-data，文件字段名 file，UTF-8编码(可带BOM)
+     * 
+     * 响应示例：
+     * {
+     *   "code": "200",
+     *   "data": {
+     *     "total": 100000, "inserted": 99998, "failed": 2, "elapsedMs": 4200, "rowsPerSecond": 23809,
+     *     "errorsTruncated": false,
+     *     "errors": [{"row": 15, "patientNo": "P20250013", "message": "身份证号格式错误: ..."}]
+     *   }
+     * }
+     * 
+     * @param file 上传的CSV文件
+     * @return CommonResult<ImportReport> 导入结果
+     */
+    @PostMapping("/import")
+    public CommonResult<ImportReport> importPatients(@RequestParam("file") MultipartFile file,  // 上传文件
+                                                     HttpServletRequest request) throws IOException {
+        if (file.isEmpty()) {
+            return CommonResult.error("请选择要导入的文件");
+        }
+        // 已登录时记录创建人
+        Object principal = request.getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE);
+        Long createdBy = principal instanceof SessionPrincipal p ? p.userId() : null;
+        try (InputStream in = file.getInputStream()) {
+            return CommonResult.success(patientImporter.importCsv(in, createdBy));  // 流式解析，分块写入
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(e.getMessage());  // 文件为空或缺少必需列
+        }
+    }
 }  // PatientController类结束
 
 
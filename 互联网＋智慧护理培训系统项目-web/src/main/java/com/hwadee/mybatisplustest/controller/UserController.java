@@ -3,19 +3,30 @@ package com.hwadee.mybatisplustest.controller;
 
 // 导入MyBatis-Plus的分页插件Page类
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+// 导入成就积分排行榜
+import com.hwadee.mybatisplustest.cache.AchievementLeaderboard;
 // 导入统一响应结果封装类
 import com.hwadee.mybatisplustest.common.CommonResult;
 // 导入用户实体类
 import com.hwadee.mybatisplustest.entity.User;
+// 导入密码哈希工具
+import com.hwadee.mybatisplustest.security.PasswordHasher;
 // 导入用户服务接口
 import com.hwadee.mybatisplustest.service.UserService;
+// 导入Jackson的ObjectMapper，用于把局部更新的请求体转换为实体
+import com.fasterxml.jackson.databind.ObjectMapper;
 // 导入Jakarta EE的Resource注解，用于依赖注入
 import jakarta.annotation.Resource;
+// 导入唯一索引冲突异常
+import org.springframework.dao.DuplicateKeyException;
 // 导入Spring Web的注解：RestController、RequestMapping、PathVariable、RequestBody等
 import org.springframework.web.bind.annotation.*;
 
-// 导入Java的List集合类
+// 导入Java的集合类
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户管理控制器
@@ -24,6 +35,7 @@ import java.util.List;
  * 1. 提供用户信息的增删改查(CRUD)接口
  * 2. 支持分页查询和关键词搜索
  * 3. 处理用户数据的校验和更新
+ * 4. 支持局部更新(PATCH)，按版本号做乐观锁校验
  * 
  * 技术说明：
  * - @RestController：标识这是一个RESTful风格的控制器，自动将返回值转为JSON
@@ -50,6 +62,27 @@ public class UserController {
     @Resource
     private UserService userService;  // 用户服务层接口，处理用户相关的业务逻辑
 
+    /**
+     * 成就积分排行榜
+     * 作用：用户部门变更时同步调整部门排行榜
+     */
+    @Resource
+    private AchievementLeaderboard leaderboard;  // 内存积分排行榜
+
+    /**
+     * 密码哈希工具
+     * 作用：创建用户、修改密码时将密码保存为加盐哈希
+     */
+    @Resource
+    private PasswordHasher passwordHasher;  // PBKDF2密码哈希
+
+    /**
+     * JSON转换器
+     * 作用：局部更新时把请求体Map转换为User，类型转换与@RequestBody一致
+     */
+    @Resource
+    private ObjectMapper objectMapper;  // Spring Boot自动配置的ObjectMapper
+
     /**
      * 创建新用户接口
      * 
@@ -81,6 +114,10 @@ public class UserController {
             // 返回错误结果，提示用户名不能为空
             return CommonResult.error("username 不能为空");
         }
+        // 密码保存为加盐哈希，不落库明文
+        if (body.getPassword() != null && !body.getPassword().isEmpty()) {
+            body.setPassword(passwordHasher.hash(body.getPassword()));
+        }
         // 调用Service层的save方法，将用户信息保存到数据库
         userService.save(body);  // MyBatis-Plus提供的save方法，自动生成INSERT语句
         // 返回成功结果，包含保存后的用户对象（含自动生成的ID）
@@ -232,8 +269,9 @@ public class UserController {
      * {"code": "500", "message": "用户ID不能为空"}
      * 
      * 业务逻辑：
-     * - 如果密码字段为空，则保留数据库中的原密码
-     * - 其他字段正常更新
+     * - 密码字段为空或为回传的哈希值时不更新密码列(保留原密码，无需先查询)，新明文密码保存为加盐哈希
+     * - 其他非空字段正常更新
+     * - 传入version(读取时的版本号)时启用乐观锁，已被他人修改返回409
      * 
      * @param user 用户对象，包含要更新的字段和用户ID
      * @return CommonResult<User> 包含更新后用户信息的统一响应结果
@@ -247,29 +285,96 @@ public class UserController {
             return CommonResult.error("用户ID不能为空");
         }
         
-        // 密码处理逻辑：如果前端传来的密码为空，则保留原密码
-        if (user.getPassword() == null || user.getPassword().isEmpty()) {  // 密码为空或空字符串
-            // 查询数据库中的原用户信息
-            User existUser = userService.getById(user.getId());  // 获取数据库中的原用户对象
-            if (existUser != null) {  // 如果原用户存在
-                // 将原密码设置回user对象，避免密码被清空
-                user.setPassword(existUser.getPassword());  // 保留原密码
-            }
+        // 密码处理逻辑：只有传入新的明文密码才修改，否则保留原密码
+        // 查询接口返回的是哈希值，整条回传时原样带回；哈希形式的值不是新密码，也不允许客户端直接写入哈希
+        if (user.getPassword() == null || user.getPassword().isEmpty()
+                || passwordHasher.isHashed(user.getPassword())) {  // 密码为空或回传的哈希
+            // updateById 只更新非空字段，置为null即不修改密码列
+            user.setPassword(null);  // 保留原密码
+        } else {  // 传入新明文密码
+            user.setPassword(passwordHasher.hash(user.getPassword()));  // 保存为加盐哈希
         }
         
         // 调用Service层的updateById方法更新用户信息
+        // 带version时乐观锁插件追加 AND version = ?，并把版本号+1
         boolean result = userService.updateById(user);  // 执行：UPDATE user SET ... WHERE id = #{id}
         
         // 根据更新结果返回不同的响应
         if (result) {  // 更新成功（影响行数>0）
+            // 部门发生变更时，同步移动用户所在的部门排行榜
+            if (user.getDepartment() != null) {  // 本次请求携带了部门字段
+                leaderboard.changeDepartment(user.getId(), user.getDepartment());
+            }
             // 返回成功结果和更新后的用户对象
             return CommonResult.success(user);
+        } else if (user.getVersion() != null) {  // 带版本号：区分不存在和版本冲突
+            return updateFailed(user.getId());
         } else {  // 更新失败（可能ID不存在或数据库异常）
             // 返回错误结果
             return CommonResult.error("更新失败");
         }
     }
 
+    /**
+     * 局部更新用户信息接口(PATCH)
+     * 
+     * 功能说明：
+     * 1. 只写入请求体中出现的字段，不先查询整条记录
+     * 2. 必须携带version(读取时的版本号)，版本不一致返回409
+     * 3. 携带非空password时一律按明文保存为加盐哈希，空密码忽略(保留原密码)
+     * 
+     * 请求方式：PATCH
+     * 请求路径：/user/{id}
+     * 
+     * 请求示例：
+     * PATCH /user/1
+     * Body: {"version": 2, "department": "ICU", "position": "护士长"}
+     * 
+     * 响应示例（成功）：
+     * {"code": "200", "data": {"id": 1, "version": 3}}
+     * 
+     * @param id 用户ID
+     * @param body 要修改的字段及version
+     * @return CommonResult 新的版本号
+     */
+    @PatchMapping("/{id}")
+    public CommonResult<Map<String, Object>> patch(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        if (!(body.get("version") instanceof Number version)) {
+            return CommonResult.error("缺少版本号version");
+        }
+        User changes = objectMapper.convertValue(body, User.class);  // 类型转换与@RequestBody一致
+        Set<String> fields = new HashSet<>(body.keySet());
+        if (changes.getPassword() == null || changes.getPassword().isEmpty()) {
+            fields.remove("password");  // 空密码不修改
+        } else {  // 传入的值一律按明文计算哈希, 不接受客户端直接写入哈希值
+            changes.setPassword(passwordHasher.hash(changes.getPassword()));  // 保存为加盐哈希
+        }
+
+        boolean ok;
+        try {
+            ok = userService.patch(id, version.intValue(), changes, fields);  // 只SET传入的字段
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(e.getMessage());  // 没有可更新的字段
+        } catch (DuplicateKeyException e) {
+            return CommonResult.error("用户名已存在，请更换用户名");
+        }
+        if (!ok) {
+            return updateFailed(id);
+        }
+        if (fields.contains("department")) {  // 部门变更，同步部门排行榜
+            leaderboard.changeDepartment(id, changes.getDepartment());
+        }
+        return CommonResult.success(Map.of("id", id, "version", version.intValue() + 1));
+    }
+
+    /** 更新影响0行：区分用户不存在和版本冲突 */
+    private <T> CommonResult<T> updateFailed(Long id) {
+        if (id == null || !userService.lambdaQuery().eq(User::getId, id).exists()) {
+            return CommonResult.error("用户不存在");
+        }
+        return new CommonResult<>("409", "用户信息已被他人修改，请刷新后重试", null);
+    }
+
     /**
      * 删除用户接口
      * 
@@ -3,6 +3,10 @@ package com.hwadee.mybatisplustest.controller;
 
 // 导入MyBatis-Plus的Lambda查询构造器
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+// 导入用户收藏位图索引
+import com.hwadee.mybatisplustest.cache.FavoriteBitmapIndex;
+// 导入内容收藏数计数器
+import com.hwadee.mybatisplustest.cache.FavoriteCounter;
 // 导入统一响应结果封装类
 import com.hwadee.mybatisplustest.common.CommonResult;
 // 导入用户收藏实体类
@@ -14,8 +18,8 @@ import jakarta.annotation.Resource;
 // 导入Spring Web的注解
 import org.springframework.web.bind.annotation.*;
 
-// 导入Java 8时间API的LocalDateTime类
-import java.time.LocalDateTime;
+// 导入ArrayList用于构建ID列表
+import java.util.ArrayList;
 // 导入HashMap用于构建响应数据
 import java.util.HashMap;
 // 导入List接口
@@ -26,7 +30,7 @@ import java.util.Map;
 /**
  * 用户收藏管理控制器
  * 
- * 功能：添加收藏、取消收藏、检查收藏状态、获取收藏列表、统计收藏数量
+ * 功能：添加收藏、取消收藏、检查收藏状态（单条/批量）、获取收藏列表、统计收藏数量（单条/批量）
  * 智慧护理培训系统 - 用户收藏模块
  */
 @RestController  // RESTful控制器
@@ -37,6 +41,12 @@ public class UserFavoriteController {
     @Resource  // 依赖注入
     private UserFavoriteService favoriteService;  // 收藏服务层
 
+    @Resource  // 依赖注入
+    private FavoriteBitmapIndex favoriteIndex;  // 收藏位图索引
+
+    @Resource  // 依赖注入
+    private FavoriteCounter favoriteCounter;  // 内容收藏数计数器
+
     /**添加收藏-支持文章和视频收藏*/
     // 添加收藏
     @PostMapping("/add")
@@ -51,29 +61,12 @@ public class UserFavoriteController {
             return CommonResult.error("文章ID或视频ID至少需要一个");  // 返回错误
         }
 
-        // 检查是否已经收藏
-        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserFavorite::getUserId, userId);  // 用户ID匹配
-        if (articleId != null) {  // 如果是文章收藏
-            wrapper.eq(UserFavorite::getArticleId, articleId);  // 文章ID匹配
-        }
-        if (videoId != null) {  // 如果是视频收藏
-            wrapper.eq(UserFavorite::getVideoId, videoId);  // 视频ID匹配
-        }
-
-        UserFavorite exist = favoriteService.getOne(wrapper);  // 查询现有收藏
-        if (exist != null) {  // 如果已经收藏
-            return CommonResult.error("已经收藏过了");  // 返回错误
+        // 单条 INSERT IGNORE：由唯一键保证重复点击/并发请求只插入一行，无需先查询
+        boolean added = favoriteService.addFavorite(userId, articleId, videoId);  // 同步更新收藏位图和计数
+        if (!added) {  // 已经收藏过（幂等返回成功）
+            return CommonResult.success("已经收藏过了");
         }
 
-        // 创建新收藏记录
-        UserFavorite favorite = new UserFavorite();  // 实例化收藏对象
-        favorite.setUserId(userId);  // 设置用户ID
-        favorite.setArticleId(articleId);  // 设置文章ID
-        favorite.setVideoId(videoId);  // 设置视频ID
-        favorite.setCreatedAt(LocalDateTime.now());  // 设置创建时间
-        favoriteService.save(favorite);  // 保存到数据库
-
         return CommonResult.success("收藏成功");  // 返回成功响应
     }
 
@@ -86,20 +79,38 @@ public class UserFavoriteController {
         Long articleId = body.get("articleId") != null ? Long.valueOf(body.get("articleId").toString()) : null;  // 文章ID（可选）
         Long videoId = body.get("videoId") != null ? Long.valueOf(body.get("videoId").toString()) : null;  // 视频ID（可选）
 
-        // 构建删除条件
-        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserFavorite::getUserId, userId);  // 用户ID匹配
-        if (articleId != null) {  // 如果是文章收藏
-            wrapper.eq(UserFavorite::getArticleId, articleId);  // 文章ID匹配
-        }
-        if (videoId != null) {  // 如果是视频收藏
-            wrapper.eq(UserFavorite::getVideoId, videoId);  // 视频ID匹配
+        // 参数校验：文章ID和视频ID至少需要一个，不允许一次删除用户的全部收藏
+        if (articleId == null && videoId == null) {
+            return CommonResult.error("文章ID或视频ID至少需要一个");  // 返回错误
         }
 
-        boolean removed = favoriteService.remove(wrapper);  // 执行删除
+        // 单条 DELETE，同步更新收藏位图和计数
+        boolean removed = favoriteService.removeFavorite(userId, articleId, videoId) > 0;  // 是否删除成功
         return removed ? CommonResult.success("取消收藏成功") : CommonResult.error("取消收藏失败");  // 返回结果
     }
 
+    /**批量同步收藏-供离线客户端一次提交新增和取消的收藏*/
+    // 批量同步收藏
+    @PostMapping("/import")
+    public CommonResult<?> importFavorites(@RequestBody Map<String, Object> body) {  // 接收JSON数据
+        // 请求体示例：{"userId": 1, "articleIds": [1, 2], "videoIds": [3], "removedArticleIds": [4], "removedVideoIds": []}
+        if (body.get("userId") == null) {  // 参数校验：用户ID必填
+            return CommonResult.error("用户ID不能为空");
+        }
+        Long userId = Long.valueOf(body.get("userId").toString());  // 用户ID（必填）
+
+        try {  // 异常处理
+            Map<String, Integer> result = favoriteService.syncFavorites(userId,
+                    toIdList(body.get("articleIds")),  // 新增收藏的文章ID
+                    toIdList(body.get("videoIds")),  // 新增收藏的视频ID
+                    toIdList(body.get("removedArticleIds")),  // 取消收藏的文章ID
+                    toIdList(body.get("removedVideoIds")));  // 取消收藏的视频ID
+            return CommonResult.success(result);  // 返回 {added: 新增数, removed: 删除数}
+        } catch (IllegalArgumentException e) {  // 数量超限
+            return CommonResult.error(e.getMessage());  // 返回错误
+        }
+    }
+
     /**检查是否收藏*/
     // 检查是否收藏
     @GetMapping("/check")
@@ -126,6 +137,17 @@ public class UserFavoriteController {
         return CommonResult.success(result);  // 返回结果
     }
 
+    /**批量检查是否收藏-一次返回一整页卡片的收藏状态*/
+    // 批量检查是否收藏
+    @GetMapping("/check/batch")
+    public CommonResult<?> checkFavoriteBatch(
+            @RequestParam Long userId,  // 用户ID（必填）
+            @RequestParam(required = false) List<Long> articleIds,  // 文章ID列表，逗号分隔（可选）
+            @RequestParam(required = false) List<Long> videoIds) {  // 视频ID列表，逗号分隔（可选）
+        // 直接查询内存位图，首次访问该用户时懒加载
+        return CommonResult.success(favoriteIndex.check(userId, articleIds, videoIds));  // 返回 {articles: {id: 是否收藏}, videos: {...}}
+    }
+
     /**获取用户的收藏列表-支持按类型筛选*/
     // 获取用户的收藏列表
     @GetMapping("/user/{userId}")
@@ -155,22 +177,50 @@ public class UserFavoriteController {
     public CommonResult<?> getFavoriteCount(
             @RequestParam(required = false) Long articleId,  // 文章ID（可选）
             @RequestParam(required = false) Long videoId) {  // 视频ID（可选）
-        // 构建查询条件
-        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
-        if (articleId != null) {  // 如果是文章
-            wrapper.eq(UserFavorite::getArticleId, articleId);  // 文章ID匹配
-        }
-        if (videoId != null) {  // 如果是视频
-            wrapper.eq(UserFavorite::getVideoId, videoId);  // 视频ID匹配
+        long count;
+        if (articleId != null && videoId == null) {  // 单篇文章：读取内存计数
+            count = favoriteCounter.articleCount(articleId);
+        } else if (videoId != null && articleId == null) {  // 单个视频：读取内存计数
+            count = favoriteCounter.videoCount(videoId);
+        } else {  // 其他组合：仍按条件统计数据库
+            LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
+            if (articleId != null) {  // 如果是文章
+                wrapper.eq(UserFavorite::getArticleId, articleId);  // 文章ID匹配
+            }
+            if (videoId != null) {  // 如果是视频
+                wrapper.eq(UserFavorite::getVideoId, videoId);  // 视频ID匹配
+            }
+            count = favoriteService.count(wrapper);  // 统计数量
         }
 
-        long count = favoriteService.count(wrapper);  // 统计数量
         // 构建返回结果
         Map<String, Object> result = new HashMap<>();
         result.put("count", count);  // 收藏数量
 
         return CommonResult.success(result);  // 返回结果
     }
+
+    /**批量获取收藏数量-一次返回多篇文章/多个视频的收藏数*/
+    // 批量获取收藏数量
+    @GetMapping("/counts")
+    public CommonResult<?> getFavoriteCounts(
+            @RequestParam(required = false) List<Long> articleIds,  // 文章ID列表，逗号分隔（可选）
+            @RequestParam(required = false) List<Long> videoIds) {  // 视频ID列表，逗号分隔（可选）
+        return CommonResult.success(favoriteCounter.counts(articleIds, videoIds));  // 返回 {articles: {id: 数量}, videos: {...}}
+    }
+
+    /**将JSON数组转换为ID列表*/
+    private static List<Long> toIdList(Object value) {
+        List<Long> ids = new ArrayList<>();
+        if (value instanceof List<?> list) {  // JSON数组
+            for (Object item : list) {
+                if (item != null) {
+                    ids.add(Long.valueOf(item.toString()));
+                }
+            }
+        }
+        return ids;
+    }
 }  // UserFavoriteController类结束
 
 
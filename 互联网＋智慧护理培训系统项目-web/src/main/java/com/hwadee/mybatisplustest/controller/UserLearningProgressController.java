@@ -7,15 +7,22 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.hwadee.mybatisplustest.common.CommonResult;
 // 导入用户学习进度实体类
 import com.hwadee.mybatisplustest.entity.UserLearningProgress;
+// 导入导出响应工具
+import com.hwadee.mybatisplustest.export.ExportResponse;
 // 导入学习成就服务接口
 import com.hwadee.mybatisplustest.service.LearningAchievementService;
 // 导入用户学习进度服务接口
 import com.hwadee.mybatisplustest.service.UserLearningProgressService;
 // 导入Jakarta EE的Resource注解
 import jakarta.annotation.Resource;
+// 导入Servlet请求和响应，导出接口直接写响应流
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 // 导入Spring Web的注解
 import org.springframework.web.bind.annotation.*;
 
+// 导入IO异常
+import java.io.IOException;
 // 导入Java 8时间API的LocalDateTime类
 import java.time.LocalDateTime;
 // 导入HashMap用于构建响应数据
@@ -192,5 +199,14 @@ public class UserLearningProgressController {
         
         return CommonResult.success(userStats);  // 返回用户统计数据
     }
+
+    /**管理员：导出全部学习记录(CSV/Excel)，游标流式写出，不在内存中汇总*/
+    // GET /learning/progress/admin/export?format=csv|xlsx
+    @GetMapping(value = "/admin/export", produces = {ExportResponse.CSV_TYPE, ExportResponse.XLSX_TYPE})
+    public void exportAllProgress(@RequestParam(value = "format", defaultValue = "csv") String format,  // 导出格式，默认csv
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportResponse.write(request, response, format, "培训完成情况",
+                progressService::exportProgress);  // 逐行写出学习记录, 失败时中断下载
+    }
 }  // UserLearningProgressController类结束
 
@@ -0,0 +1,49 @@
+package com.hwadee.mybatisplustest.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("achievement_definition")
+public class AchievementDefinition {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("achievement_type")
+    private String achievementType; // 成就类型(唯一)：first_article, halfway, completed_all等
+
+    @TableField("achievement_name")
+    private String achievementName; // 成就名称
+
+    @TableField("achievement_desc")
+    private String achievementDesc; // 成就描述
+
+    @TableField("icon")
+    private String icon; // 成就图标
+
+    @TableField("points")
+    private Integer points; // 成就积分
+
+    @TableField("requirement")
+    private String requirement; // 解锁条件说明(展示用)
+
+    @TableField("required_articles")
+    private Integer requiredArticles; // 解锁所需完成的文章数
+
+    @TableField("sort_order")
+    private Integer sortOrder; // 排序序号
+
+    @TableField("status")
+    private Integer status; // 1 启用, 0 禁用
+
+    @TableField("created_at")
+    private LocalDateTime createdAt;
+
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.hwadee.mybatisplustest.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 管理员登录审计日志(只追加, 不修改不删除)
+ */
+@Data
+@TableName("admin_login_log")
+public class AdminLoginLog {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("admin_id")
+    private Long adminId;  // 登录失败时为空
+
+    private String username;
+
+    private Integer success;  // 1-成功, 0-失败
+
+    private String ip;
+
+    @TableField("user_agent")
+    private String userAgent;
+
+    @TableField("login_time")
+    private LocalDateTime loginTime;
+}
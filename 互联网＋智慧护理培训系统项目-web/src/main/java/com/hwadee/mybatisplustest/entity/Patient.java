@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -186,6 +187,13 @@ public class Patient {
      */
     @TableField("updated_at")
     private LocalDateTime updatedAt;
+    
+    /**
+     * 乐观锁版本号
+     * 更新时携带读取到的版本号, 与数据库不一致(已被他人修改)时更新失败
+     */
+    @Version
+    private Integer version;
 }
 
 
@@ -9,6 +9,8 @@ import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 // 导入MyBatis-Plus的表名注解
 import com.baomidou.mybatisplus.annotation.TableName;
+// 导入MyBatis-Plus的乐观锁版本注解
+import com.baomidou.mybatisplus.annotation.Version;
 // 导入Lombok的Data注解,自动生成getter/setter/toString等方法
 import lombok.Data;
 
@@ -163,6 +165,15 @@ public class User implements Serializable {
     @TableField("position")
     private String position;
 
+    /**
+     * 乐观锁版本号
+     * @Version: 更新时携带版本号则校验 WHERE version = ?, 成功后版本号+1
+     * 用途: 防止多人同时修改同一用户时后提交的覆盖先提交的
+     */
+    @TableField("version")
+    @Version
+    private Integer version;
+
 
     // ==================== Getter/Setter方法 ====================
     // 注意: 这些方法实际由@Data注解自动生成,此处手动编写是为了兼容性
@@ -343,6 +354,22 @@ public class User implements Serializable {
         this.position = position;  // 将参数position赋值给实例变量position
     }
 
+    /**
+     * 获取乐观锁版本号
+     * @return 版本号
+     */
+    public Integer getVersion() {
+        return version;  // 返回版本号字段的值
+    }
+
+    /**
+     * 设置乐观锁版本号
+     * @param version 读取时的版本号
+     */
+    public void setVersion(Integer version) {
+        this.version = version;  // 将参数version赋值给实例变量version
+    }
+
     /**
      * 重写toString方法
      * 用途: 将对象转换为可读的字符串格式,便于日志输出和调试
@@ -362,6 +389,7 @@ public class User implements Serializable {
                 ", address='" + address + '\'' +      // 拼接地址字段
                 ", department='" + department + '\'' + // 拼接部门字段
                 ", position='" + position + '\'' +    // 拼接职位字段
+                ", version=" + version +              // 拼接版本号字段
                 '}';                                   // 结束大括号
     }
 }
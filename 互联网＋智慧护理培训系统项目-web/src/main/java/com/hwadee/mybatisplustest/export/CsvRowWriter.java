@@ -0,0 +1,75 @@
+package com.hwadee.mybatisplustest.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV 行写出器(RFC 4180)
+ *
+ * 1. UTF-8 带 BOM, Excel 直接打开中文不乱码
+ * 2. 含逗号、引号、换行的值加双引号并转义
+ * 3. 以 = + - @ 制表符 回车开头的文本前加单引号, 防止在 Excel 中被当作公式执行
+ */
+public class CsvRowWriter implements RowWriter {
+
+    /** 需要加单引号的首字符, CsvRowReader 导入时按同一集合去掉单引号 */
+    public static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final Writer out;
+    private long rows;
+
+    public CsvRowWriter(OutputStream stream) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        out.write('\uFEFF');  // BOM
+    }
+
+    @Override
+    public void header(List<String> columns) throws IOException {
+        writeLine(columns.toArray());
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        writeLine(cells);
+        rows++;
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeLine(Object[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object cell = cells[i];
+            if (cell == null) {
+                continue;
+            }
+            String text = ExportValues.format(cell);
+            if (cell instanceof CharSequence && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(text.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(text);
+            }
+        }
+        out.write("\r\n");
+    }
+}
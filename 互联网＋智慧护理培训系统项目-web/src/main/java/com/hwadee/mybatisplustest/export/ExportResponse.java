@@ -0,0 +1,93 @@
+package com.hwadee.mybatisplustest.export;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 导出响应 - 设置下载响应头并创建对应格式的行写出器
+ *
+ * 1. format=xlsx 时输出 Excel, 其余输出 CSV
+ * 2. CSV 在客户端声明 Accept-Encoding: gzip 时边写边压缩(XLSX 本身是 zip, 不再压缩)
+ * 3. 文件名为 名称_yyyyMMddHHmmss.扩展名, 中文按 RFC 5987 编码
+ * 4. 写出中途失败(如数据库连接断开)时不正常关闭写出器, 客户端拿到的是下载失败而不是看似完整的截断文件
+ */
+public final class ExportResponse {
+
+    public static final String CSV_TYPE = "text/csv;charset=UTF-8";
+    public static final String XLSX_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /** 导出内容, 向行写出器逐行写入 */
+    @FunctionalInterface
+    public interface Body {
+        void write(RowWriter writer) throws IOException;
+    }
+
+    private ExportResponse() {
+    }
+
+    /**
+     * 导出: 打开写出器、写入内容, 成功后关闭
+     *
+     * 写入抛出异常时不调用 close(会补上 XLSX 的 zip 目录和 gzip 尾部, 截断的文件看起来完整):
+     * 响应尚未提交时清空响应(含下载头), 异常交给全局处理; 已提交时异常抛给容器, 由容器中断连接
+     *
+     * @param format 导出格式 csv / xlsx
+     * @param baseName 文件名(不含扩展名), 同时作为 Excel 工作表名
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response,
+                             String format, String baseName, Body body) throws IOException {
+        RowWriter writer = open(request, response, format, baseName);
+        try {
+            body.write(writer);
+        } catch (Throwable e) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+        writer.close();
+    }
+
+    /**
+     * 开始导出
+     *
+     * @param format 导出格式 csv / xlsx(忽略大小写, 为空时为 csv)
+     * @param baseName 文件名(不含扩展名), 同时作为 Excel 工作表名
+     * @return 行写出器, 写完后调用 close; 写入失败时不要 close, 一般通过 write 使用
+     */
+    public static RowWriter open(HttpServletRequest request, HttpServletResponse response,
+                                 String format, String baseName) throws IOException {
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        String fileName = baseName + "_" + STAMP.format(LocalDateTime.now()) + (xlsx ? ".xlsx" : ".csv");
+        response.setContentType(xlsx ? XLSX_TYPE : CSV_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (xlsx) {
+            return new XlsxRowWriter(response.getOutputStream(), baseName);
+        }
+        OutputStream out = response.getOutputStream();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        return new CsvRowWriter(out);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+}
@@ -0,0 +1,22 @@
+package com.hwadee.mybatisplustest.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 表格行写出器 - 导出时逐行写入输出流, 不在内存中累积
+ *
+ * 单元格值支持 String、Number、Boolean、LocalDateTime/LocalDate, null 写为空
+ */
+public interface RowWriter extends Closeable {
+
+    /** 写表头 */
+    void header(List<String> columns) throws IOException;
+
+    /** 写一行数据 */
+    void row(Object... cells) throws IOException;
+
+    /** 已写入的数据行数(不含表头) */
+    long rowCount();
+}
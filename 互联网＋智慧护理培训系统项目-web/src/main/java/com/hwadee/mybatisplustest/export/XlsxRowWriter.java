@@ -0,0 +1,147 @@
+package com.hwadee.mybatisplustest.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX 流式行写出器
+ *
+ * 直接按 Office Open XML 结构写 zip: 工作簿骨架文件先写好, sheet1.xml 逐行追加,
+ * 文本使用内联字符串(inlineStr), 不需要共享字符串表, 因此内存占用与行数无关
+ *
+ * 限制: 单个工作表最多 1048576 行(Excel 上限), 超出的行被截断并在最后一行提示
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    /** Excel 单表最大行数(含表头) */
+    private static final int MAX_ROWS = 1_048_576;
+
+    private final ZipOutputStream zip;
+    private final Writer sheet;
+    private int rowIndex;   // 已写入的行号(含表头)
+    private long rows;      // 已写入的数据行数
+    private boolean truncated;
+
+    public XlsxRowWriter(OutputStream stream, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(stream, StandardCharsets.UTF_8);
+        writeEntry("[Content_Types].xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+                <Default Extension="xml" ContentType="application/xml"/>\
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+                <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+                </Types>""");
+        writeEntry("_rels/.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+                </Relationships>""");
+        writeEntry("xl/workbook.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+                xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+                <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets></workbook>""".formatted(escape(sheetName)));
+        writeEntry("xl/_rels/workbook.xml.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+                </Relationships>""");
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        this.sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        sheet.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void header(List<String> columns) throws IOException {
+        writeRow(columns.toArray());
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        if (rowIndex >= MAX_ROWS - 1) {
+            if (!truncated) {
+                truncated = true;
+                writeRow(new Object[]{"超出 Excel 最大行数, 其余数据已省略, 请使用 CSV 格式导出"});
+            }
+            return;
+        }
+        writeRow(cells);
+        rows++;
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sheet.write("</sheetData></worksheet>");
+        sheet.flush();
+        zip.closeEntry();
+        zip.close();
+    }
+
+    private void writeRow(Object[] cells) throws IOException {
+        rowIndex++;
+        sheet.write("<row r=\"");
+        sheet.write(Integer.toString(rowIndex));
+        sheet.write("\">");
+        for (Object cell : cells) {
+            if (cell == null) {
+                sheet.write("<c/>");
+            } else if (cell instanceof Number number) {
+                sheet.write("<c t=\"n\"><v>");
+                sheet.write(number.toString());
+                sheet.write("</v></c>");
+            } else {
+                sheet.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                sheet.write(escape(ExportValues.format(cell)));
+                sheet.write("</t></is></c>");
+            }
+        }
+        sheet.write("</row>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /** XML 转义, 并去掉 XML 1.0 不允许的控制字符 */
+    private static String escape(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+            };
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+}
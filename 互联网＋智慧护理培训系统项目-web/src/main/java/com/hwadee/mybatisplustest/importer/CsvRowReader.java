@@ -0,0 +1,108 @@
+package com.hwadee.mybatisplustest.importer;
+
+import com.hwadee.mybatisplustest.export.CsvRowWriter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 流式读取器(RFC 4180)
+ *
+ * 1. 逐条记录读取, 不把整个文件加载到内存
+ * 2. 支持双引号包裹的字段(字段内可含逗号、换行, "" 表示一个双引号)
+ * 3. 自动跳过 UTF-8 BOM, 兼容 \r\n 和 \n 换行
+ * 4. 导出时为防公式注入加的前导单引号('=...)会被去掉, 导出文件可直接重新导入
+ */
+public class CsvRowReader implements Closeable {
+
+    private final Reader in;
+    private long recordNo;  // 已读取的记录数(含表头)
+
+    public CsvRowReader(InputStream stream) {
+        this.in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 字段数组, 文件结束时返回null
+     */
+    public String[] next() throws IOException {
+        int c = in.read();
+        if (recordNo == 0 && c == '\uFEFF') {
+            c = in.read();  // 跳过 BOM
+        }
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;     // 当前是否在引号内
+        boolean wasQuoted = false;  // 当前字段是否由引号包裹
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    break;  // 引号未闭合, 按文件结束处理
+                }
+                if (c == '"') {
+                    int n = in.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                break;
+            } else if (c == '\r') {
+                in.mark(1);
+                if (in.read() != '\n') {
+                    in.reset();
+                }
+                break;
+            } else if (c == ',') {
+                fields.add(unescape(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(unescape(field, wasQuoted));
+        recordNo++;
+        return fields.toArray(new String[0]);
+    }
+
+    /** 已读取的记录数(含表头), 即最近一条记录在表格中的行号 */
+    public long recordNo() {
+        return recordNo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static String unescape(StringBuilder field, boolean wasQuoted) {
+        String text = wasQuoted ? field.toString() : field.toString().trim();
+        if (text.length() > 1 && text.charAt(0) == '\'' && CsvRowWriter.FORMULA_PREFIXES.indexOf(text.charAt(1)) >= 0) {
+            return text.substring(1);  // 去掉导出时加的防公式前缀
+        }
+        return text;
+    }
+}
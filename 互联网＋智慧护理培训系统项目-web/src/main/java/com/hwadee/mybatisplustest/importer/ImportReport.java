@@ -0,0 +1,25 @@
+package com.hwadee.mybatisplustest.importer;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果
+ */
+@Data
+public class ImportReport {
+
+    /** 单行错误: 行号为表格中的行号(表头为第1行) */
+    public record RowError(long row, String patientNo, String message) {
+    }
+
+    private long total;          // 数据行数(不含表头和空行)
+    private long inserted;       // 成功写入行数
+    private long failed;         // 失败行数
+    private long elapsedMs;      // 总耗时(毫秒)
+    private long rowsPerSecond;  // 吞吐量(行/秒)
+    private boolean errorsTruncated;  // 错误明细是否因超过上限被截断
+    private List<RowError> errors = new ArrayList<>();  // 错误明细(最多 patient-import.max-errors 条)
+}
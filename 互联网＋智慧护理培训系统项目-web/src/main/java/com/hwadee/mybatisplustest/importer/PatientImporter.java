@@ -0,0 +1,452 @@
+package com.hwadee.mybatisplustest.importer;
+
+import com.hwadee.mybatisplustest.cache.WardMap;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 病人批量导入 - CSV 流式解析、分块并行校验、JDBC 批量写入
+ *
+ * 流程:
+ * 1. 读取线程逐条解析 CSV, 每 chunk-size 行组成一块交给校验线程池(字段格式、身份证校验位等)
+ * 2. 写入线程按文件顺序取回校验结果: 检查文件内病人编号重复, 一条 IN 查询检查库内已存在的编号,
+ *    然后在一个事务内用 JDBC batch 插入整块
+ * 3. 整块插入失败(如字段超长、并发写入了相同病人编号)时回滚, 再逐行插入定位出错的行, 其余行照常写入;
+ *    病人编号由唯一索引 uk_patient_no 兜底, 查询之后才插入的同号记录按行报"病人编号已存在"
+ * 4. 同时在途的块数有上限, 内存占用与文件大小无关
+ *
+ * 表头支持导出文件的中文列名(病人编号、姓名...)或实体字段名(patientNo、name...), 未识别的列忽略
+ *
+ * 配置项(patient-import.*):
+ * - chunk-size: 每块行数(一个事务), 默认1000
+ * - validate-threads: 校验线程数, 默认4
+ * - max-errors: 返回的错误明细上限, 默认1000
+ *
+ * 注意: JDBC URL 需开启 rewriteBatchedStatements=true, MySQL 驱动才会把批量语句合并为多行 INSERT
+ */
+@Slf4j
+@Component
+public class PatientImporter {
+
+    /** 可导入的列: 字段名, 中文列名 */
+    private enum Column {
+        PATIENT_NO("patientNo", "病人编号"), NAME("name", "姓名"), GENDER("gender", "性别"), AGE("age", "年龄"),
+        ID_CARD("idCard", "身份证号"), PHONE("phone", "联系电话"), EMERGENCY_CONTACT("emergencyContact", "紧急联系人"),
+        EMERGENCY_PHONE("emergencyPhone", "紧急联系电话"), ADDRESS("address", "地址"),
+        ADMISSION_DATE("admissionDate", "入院日期"), DIAGNOSIS("diagnosis", "诊断"),
+        MEDICAL_HISTORY("medicalHistory", "病史"), ALLERGY_HISTORY("allergyHistory", "过敏史"),
+        CURRENT_MEDICATION("currentMedication", "当前用药"), CARE_LEVEL("careLevel", "护理等级"),
+        ROOM_NO("roomNo", "房间号"), BED_NO("bedNo", "床位号"), STATUS("status", "状态"), REMARKS("remarks", "备注");
+
+        final String field;
+        final String label;
+
+        Column(String field, String label) {
+            this.field = field;
+            this.label = label;
+        }
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO patient (patient_no, name, gender, age, id_card, phone,"
+            + " emergency_contact, emergency_phone, address, admission_date, diagnosis, medical_history,"
+            + " allergy_history, current_medication, care_level, room_no, bed_no, status, remarks, created_by)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Pattern ID_CARD_18 = Pattern.compile("\\d{17}[\\dX]");
+    private static final Pattern ID_CARD_15 = Pattern.compile("\\d{15}");
+    private static final Pattern PHONE = Pattern.compile("[\\d+\\- ]{5,20}");
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final String ID_CARD_CHECK = "10X98765432";
+    private static final DateTimeFormatter DATE_INPUT = DateTimeFormatter.ofPattern("yyyy-M-d[ H:m[:s]]");
+
+    /** 待校验的行 */
+    private record RawRow(long row, String[] fields) {
+    }
+
+    /** 校验通过的行 */
+    private record ValidRow(long row, Object[] values) {
+        String patientNo() {
+            return (String) values[0];
+        }
+    }
+
+    /** 一块的校验结果 */
+    private record Chunk(List<ValidRow> rows, List<ImportReport.RowError> errors) {
+    }
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private WardMap wardMap;  // 导入后刷新床位图
+
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final int maxErrors;
+    private final ExecutorService validators;
+
+    public PatientImporter(@Value("${patient-import.chunk-size:1000}") int chunkSize,
+                           @Value("${patient-import.validate-threads:4}") int validateThreads,
+                           @Value("${patient-import.max-errors:1000}") int maxErrors) {
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxInFlight = Math.max(2, validateThreads * 2);
+        this.maxErrors = maxErrors;
+        AtomicInteger seq = new AtomicInteger();
+        this.validators = Executors.newFixedThreadPool(Math.max(1, validateThreads), r -> {
+            Thread t = new Thread(r, "patient-import-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+    }
+
+    /**
+     * 导入病人
+     *
+     * @param csv CSV 输入流(UTF-8, 首行为表头), 由调用方关闭
+     * @param createdBy 创建人ID(可为null)
+     * @return 导入结果
+     * @throws IllegalArgumentException 文件为空或缺少病人编号/姓名列
+     */
+    public ImportReport importCsv(InputStream csv, Long createdBy) throws IOException {
+        long begin = System.nanoTime();
+        ImportReport report = new ImportReport();
+        CsvRowReader reader = new CsvRowReader(csv);
+        String[] header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("文件为空");
+        }
+        int[] columns = resolveColumns(header);
+
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        Set<String> seenNos = new HashSet<>();  // 文件内已出现的病人编号
+        try {
+            List<RawRow> raw = new ArrayList<>(chunkSize);
+            String[] record;
+            while ((record = reader.next()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                raw.add(new RawRow(reader.recordNo(), record));
+                if (raw.size() == chunkSize) {
+                    pending.add(submit(raw, columns, createdBy));
+                    raw = new ArrayList<>(chunkSize);
+                    if (pending.size() >= maxInFlight) {  // 限制在途块数, 读取不会远超写入
+                        write(await(pending.poll()), seenNos, report);
+                    }
+                }
+            }
+            if (!raw.isEmpty()) {
+                pending.add(submit(raw, columns, createdBy));
+            }
+            while (!pending.isEmpty()) {
+                write(await(pending.poll()), seenNos, report);
+            }
+        } finally {
+            pending.forEach(f -> f.cancel(true));
+            long elapsedNanos = Math.max(1, System.nanoTime() - begin);  // 只统计解析和写入, 不含床位图重建
+            report.setElapsedMs(elapsedNanos / 1_000_000);
+            report.setRowsPerSecond(report.getTotal() * 1_000_000_000L / elapsedNanos);
+            if (report.getInserted() > 0) {
+                wardMap.reload();  // 批量变更(含中途失败前已提交的块), 整体重建床位图
+            }
+        }
+
+        log.info("病人批量导入完成: 共 {} 行, 成功 {} 行, 失败 {} 行, 耗时 {} ms, {} 行/秒", report.getTotal(),
+                report.getInserted(), report.getFailed(), report.getElapsedMs(), report.getRowsPerSecond());
+        return report;
+    }
+
+    // ==================== 表头 ====================
+
+    static int[] resolveColumns(String[] header) {
+        Map<String, Column> byName = new HashMap<>();
+        for (Column column : Column.values()) {
+            byName.put(column.field.toLowerCase(), column);
+            byName.put(column.label, column);
+        }
+        int[] indexes = new int[Column.values().length];
+        Arrays.fill(indexes, -1);
+        for (int i = 0; i < header.length; i++) {
+            Column column = byName.get(header[i].trim().toLowerCase());
+            if (column != null && indexes[column.ordinal()] < 0) {
+                indexes[column.ordinal()] = i;
+            }
+        }
+        if (indexes[Column.PATIENT_NO.ordinal()] < 0 || indexes[Column.NAME.ordinal()] < 0) {
+            throw new IllegalArgumentException("表头缺少必需列: 病人编号(patientNo)、姓名(name)");
+        }
+        return indexes;
+    }
+
+    // ==================== 校验(线程池内执行) ====================
+
+    private Future<Chunk> submit(List<RawRow> raw, int[] columns, Long createdBy) {
+        return validators.submit(() -> {
+            List<ValidRow> valid = new ArrayList<>(raw.size());
+            List<ImportReport.RowError> errors = new ArrayList<>();
+            for (RawRow r : raw) {
+                try {
+                    valid.add(new ValidRow(r.row(), parse(r.fields(), columns, createdBy)));
+                } catch (IllegalArgumentException e) {
+                    errors.add(new ImportReport.RowError(r.row(), cell(r.fields(), columns, Column.PATIENT_NO), e.getMessage()));
+                }
+            }
+            return new Chunk(valid, errors);
+        });
+    }
+
+    /** 解析并校验一行, 返回 INSERT_SQL 的参数 */
+    static Object[] parse(String[] record, int[] columns, Long createdBy) {
+        String patientNo = cell(record, columns, Column.PATIENT_NO);
+        String name = cell(record, columns, Column.NAME);
+        if (patientNo == null) {
+            throw new IllegalArgumentException("病人编号不能为空");
+        }
+        if (patientNo.length() > 32 || patientNo.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("病人编号格式错误(不超过32位, 不能含空格)");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("姓名不能为空");
+        }
+        if (name.length() > 64) {
+            throw new IllegalArgumentException("姓名过长");
+        }
+        String idCard = cell(record, columns, Column.ID_CARD);
+        if (idCard != null) {
+            idCard = idCard.toUpperCase();
+            if (!isValidIdCard(idCard)) {
+                throw new IllegalArgumentException("身份证号格式错误: " + idCard);
+            }
+        }
+        String phone = cell(record, columns, Column.PHONE);
+        if (phone != null && !PHONE.matcher(phone).matches()) {
+            throw new IllegalArgumentException("联系电话格式错误: " + phone);
+        }
+        String emergencyPhone = cell(record, columns, Column.EMERGENCY_PHONE);
+        if (emergencyPhone != null && !PHONE.matcher(emergencyPhone).matches()) {
+            throw new IllegalArgumentException("紧急联系电话格式错误: " + emergencyPhone);
+        }
+        return new Object[]{
+                patientNo, name,
+                parseGender(cell(record, columns, Column.GENDER)),
+                parseAge(cell(record, columns, Column.AGE)),
+                idCard, phone,
+                cell(record, columns, Column.EMERGENCY_CONTACT), emergencyPhone,
+                cell(record, columns, Column.ADDRESS),
+                parseDate(cell(record, columns, Column.ADMISSION_DATE)),
+                cell(record, columns, Column.DIAGNOSIS),
+                cell(record, columns, Column.MEDICAL_HISTORY),
+                cell(record, columns, Column.ALLERGY_HISTORY),
+                cell(record, columns, Column.CURRENT_MEDICATION),
+                cell(record, columns, Column.CARE_LEVEL),
+                cell(record, columns, Column.ROOM_NO),
+                cell(record, columns, Column.BED_NO),
+                parseStatus(cell(record, columns, Column.STATUS)),
+                cell(record, columns, Column.REMARKS),
+                createdBy
+        };
+    }
+
+    /** 身份证号: 18位校验最后一位校验码(GB 11643), 兼容15位旧号 */
+    static boolean isValidIdCard(String idCard) {
+        if (ID_CARD_15.matcher(idCard).matches()) {
+            return true;
+        }
+        if (!ID_CARD_18.matcher(idCard).matches()) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (idCard.charAt(i) - '0') * ID_CARD_WEIGHTS[i];
+        }
+        if (ID_CARD_CHECK.charAt(sum % 11) != idCard.charAt(17)) {
+            return false;
+        }
+        try {
+            LocalDate.parse(idCard.substring(6, 14), DateTimeFormatter.BASIC_ISO_DATE);  // 出生日期
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static Integer parseGender(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value) {
+            case "男", "1" -> 1;
+            case "女", "2" -> 2;
+            default -> throw new IllegalArgumentException("性别只能为 男/女 或 1/2: " + value);
+        };
+    }
+
+    private static Integer parseAge(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int age = Integer.parseInt(value);
+            if (age >= 0 && age <= 150) {
+                return age;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面报错
+        }
+        throw new IllegalArgumentException("年龄应为0-150的整数: " + value);
+    }
+
+    private static Timestamp parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            TemporalAccessor parsed = DATE_INPUT.parseBest(value.replace('/', '-'), LocalDateTime::from, LocalDate::from);
+            LocalDateTime dateTime = parsed instanceof LocalDate date ? date.atStartOfDay() : (LocalDateTime) parsed;
+            return Timestamp.valueOf(dateTime);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("入院日期格式错误(yyyy-MM-dd 或 yyyy-MM-dd HH:mm:ss): " + value);
+        }
+    }
+
+    private static Integer parseStatus(String value) {
+        if (value == null) {
+            return 1;  // 默认在院
+        }
+        return switch (value) {
+            case "在院", "1" -> 1;
+            case "出院", "2" -> 2;
+            case "转院", "3" -> 3;
+            default -> throw new IllegalArgumentException("状态只能为 在院/出院/转院 或 1/2/3: " + value);
+        };
+    }
+
+    private static String cell(String[] record, int[] columns, Column column) {
+        int index = columns[column.ordinal()];
+        if (index < 0 || index >= record.length) {
+            return null;
+        }
+        String value = record[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(String[] record) {
+        for (String field : record) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== 写入(调用线程, 按文件顺序) ====================
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("导入被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("校验失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void write(Chunk chunk, Set<String> seenNos, ImportReport report) {
+        report.setTotal(report.getTotal() + chunk.rows().size() + chunk.errors().size());
+        chunk.errors().forEach(error -> addError(report, error));
+
+        if (chunk.rows().isEmpty()) {
+            return;
+        }
+        Set<String> existing = existingPatientNos(chunk.rows());
+        List<ValidRow> rows = new ArrayList<>(chunk.rows().size());
+        for (ValidRow row : chunk.rows()) {
+            if (!seenNos.add(row.patientNo())) {
+                addError(report, new ImportReport.RowError(row.row(), row.patientNo(), "文件内病人编号重复"));
+            } else if (existing.contains(row.patientNo())) {
+                addError(report, new ImportReport.RowError(row.row(), row.patientNo(), "病人编号已存在"));
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = rows.stream().map(ValidRow::values).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, args));
+            report.setInserted(report.getInserted() + rows.size());
+        } catch (DataAccessException e) {
+            // 整块已回滚, 逐行重试以定位出错的行
+            for (ValidRow row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row.values());
+                    report.setInserted(report.getInserted() + 1);
+                } catch (DuplicateKeyException rowError) {  // 检查之后其他请求写入了同一编号
+                    addError(report, new ImportReport.RowError(row.row(), row.patientNo(), "病人编号已存在"));
+                } catch (DataAccessException rowError) {
+                    addError(report, new ImportReport.RowError(row.row(), row.patientNo(),
+                            "写入失败: " + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+
+    /** 一条 IN 查询找出本块中库内已存在的病人编号(走 uk_patient_no), 大多数重复行不必进入逐行重试 */
+    private Set<String> existingPatientNos(List<ValidRow> rows) {
+        String placeholders = String.join(",", Collections.nCopies(rows.size(), "?"));
+        Object[] nos = rows.stream().map(ValidRow::patientNo).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT patient_no FROM patient WHERE patient_no IN (" + placeholders + ")", String.class, nos));
+    }
+
+    private void addError(ImportReport report, ImportReport.RowError error) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(error);
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.hwadee.mybatisplustest.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface AchievementDefinitionMapper extends BaseMapper<AchievementDefinition> {
+}
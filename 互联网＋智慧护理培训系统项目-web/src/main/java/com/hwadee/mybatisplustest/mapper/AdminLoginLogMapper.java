@@ -0,0 +1,25 @@
+package com.hwadee.mybatisplustest.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.hwadee.mybatisplustest.entity.AdminLoginLog;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface AdminLoginLogMapper extends BaseMapper<AdminLoginLog> {
+
+    /**
+     * 批量追加登录日志(一条多行 INSERT)
+     * @return 插入的行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO admin_login_log (admin_id, username, success, ip, user_agent, login_time) VALUES",
+            "<foreach collection='list' item='l' separator=','>",
+            "(#{l.adminId}, #{l.username}, #{l.success}, #{l.ip}, #{l.userAgent}, #{l.loginTime})",
+            "</foreach>",
+            "</script>"})
+    int insertBatch(@Param("list") List<AdminLoginLog> logs);
+}
@@ -3,9 +3,31 @@ package com.hwadee.mybatisplustest.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.hwadee.mybatisplustest.entity.Admin;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Mapper
 public interface AdminMapper extends BaseMapper<Admin> {
+
+    /**
+     * 批量更新最后登录时间(一条 UPDATE ... CASE id 语句)
+     * 只会把时间往后推, 不会被较早的时间覆盖
+     *
+     * @param loginTimes 管理员ID -> 最后登录时间
+     * @return 更新的行数
+     */
+    @Update({"<script>",
+            "UPDATE admin SET last_login_time = CASE id",
+            "<foreach collection='loginTimes' index='id' item='time'>",
+            "WHEN #{id} THEN GREATEST(IFNULL(last_login_time, #{time}), #{time})",
+            "</foreach>",
+            "END WHERE id IN",
+            "<foreach collection='loginTimes' index='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int updateLastLoginTimes(@Param("loginTimes") Map<Long, LocalDateTime> loginTimes);
 }
 
 
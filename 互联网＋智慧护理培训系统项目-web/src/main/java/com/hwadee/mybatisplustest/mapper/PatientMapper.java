@@ -1,11 +1,32 @@
 package com.hwadee.mybatisplustest.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.hwadee.mybatisplustest.entity.Patient;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 @Mapper
 public interface PatientMapper extends BaseMapper<Patient> {
+
+    /**
+     * 流式查询病人(导出用)
+     * fetchSize=Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果集, 不会把全部结果加载到内存
+     * 游标需在事务(或打开的 SqlSession)内遍历
+     *
+     * @param wrapper 查询条件(可带 select 列和排序)
+     * @return 病人游标
+     */
+    @Select({"<script>SELECT",
+            "<choose><when test='ew.sqlSelect != null and ew.sqlSelect != \"\"'>${ew.sqlSelect}</when><otherwise>*</otherwise></choose>",
+            "FROM patient ${ew.customSqlSegment}</script>"})
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Patient> streamPatients(@Param(Constants.WRAPPER) Wrapper<Patient> wrapper);
 }
 
 
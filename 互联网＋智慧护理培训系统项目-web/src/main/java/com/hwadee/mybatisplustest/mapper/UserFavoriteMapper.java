@@ -2,10 +2,34 @@ package com.hwadee.mybatisplustest.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.hwadee.mybatisplustest.entity.UserFavorite;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface UserFavoriteMapper extends BaseMapper<UserFavorite> {
+
+    /**
+     * 插入收藏, 已存在时忽略(依赖唯一键 uk_user_favorite)
+     * @return 1=新增收藏, 0=已经收藏过
+     */
+    @Insert("INSERT IGNORE INTO user_favorite (user_id, article_id, video_id, created_at) "
+            + "VALUES (#{userId}, #{articleId}, #{videoId}, #{createdAt})")
+    int insertIgnore(UserFavorite favorite);
+
+    /**
+     * 批量插入收藏, 已存在的记录忽略
+     * @return 实际新增的行数
+     */
+    @Insert({"<script>",
+            "INSERT IGNORE INTO user_favorite (user_id, article_id, video_id, created_at) VALUES",
+            "<foreach collection='list' item='f' separator=','>",
+            "(#{f.userId}, #{f.articleId}, #{f.videoId}, #{f.createdAt})",
+            "</foreach>",
+            "</script>"})
+    int insertIgnoreBatch(@Param("list") List<UserFavorite> favorites);
 }
 
 
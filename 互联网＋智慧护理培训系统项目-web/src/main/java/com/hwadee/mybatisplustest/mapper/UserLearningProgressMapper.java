@@ -3,9 +3,29 @@ package com.hwadee.mybatisplustest.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.hwadee.mybatisplustest.entity.UserLearningProgress;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.Map;
 
 @Mapper
 public interface UserLearningProgressMapper extends BaseMapper<UserLearningProgress> {
+
+    /**
+     * 流式查询学习记录及所属用户(导出用), 按用户、记录ID排序
+     * fetchSize=Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果集, 游标需在事务内遍历
+     *
+     * @return 每行为 列别名 -> 值
+     */
+    @Select({"SELECT p.id, p.user_id AS userId, u.username, u.department, p.article_id AS articleId,",
+            "p.video_id AS videoId, p.progress_percent AS progressPercent, p.is_completed AS isCompleted,",
+            "p.started_at AS startedAt, p.completed_at AS completedAt, p.last_studied_at AS lastStudiedAt",
+            "FROM user_learning_progress p LEFT JOIN `user` u ON u.id = p.user_id",
+            "ORDER BY p.user_id, p.id"})
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Map<String, Object>> streamProgressWithUser();
 }
 
 
@@ -0,0 +1,266 @@
+package com.hwadee.mybatisplustest.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库版本迁移(替代启动时每次执行 schema.sql)
+ *
+ * 脚本放在 migration.locations(默认 classpath:db/migration), 文件名 V<版本号>__<说明>.sql, 按版本号从小到大执行;
+ * 执行过的版本记录在 schema_history 表(版本、脚本名、SHA-256 校验和、耗时、是否成功).
+ *
+ * 启动流程:
+ * 1. 读取 schema_history(一条 SELECT)与类路径上的脚本比对, 没有待执行脚本时直接返回, 不执行任何 DDL
+ * 2. 有待执行脚本时先取 MySQL 命名锁(GET_LOCK), 防止多个实例同时启动时重复执行; 取锁后重新读取历史表
+ * 3. 逐个执行待执行脚本(语句拆分规则与 spring.sql.init 相同), 每个脚本执行完写入一条历史记录
+ *
+ * 校验规则:
+ * - 已执行的脚本内容被修改(校验和不一致)时启动失败: 上线后的脚本不能再改, 需要变更请新增版本(CRLF/LF 差异不影响校验和)
+ * - 上次执行失败的版本(success=0)启动失败, 需人工确认数据库状态后删除该条历史记录再重启
+ * - 历史表中有、类路径上没有的版本只记录告警
+ *
+ * MySQL 的 DDL 会隐式提交, 脚本失败时无法整体回滚, 因此脚本本身要可重复执行(先查 INFORMATION_SCHEMA 再 ALTER)
+ * 在 @PostConstruct 中执行, 早于各缓存在 ApplicationReadyEvent 时的数据加载
+ */
+@Slf4j
+@Component
+public class SchemaMigrator {
+
+    public static final String HISTORY_TABLE = "schema_history";
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "schema_migration";
+
+    private static final String CREATE_HISTORY = "CREATE TABLE IF NOT EXISTS `" + HISTORY_TABLE + "` (\n"
+            + "  `version` int NOT NULL COMMENT '版本号',\n"
+            + "  `description` varchar(200) DEFAULT NULL COMMENT '说明',\n"
+            + "  `script` varchar(255) NOT NULL COMMENT '脚本文件名',\n"
+            + "  `checksum` char(64) NOT NULL COMMENT '脚本SHA-256(换行统一为LF)',\n"
+            + "  `execution_ms` int DEFAULT NULL COMMENT '执行耗时(毫秒)',\n"
+            + "  `success` tinyint NOT NULL COMMENT '是否成功：1-成功，0-失败',\n"
+            + "  `installed_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '执行时间',\n"
+            + "  PRIMARY KEY (`version`)\n"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='数据库迁移历史表'";
+
+    /** 类路径上的迁移脚本 */
+    record Script(int version, String description, Resource resource, String checksum) {
+    }
+
+    /** 历史表中的一条记录 */
+    record Applied(int version, String checksum, boolean success) {
+    }
+
+    private final DataSource dataSource;
+
+    @Value("${migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${migration.locations:classpath:db/migration}")
+    private String locations;
+
+    @Value("${migration.validate-checksums:true}")
+    private boolean validateChecksums;
+
+    @Value("${migration.lock-timeout-seconds:60}")
+    private int lockTimeoutSeconds;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void migrate() throws SQLException, IOException {
+        if (!enabled) {
+            log.info("数据库迁移已关闭(migration.enabled=false)");
+            return;
+        }
+        List<Script> scripts = loadScripts();
+        if (scripts.isEmpty()) {  // 打包或原生镜像漏掉了脚本资源, 不能当作"已是最新"继续启动
+            throw new IllegalStateException("未找到数据库迁移脚本: " + locations);
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            Map<Integer, Applied> history = readHistory(conn);
+            validate(scripts, history);
+            if (pending(scripts, history).isEmpty()) {
+                log.info("数据库已是最新版本 V{}, 共 {} 个迁移脚本", latestVersion(scripts), scripts.size());
+                return;
+            }
+            lock(conn);
+            try {
+                try (Statement st = conn.createStatement()) {
+                    st.execute(CREATE_HISTORY);
+                }
+                history = readHistory(conn);  // 等锁期间其他实例可能已执行完
+                validate(scripts, history);
+                for (Script script : pending(scripts, history)) {
+                    apply(conn, script);
+                }
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    /** 扫描迁移脚本, 按版本号排序 */
+    List<Script> loadScripts() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(locations + "/*.sql");
+        List<Script> scripts = new ArrayList<>();
+        Map<Integer, String> names = new HashMap<>();
+        for (Resource resource : resources) {
+            String name = resource.getFilename();
+            Matcher m = FILE_NAME.matcher(name == null ? "" : name);
+            if (!m.matches()) {
+                throw new IllegalStateException("迁移脚本文件名应为 V<版本号>__<说明>.sql: " + name);
+            }
+            int version = Integer.parseInt(m.group(1));
+            String previous = names.put(version, name);
+            if (previous != null) {
+                throw new IllegalStateException("迁移脚本版本号重复: " + previous + ", " + name);
+            }
+            scripts.add(new Script(version, m.group(2).replace('_', ' '), resource, checksum(resource)));
+        }
+        scripts.sort(Comparator.comparingInt(Script::version));
+        return scripts;
+    }
+
+    /** 读取历史表, 表不存在时返回空 */
+    Map<Integer, Applied> readHistory(Connection conn) throws SQLException {
+        Map<Integer, Applied> history = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum, success FROM `" + HISTORY_TABLE + "`")) {
+            while (rs.next()) {
+                history.put(rs.getInt(1), new Applied(rs.getInt(1), rs.getString(2), rs.getBoolean(3)));
+            }
+        } catch (SQLException e) {
+            if (!"42S02".equals(e.getSQLState())) {  // 42S02: 表不存在(首次迁移)
+                throw e;
+            }
+        }
+        return history;
+    }
+
+    void validate(List<Script> scripts, Map<Integer, Applied> history) {
+        Map<Integer, Script> byVersion = new HashMap<>();
+        for (Script script : scripts) {
+            byVersion.put(script.version(), script);
+        }
+        for (Applied applied : history.values()) {
+            Script script = byVersion.get(applied.version());
+            if (!applied.success()) {
+                throw new IllegalStateException(String.format(
+                        "数据库迁移 V%d 上次执行失败, 请确认数据库状态后删除 %s 中该版本的记录再重启",
+                        applied.version(), HISTORY_TABLE));
+            }
+            if (script == null) {
+                log.warn("数据库迁移 V{} 已执行, 但类路径上没有对应脚本", applied.version());
+            } else if (validateChecksums && !script.checksum().equals(applied.checksum())) {
+                throw new IllegalStateException(String.format(
+                        "数据库迁移 %s 已执行过, 但脚本内容已被修改(校验和不一致); 已执行的脚本不能修改, 请新增版本",
+                        script.resource().getFilename()));
+            }
+        }
+    }
+
+    static List<Script> pending(List<Script> scripts, Map<Integer, Applied> history) {
+        List<Script> pending = new ArrayList<>();
+        for (Script script : scripts) {
+            if (!history.containsKey(script.version())) {
+                pending.add(script);
+            }
+        }
+        return pending;
+    }
+
+    private void apply(Connection conn, Script script) throws SQLException {
+        String name = script.resource().getFilename();
+        log.info("执行数据库迁移 {}", name);
+        long start = System.nanoTime();
+        try {
+            ScriptUtils.executeSqlScript(conn, new EncodedResource(script.resource(), StandardCharsets.UTF_8));
+        } catch (ScriptException e) {
+            record(conn, script, start, false);
+            throw new IllegalStateException("数据库迁移 " + name + " 执行失败", e);
+        }
+        record(conn, script, start, true);
+        log.info("数据库迁移 {} 完成, 耗时 {}ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void record(Connection conn, Script script, long startNanos, boolean success) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO `" + HISTORY_TABLE
+                + "` (version, description, script, checksum, execution_ms, success) VALUES (?, ?, ?, ?, ?, ?)")) {
+            ps.setInt(1, script.version());
+            ps.setString(2, script.description());
+            ps.setString(3, script.resource().getFilename());
+            ps.setString(4, script.checksum());
+            ps.setLong(5, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            ps.setBoolean(6, success);
+            ps.executeUpdate();
+        }
+    }
+
+    /** MySQL 命名锁, 与连接绑定, 连接关闭时自动释放 */
+    private void lock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, lockTimeoutSeconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("等待数据库迁移锁超时(" + lockTimeoutSeconds + "秒), 可能有其他实例正在执行迁移");
+                }
+            }
+        }
+    }
+
+    private void unlock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private static int latestVersion(List<Script> scripts) {
+        return scripts.isEmpty() ? 0 : scripts.get(scripts.size() - 1).version();
+    }
+
+    /** 脚本内容的 SHA-256, 换行统一为 LF, 避免 Git 换行符转换导致校验失败 */
+    static String checksum(Resource resource) throws IOException {
+        String content;
+        try (InputStream in = resource.getInputStream()) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
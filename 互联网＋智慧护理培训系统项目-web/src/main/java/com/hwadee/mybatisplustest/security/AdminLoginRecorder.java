@@ -0,0 +1,145 @@
+package com.hwadee.mybatisplustest.security;
+
+import com.hwadee.mybatisplustest.entity.AdminLoginLog;
+import com.hwadee.mybatisplustest.mapper.AdminLoginLogMapper;
+import com.hwadee.mybatisplustest.mapper.AdminMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 管理员登录记录器 - 异步合并写入
+ *
+ * 功能说明:
+ * 1. 登录接口只把"最后登录时间"和审计日志放入内存, 立即返回, 不在登录路径上写库
+ * 2. 最后登录时间按管理员合并: 同一管理员多次登录只保留最新时间,
+ *    定时用一条 UPDATE ... CASE id 语句批量写入
+ * 3. 审计日志追加到 admin_login_log 表, 定时用一条多行 INSERT 批量写入
+ * 4. 停机时执行最后一次刷新
+ *
+ * 注意: 审计队列有界(login.record.audit-queue-size), 写库长时间失败导致队列满时丢弃新日志并计数
+ */
+@Slf4j
+@Component
+public class AdminLoginRecorder {
+
+    /** 单次写入的最大日志条数 */
+    private static final int BATCH_SIZE = 500;
+
+    @Resource
+    private AdminMapper adminMapper;  // 管理员数据访问层
+
+    @Resource
+    private AdminLoginLogMapper loginLogMapper;  // 登录日志数据访问层
+
+    private final ConcurrentHashMap<Long, LocalDateTime> lastLoginTimes = new ConcurrentHashMap<>();  // 待写入的最后登录时间
+    private final BlockingQueue<AdminLoginLog> auditQueue;  // 待写入的审计日志
+    private final LongAdder droppedLogs = new LongAdder();  // 队列满时丢弃的日志数
+
+    public AdminLoginRecorder(@Value("${login.record.audit-queue-size:10000}") int auditQueueSize) {
+        this.auditQueue = new ArrayBlockingQueue<>(auditQueueSize);
+    }
+
+    /**
+     * 记录一次登录尝试(不阻塞)
+     *
+     * @param adminId 管理员ID, 登录失败时为null
+     * @param username 登录用户名
+     * @param success 是否登录成功
+     * @param ip 客户端IP
+     * @param userAgent 客户端 User-Agent
+     */
+    public void record(Long adminId, String username, boolean success, String ip, String userAgent) {
+        LocalDateTime now = LocalDateTime.now();
+        if (success && adminId != null) {
+            lastLoginTimes.merge(adminId, now, (a, b) -> a.isAfter(b) ? a : b);  // 只保留最新时间
+        }
+        AdminLoginLog entry = new AdminLoginLog();
+        entry.setAdminId(adminId);
+        entry.setUsername(truncate(username, 64));
+        entry.setSuccess(success ? 1 : 0);
+        entry.setIp(truncate(ip, 64));
+        entry.setUserAgent(truncate(userAgent, 255));
+        entry.setLoginTime(now);
+        if (!auditQueue.offer(entry)) {
+            droppedLogs.increment();
+        }
+    }
+
+    /**
+     * 刷新到数据库
+     * 默认每秒执行一次, 可通过 login.record.flush-interval-ms 调整
+     */
+    @Scheduled(fixedDelayString = "${login.record.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        flushLastLoginTimes();
+        flushAuditLogs();
+    }
+
+    /** 停机前写入剩余数据 */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long dropped = droppedLogs.sum();
+        if (dropped > 0) {
+            log.warn("运行期间共丢弃 {} 条管理员登录日志(队列已满)", dropped);
+        }
+    }
+
+    private void flushLastLoginTimes() {
+        if (lastLoginTimes.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long adminId : lastLoginTimes.keySet()) {
+            LocalDateTime time = lastLoginTimes.remove(adminId);
+            if (time != null) {
+                batch.put(adminId, time);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            adminMapper.updateLastLoginTimes(batch);
+        } catch (Exception e) {
+            log.warn("批量更新管理员最后登录时间失败, 下次重试: {}", e.getMessage());
+            batch.forEach((id, time) -> lastLoginTimes.merge(id, time, (a, b) -> a.isAfter(b) ? a : b));
+        }
+    }
+
+    private void flushAuditLogs() {
+        List<AdminLoginLog> batch = new ArrayList<>(Math.min(BATCH_SIZE, auditQueue.size()));
+        while (auditQueue.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                loginLogMapper.insertBatch(batch);
+            } catch (Exception e) {
+                log.warn("写入管理员登录日志失败, 下次重试: {}", e.getMessage());
+                for (AdminLoginLog entry : batch) {
+                    if (!auditQueue.offer(entry)) {
+                        droppedLogs.increment();
+                    }
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hwadee.mybatisplustest.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 登录 Token 服务 - 统一签发、校验、注销入口
+ *
+ * 支持两种模式(session.mode):
+ * - store: 随机 Token + 内存会话表(SessionStore), 可随时注销, 默认模式
+ * - signed: HMAC 签名的无状态 Token(SignedTokenCodec), 校验为纯 CPU 计算,
+ *           多实例之间无需共享会话, 但注销后 Token 在过期前仍然有效
+ *
+ * 签名密钥配置 session.signing-keys: "kid:Base64密钥,kid:Base64密钥", 第一个用于签发,
+ * 其余仅用于校验. 轮换时在最前面加入新密钥, 待旧 Token 全部过期后再删除旧密钥.
+ * 未配置密钥时启动随机生成一个(仅单实例可用, 重启后旧 Token 失效)
+ */
+@Slf4j
+@Component
+public class AuthTokenService {
+
+    @Resource
+    private SessionStore sessionStore;
+
+    @Value("${session.mode:store}")
+    private String mode;
+
+    @Value("${session.signing-keys:}")
+    private String signingKeys;
+
+    @Value("${session.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    private SignedTokenCodec codec;  // 仅 signed 模式下创建
+
+    @PostConstruct
+    public void init() {
+        if (!isSigned()) {
+            return;
+        }
+        Map<String, byte[]> keys = parseKeys(signingKeys);
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            keys.put("local", secret);
+            log.warn("未配置 session.signing-keys, 已随机生成签名密钥, 多实例之间的 Token 将无法互认");
+        }
+        codec = new SignedTokenCodec(keys, ttlMinutes * 60_000L);
+        log.info("登录 Token 使用签名模式, 签发密钥: {}, 可校验密钥数: {}", codec.activeKid(), keys.size());
+    }
+
+    /**
+     * 签发 Token
+     */
+    public String issue(Long userId, String username, String role, String userType) {
+        return isSigned()
+                ? codec.issue(userId, username, role, userType)
+                : sessionStore.create(userId, username, role, userType);
+    }
+
+    /**
+     * 校验 Token
+     *
+     * @return 登录主体, 无效或过期返回null
+     */
+    public SessionPrincipal verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        return isSigned() ? codec.verify(token) : sessionStore.validate(token);
+    }
+
+    /** 注销 Token(签名模式下无服务端状态, 不做处理) */
+    public void revoke(String token) {
+        if (!isSigned()) {
+            sessionStore.invalidate(token);
+        }
+    }
+
+    public boolean isSigned() {
+        return "signed".equalsIgnoreCase(mode);
+    }
+
+    /** 解析 "kid:Base64密钥,kid:Base64密钥" */
+    private static Map<String, byte[]> parseKeys(String value) {
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return keys;
+        }
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("签名密钥格式应为 kid:Base64密钥");
+            }
+            byte[] secret = Base64.getDecoder().decode(trimmed.substring(colon + 1).getBytes(StandardCharsets.US_ASCII));
+            if (secret.length < 32) {
+                log.warn("签名密钥 {} 长度不足32字节, 建议使用更长的随机密钥", trimmed.substring(0, colon));
+            }
+            keys.put(trimmed.substring(0, colon), secret);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,145 @@
+package com.hwadee.mybatisplustest.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录凭证校验器 - 带"最近校验通过"缓存
+ *
+ * 功能说明:
+ * 1. 调用 PasswordHasher 做 PBKDF2 校验, 记录校验次数、缓存命中次数和哈希耗费的 CPU 时间
+ * 2. 校验通过后把 HMAC(用户名, 密码, 数据库哈希) 放入有界 LRU 缓存,
+ *    换班等时段同一账号短时间内重复登录时直接命中, 不再重复计算 PBKDF2
+ * 3. 缓存键包含数据库中的哈希值, 修改密码后旧缓存自然失效; 只缓存成功的校验
+ *
+ * 安全说明:
+ * - 缓存中不保存明文, HMAC 密钥为进程启动时随机生成, 不落盘
+ * - 缓存条目在 password.verify-cache.ttl-seconds 后过期
+ *
+ * 配置项:
+ * - password.verify-cache.max-size: 缓存条目上限, 默认10000, 0表示关闭缓存
+ * - password.verify-cache.ttl-seconds: 缓存有效期(秒), 默认900
+ */
+@Component
+public class CredentialVerifier {
+
+    private static final String CACHE_KEY_ALGORITHM = "HmacSHA256";
+
+    private final PasswordHasher passwordHasher;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final SecretKeySpec cacheKey;
+    private final ThreadLocal<Mac> mac;
+
+    /** 缓存键 -> 过期时间, 访问顺序 LRU */
+    private final LinkedHashMap<String, Long> verified;
+
+    private final LongAdder verifications = new LongAdder();  // 校验总次数
+    private final LongAdder cacheHits = new LongAdder();      // 缓存命中次数
+    private final LongAdder kdfCount = new LongAdder();       // PBKDF2 计算次数
+    private final LongAdder kdfCpuNanos = new LongAdder();    // PBKDF2 累计 CPU 时间
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    public CredentialVerifier(PasswordHasher passwordHasher,
+                              @Value("${password.verify-cache.max-size:10000}") int maxSize,
+                              @Value("${password.verify-cache.ttl-seconds:900}") long ttlSeconds) {
+        this.passwordHasher = passwordHasher;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.cacheKey = new SecretKeySpec(secret, CACHE_KEY_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.verified = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > CredentialVerifier.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 校验凭证
+     *
+     * @param username 用户名
+     * @param rawPassword 用户输入的密码
+     * @param stored 数据库中保存的哈希(用户不存在时传null)
+     * @return 是否校验通过
+     */
+    public boolean verify(String username, String rawPassword, String stored) {
+        verifications.increment();
+        String key = null;
+        if (maxSize > 0 && stored != null && rawPassword != null) {
+            key = cacheKey(username, rawPassword, stored);
+            long now = System.currentTimeMillis();
+            synchronized (verified) {
+                Long expiresAt = verified.get(key);
+                if (expiresAt != null) {
+                    if (expiresAt > now) {
+                        cacheHits.increment();
+                        return true;
+                    }
+                    verified.remove(key);
+                }
+            }
+        }
+
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
+        boolean ok = passwordHasher.matches(rawPassword, stored);
+        kdfCpuNanos.add(Math.max(0, threadBean.getCurrentThreadCpuTime() - cpuStart));
+        kdfCount.increment();
+
+        if (ok && key != null && passwordHasher.isHashed(stored)) {  // 历史明文不缓存, 登录后会升级为哈希
+            synchronized (verified) {
+                verified.put(key, System.currentTimeMillis() + ttlMillis);
+            }
+        }
+        return ok;
+    }
+
+    /** 校验统计: 校验次数、缓存命中、PBKDF2 次数与平均 CPU 耗时 */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long kdf = kdfCount.sum();
+        stats.put("verifications", verifications.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("kdfCount", kdf);
+        stats.put("kdfCpuMillis", kdfCpuNanos.sum() / 1_000_000);
+        stats.put("kdfAvgCpuMicros", kdf == 0 ? 0 : kdfCpuNanos.sum() / kdf / 1_000);
+        synchronized (verified) {
+            stats.put("cacheSize", verified.size());
+        }
+        return stats;
+    }
+
+    private String cacheKey(String username, String rawPassword, String stored) {
+        Mac m = mac.get();
+        m.update(String.valueOf(username).getBytes(StandardCharsets.UTF_8));
+        m.update((byte) 0);
+        m.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+        m.update((byte) 0);
+        return Base64.getEncoder().encodeToString(m.doFinal(stored.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance(CACHE_KEY_ALGORITHM);
+            m.init(cacheKey);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化 " + CACHE_KEY_ALGORITHM + " 失败", e);
+        }
+    }
+}
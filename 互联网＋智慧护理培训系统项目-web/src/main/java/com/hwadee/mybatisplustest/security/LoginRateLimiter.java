@@ -0,0 +1,150 @@
+package com.hwadee.mybatisplustest.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录限流器 - 按用户名和客户端IP的令牌桶
+ *
+ * 功能说明:
+ * 1. 每次登录尝试同时消耗"用户名桶"和"IP桶"各一个令牌, 任一不足即拒绝,
+ *    在登录接口最前面调用, 被拒绝的请求不会查询数据库
+ * 2. 用户名桶较小: 防止脚本对单个账号反复试密码
+ * 3. IP桶较大: 医院内网多名护士经同一出口IP登录, 换班高峰不会被误伤
+ *
+ * 实现说明:
+ * - 分段(striped)令牌桶: 键按哈希落到固定数量的槽位, 内存固定、无需清理; 冲突的键共享同一个桶
+ * - 每个槽位只保存一个 long(理论到达时间, GCRA 算法, 与令牌桶等价), 用 CAS 无锁补充和扣减
+ *
+ * 配置项(login.rate-limit.*):
+ * - user-capacity / user-per-minute: 用户名桶容量 / 每分钟补充令牌数, 默认 10 / 10
+ * - ip-capacity / ip-per-minute: IP桶容量 / 每分钟补充令牌数, 默认 300 / 600
+ * - stripes: 每种桶的槽位数(2的幂), 默认4096
+ * - trust-forwarded-for: 是否信任 X-Forwarded-For(仅在反向代理之后开启), 默认false
+ * - trusted-proxies: 应用前面的可信代理层数, 默认1; 从 X-Forwarded-For 右侧数第 N 个地址为客户端IP
+ */
+@Component
+public class LoginRateLimiter {
+
+    /** 分段令牌桶 */
+    static final class StripedTokenBucket {
+        private static final long ORIGIN = System.nanoTime();
+
+        private final AtomicLongArray tat;  // 每个槽位的理论到达时间(纳秒, 相对 ORIGIN)
+        private final int mask;
+        private final long emissionNanos;   // 生成一个令牌所需时间
+        private final long burstNanos;      // 容量对应的时间窗口
+
+        StripedTokenBucket(int stripes, int capacity, int perMinute) {
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;  // 向上取2的幂
+            this.tat = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.emissionNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = emissionNanos * Math.max(1, capacity);
+        }
+
+        boolean tryAcquire(Object key) {
+            int h = key.hashCode();
+            int index = (h ^ (h >>> 16)) & mask;
+            long now = System.nanoTime() - ORIGIN;
+            while (true) {
+                long current = tat.get(index);
+                long next = Math.max(current, now) + emissionNanos;
+                if (next - now > burstNanos) {
+                    return false;  // 令牌不足
+                }
+                if (tat.compareAndSet(index, current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /** 归还一个令牌(另一个桶拒绝时撤销本次扣减, 竞争失败则放弃, 只会更严格) */
+        void release(Object key) {
+            int h = key.hashCode();
+            int index = (h ^ (h >>> 16)) & mask;
+            long current = tat.get(index);
+            tat.compareAndSet(index, current, current - emissionNanos);
+        }
+    }
+
+    private final StripedTokenBucket userBuckets;
+    private final StripedTokenBucket ipBuckets;
+    private final boolean trustForwardedFor;
+    private final int trustedProxies;
+
+    private final LongAdder allowed = new LongAdder();         // 放行次数
+    private final LongAdder rejectedByUser = new LongAdder();  // 因用户名桶拒绝次数
+    private final LongAdder rejectedByIp = new LongAdder();    // 因IP桶拒绝次数
+
+    public LoginRateLimiter(@Value("${login.rate-limit.user-capacity:10}") int userCapacity,
+                            @Value("${login.rate-limit.user-per-minute:10}") int userPerMinute,
+                            @Value("${login.rate-limit.ip-capacity:300}") int ipCapacity,
+                            @Value("${login.rate-limit.ip-per-minute:600}") int ipPerMinute,
+                            @Value("${login.rate-limit.stripes:4096}") int stripes,
+                            @Value("${login.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                            @Value("${login.rate-limit.trusted-proxies:1}") int trustedProxies) {
+        this.userBuckets = new StripedTokenBucket(stripes, userCapacity, userPerMinute);
+        this.ipBuckets = new StripedTokenBucket(stripes, ipCapacity, ipPerMinute);
+        this.trustForwardedFor = trustForwardedFor;
+        this.trustedProxies = Math.max(1, trustedProxies);
+    }
+
+    /**
+     * 尝试登录前调用
+     *
+     * @param username 登录用户名(为空时只按IP限流)
+     * @param request HTTP请求, 用于获取客户端IP
+     * @return true-放行, false-超过限制应直接拒绝
+     */
+    public boolean tryAcquire(String username, HttpServletRequest request) {
+        String ip = clientIp(request);
+        if (!ipBuckets.tryAcquire(ip)) {
+            rejectedByIp.increment();
+            return false;
+        }
+        if (username != null && !username.isEmpty() && !userBuckets.tryAcquire(username.toLowerCase())) {
+            ipBuckets.release(ip);
+            rejectedByUser.increment();
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    /** 限流统计 */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedByUser", rejectedByUser.sum());
+        stats.put("rejectedByIp", rejectedByIp.sum());
+        return stats;
+    }
+
+    /**
+     * 客户端IP
+     * trust-forwarded-for 开启时取 X-Forwarded-For 右侧数第 trusted-proxies 个地址:
+     * 每层代理把连接它的地址追加到最右侧, 左侧的地址可由客户端伪造, 取最左侧会让攻击者每次换一个IP绕过IP桶;
+     * 地址数少于代理层数时取最左侧(全部由可信代理追加)
+     */
+    public String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String[] hops = forwarded.split(",");
+                String ip = hops[Math.max(0, hops.length - trustedProxies)].trim();
+                if (!ip.isEmpty()) {
+                    return ip;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
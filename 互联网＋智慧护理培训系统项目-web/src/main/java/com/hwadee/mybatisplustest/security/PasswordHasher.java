@@ -0,0 +1,113 @@
+package com.hwadee.mybatisplustest.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 密码哈希工具(PBKDF2-HMAC-SHA256, 加盐 + 可调迭代次数)
+ *
+ * 存储格式: pbkdf2$迭代次数$Base64(盐)$Base64(哈希)
+ *
+ * 功能说明:
+ * 1. 注册/创建用户/修改密码时生成加盐哈希, 数据库不再保存明文
+ * 2. 校验在 Java 中完成: 先按用户名查出哈希, 再用相同盐和迭代次数重新计算后常量时间比较
+ * 3. 兼容旧数据: 不是 pbkdf2$ 开头的值视为历史明文密码, 校验通过后由调用方升级为哈希
+ * 4. 迭代次数可通过 password.pbkdf2-iterations 调高, 旧哈希在下次登录时自动升级
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    /** 用户不存在时参与计算的假哈希, 使不存在与密码错误的耗时一致 */
+    private final String dummyHash;
+
+    public PasswordHasher(@Value("${password.pbkdf2-iterations:210000}") int iterations) {
+        this.iterations = iterations;
+        this.dummyHash = hash("dummy-password");
+    }
+
+    /** 生成加盐哈希 */
+    public String hash(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + '$' + encoder.encodeToString(salt) + '$' + encoder.encodeToString(hash);
+    }
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword 用户输入的密码
+     * @param stored 数据库中保存的值(哈希或历史明文), 为null时按假哈希计算后返回false
+     */
+    public boolean matches(String rawPassword, String stored) {
+        if (rawPassword == null) {
+            return false;
+        }
+        if (stored == null) {
+            matches(rawPassword, dummyHash);
+            return false;
+        }
+        if (!isHashed(stored)) {  // 历史明文密码
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            byte[] actual = pbkdf2(rawPassword, salt, Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {  // 格式损坏
+            return false;
+        }
+    }
+
+    /** 是否为本工具生成的哈希格式 */
+    public boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /** 是否需要升级(历史明文或迭代次数低于当前配置) */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("密码哈希计算失败", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
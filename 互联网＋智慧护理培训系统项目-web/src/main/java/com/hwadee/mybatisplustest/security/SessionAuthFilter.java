@@ -0,0 +1,89 @@
+package com.hwadee.mybatisplustest.security;
+
+import com.alibaba.fastjson2.JSON;
+import com.hwadee.mybatisplustest.common.CommonResult;
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * 登录 Token 校验过滤器
+ *
+ * 功能说明:
+ * 1. 从请求头 Authorization: Bearer xxx 或 token: xxx 中读取 Token
+ * 2. 通过 AuthTokenService 校验(会话表 O(1) 查找或签名校验), 不访问数据库
+ * 3. 校验通过后把登录主体放入请求属性 PRINCIPAL_ATTRIBUTE, 供后续接口读取
+ * 4. session.enforce=true 时, 未登录访问非白名单接口直接返回 401
+ *    (默认 false, 仅解析 Token 不拦截, 兼容尚未携带 Token 的旧客户端)
+ */
+@Component
+public class SessionAuthFilter extends OncePerRequestFilter {
+
+    /** 请求属性名: 当前登录主体(SessionPrincipal) */
+    public static final String PRINCIPAL_ATTRIBUTE = "sessionPrincipal";
+
+    /** 无需登录的接口前缀 */
+    private static final String[] PUBLIC_PREFIXES = {"/auth/"};
+
+    /** 无需登录的接口(完整路径匹配, /admin/login-limiter/stats 等同前缀的接口仍需登录) */
+    private static final Set<String> PUBLIC_PATHS = Set.of("/admin/login");
+
+    @Resource
+    private AuthTokenService authTokenService;
+
+    @Value("${session.enforce:false}")
+    private boolean enforce;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SessionPrincipal principal = authTokenService.verify(resolveToken(request));
+        if (principal != null) {
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        } else if (enforce && !isPublic(request)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            CommonResult<Object> body = new CommonResult<>("401", "未登录或登录已过期", null);
+            response.getOutputStream().write(JSON.toJSONBytes(body));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** 读取请求中的 Token */
+    public static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7).trim();
+        }
+        return request.getHeader("token");
+    }
+
+    private boolean isPublic(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {  // 跨域预检请求
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (PUBLIC_PATHS.contains(path)) {
+            return true;
+        }
+        for (String prefix : PUBLIC_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
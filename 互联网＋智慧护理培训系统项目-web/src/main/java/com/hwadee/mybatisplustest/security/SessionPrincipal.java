@@ -0,0 +1,18 @@
+package com.hwadee.mybatisplustest.security;
+
+/**
+ * 登录会话主体 - Token 对应的登录用户信息
+ *
+ * @param userId 用户ID(管理员为 adminId)
+ * @param username 用户名
+ * @param role 角色: nurse/doctor/guest/admin
+ * @param userType 用户类型: staff/guest/admin
+ * @param expiresAt 过期时间(毫秒时间戳)
+ */
+public record SessionPrincipal(Long userId, String username, String role, String userType, long expiresAt) {
+
+    /** 是否已过期 */
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,210 @@
+package com.hwadee.mybatisplustest.security;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录会话存储 - 内存 Token 表
+ *
+ * 功能说明:
+ * 1. 登录时生成随机 Token 并保存 Token -> 登录主体 的映射
+ * 2. 校验 Token 只需一次哈希查找 O(1), 不访问数据库
+ * 3. 过期清理使用时间轮: 按过期时间把 Token 放入对应槽位, 定时器每个刻度只扫描一个槽位,
+ *    不为每个会话单独创建定时任务
+ * 4. 可选持久化: 配置 session.store-file 后, 停机时写入本地文件、启动时读回, 重启不掉登录
+ *
+ * 配置项:
+ * - session.ttl-minutes: 会话有效期(分钟), 默认720
+ * - session.tick-ms: 时间轮刻度(毫秒), 默认60000
+ * - session.store-file: 持久化文件路径, 为空表示不持久化
+ */
+@Slf4j
+@Component
+public class SessionStore {
+
+    /** 时间轮槽位数 */
+    private static final int WHEEL_SIZE = 64;
+
+    private final ConcurrentHashMap<String, SessionPrincipal> sessions = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Set<String>[] wheel = new Set[WHEEL_SIZE];
+    private long cursorTick;  // 已清理到的刻度
+
+    @Value("${session.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    @Value("${session.tick-ms:60000}")
+    private long tickMillis;
+
+    @Value("${session.store-file:}")
+    private String storeFile;
+
+    public SessionStore() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * 创建会话
+     *
+     * @return 新生成的 Token
+     */
+    public String create(Long userId, String username, String role, String userType) {
+        String token = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + ttlMinutes * 60_000L;
+        put(token, new SessionPrincipal(userId, username, role, userType, expiresAt));
+        return token;
+    }
+
+    /**
+     * 校验 Token
+     *
+     * @return 登录主体, Token 不存在或已过期返回null
+     */
+    public SessionPrincipal validate(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        SessionPrincipal principal = sessions.get(token);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.isExpired(System.currentTimeMillis())) {  // 已过期但尚未被时间轮清理
+            sessions.remove(token, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    /** 注销会话 */
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);  // 时间轮中的残留 Token 会在清理时跳过
+        }
+    }
+
+    /** 当前会话数 */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 时间轮推进: 每个刻度清理一个槽位中已过期的 Token
+     * 未到期(过期时间在之后若干圈)的 Token 保留在槽位中, 下一圈再检查
+     */
+    @Scheduled(fixedRateString = "${session.tick-ms:60000}")
+    public void advance() {
+        long now = System.currentTimeMillis();
+        long nowTick = now / tickMillis;
+        long from = Math.max(cursorTick + 1, nowTick - WHEEL_SIZE + 1);  // 最多转一圈
+        for (long tick = from; tick <= nowTick; tick++) {
+            Set<String> slot = wheel[(int) (tick % WHEEL_SIZE)];
+            slot.removeIf(token -> {
+                SessionPrincipal principal = sessions.get(token);
+                if (principal == null) {
+                    return true;  // 已注销
+                }
+                if (principal.isExpired(now)) {
+                    sessions.remove(token, principal);
+                    return true;
+                }
+                return false;
+            });
+        }
+        cursorTick = nowTick;
+    }
+
+    // ==================== 持久化 ====================
+
+    /** 启动时从文件恢复未过期的会话 */
+    @PostConstruct
+    public void load() {
+        cursorTick = System.currentTimeMillis() / tickMillis;
+        Path path = storePath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            JSONArray array = JSON.parseArray(Files.readString(path, StandardCharsets.UTF_8));
+            int restored = 0;
+            for (int i = 0; i < array.size(); i++) {
+                JSONObject item = array.getJSONObject(i);
+                SessionPrincipal principal = new SessionPrincipal(
+                        item.getLong("userId"), item.getString("username"), item.getString("role"),
+                        item.getString("userType"), item.getLongValue("expiresAt"));
+                if (!principal.isExpired(now)) {
+                    put(item.getString("token"), principal);
+                    restored++;
+                }
+            }
+            log.info("已从 {} 恢复 {} 个登录会话", path, restored);
+        } catch (Exception e) {
+            log.warn("恢复登录会话失败: {}", e.getMessage());
+        }
+    }
+
+    /** 停机时将未过期的会话写入文件(先写临时文件再原子替换) */
+    @PreDestroy
+    public void save() {
+        Path path = storePath();
+        if (path == null) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            List<Map<String, Object>> items = new ArrayList<>(sessions.size());
+            sessions.forEach((token, principal) -> {
+                if (!principal.isExpired(now)) {
+                    JSONObject item = new JSONObject();
+                    item.put("token", token);
+                    item.put("userId", principal.userId());
+                    item.put("username", principal.username());
+                    item.put("role", principal.role());
+                    item.put("userType", principal.userType());
+                    item.put("expiresAt", principal.expiresAt());
+                    items.add(item);
+                }
+            });
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(tmp, JSON.toJSONString(items), StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("已保存 {} 个登录会话到 {}", items.size(), path);
+        } catch (Exception e) {
+            log.warn("保存登录会话失败: {}", e.getMessage());
+        }
+    }
+
+    private void put(String token, SessionPrincipal principal) {
+        sessions.put(token, principal);
+        wheel[(int) ((principal.expiresAt() / tickMillis) % WHEEL_SIZE)].add(token);
+    }
+
+    private Path storePath() {
+        return storeFile == null || storeFile.isBlank() ? null : Paths.get(storeFile);
+    }
+}
@@ -0,0 +1,163 @@
+package com.hwadee.mybatisplustest.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 无状态签名 Token 编解码器(HMAC-SHA256)
+ *
+ * Token 格式: kid.payload.signature
+ * - kid: 签名密钥编号, 用于密钥轮换
+ * - payload: Base64URL(userId \n username \n role \n userType \n expiresAt)
+ * - signature: Base64URL(HMAC-SHA256(kid.payload))
+ *
+ * 功能说明:
+ * 1. 校验只做一次 HMAC 计算和常量时间比较, 不查数据库也不查会话表,
+ *    多实例部署时只要共享密钥即可互相认可 Token
+ * 2. Mac 对象按线程缓存(ThreadLocal), 避免每次校验都 Mac.getInstance
+ * 3. 密钥环: 第一个密钥用于签发, 其余密钥仅用于校验;
+ *    轮换时在配置中把新密钥放在最前面并逐个实例重启, 旧 Token 在过期前仍然有效
+ *
+ * 注意: 签名 Token 无法在服务端单独作废, 注销只能依赖客户端丢弃 Token 和过期时间
+ */
+public class SignedTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** 单个签名密钥, 每个密钥持有自己的线程级 Mac 缓存 */
+    private static final class SigningKey {
+        final String kid;
+        final ThreadLocal<Mac> mac;
+
+        SigningKey(String kid, byte[] secret) {
+            this.kid = kid;
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac m = Mac.getInstance(ALGORITHM);
+                    m.init(spec);
+                    return m;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("初始化 " + ALGORITHM + " 失败", e);
+                }
+            });
+        }
+
+        byte[] sign(byte[] data) {
+            return mac.get().doFinal(data);  // doFinal 后 Mac 自动重置, 可直接复用
+        }
+    }
+
+    /** 密钥环: 签发密钥 + 全部可校验密钥 */
+    private record KeyRing(SigningKey active, Map<String, SigningKey> keys) {
+    }
+
+    private final KeyRing keyRing;
+    private final long ttlMillis;
+
+    /**
+     * @param keys 密钥列表(kid -> 密钥字节), 按顺序第一个为签发密钥
+     * @param ttlMillis Token 有效期(毫秒)
+     */
+    public SignedTokenCodec(Map<String, byte[]> keys, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.keyRing = buildRing(keys);
+    }
+
+    /**
+     * 签发 Token
+     */
+    public String issue(Long userId, String username, String role, String userType) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        String payload = field(userId == null ? "" : userId.toString()) + '\n'
+                + field(username) + '\n' + field(role) + '\n' + field(userType) + '\n' + expiresAt;
+        SigningKey key = keyRing.active();
+        String signingInput = key.kid + '.' + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = key.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * 校验 Token
+     *
+     * @return 登录主体, 格式错误、签名不符、密钥未知或已过期返回null
+     */
+    public SessionPrincipal verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+        SigningKey key = keyRing.keys().get(token.substring(0, first));
+        if (key == null) {
+            return null;  // 未知或已下线的密钥
+        }
+        try {
+            byte[] expected = key.sign(token.substring(0, second).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = DECODER.decode(token.substring(second + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(token.substring(first + 1, second)), StandardCharsets.UTF_8)
+                    .split("\n", -1);
+            if (fields.length != 5) {
+                return null;
+            }
+            SessionPrincipal principal = new SessionPrincipal(
+                    fields[0].isEmpty() ? null : Long.valueOf(fields[0]),
+                    fields[1], fields[2], fields[3], Long.parseLong(fields[4]));
+            return principal.isExpired(System.currentTimeMillis()) ? null : principal;
+        } catch (IllegalArgumentException e) {  // Base64 或数字格式错误
+            return null;
+        }
+    }
+
+    /** 当前签发密钥编号 */
+    public String activeKid() {
+        return keyRing.active().kid;
+    }
+
+    private static KeyRing buildRing(Map<String, byte[]> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个签名密钥");
+        }
+        Map<String, SigningKey> ring = new LinkedHashMap<>();
+        SigningKey active = null;
+        for (Map.Entry<String, byte[]> entry : keys.entrySet()) {
+            SigningKey key = new SigningKey(checkKid(entry.getKey()), entry.getValue());
+            ring.put(key.kid, key);
+            if (active == null) {
+                active = key;
+            }
+        }
+        return new KeyRing(active, Map.copyOf(ring));
+    }
+
+    private static String checkKid(String kid) {
+        if (kid == null || kid.isEmpty() || kid.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("密钥编号不能为空且不能包含'.': " + kid);
+        }
+        return kid;
+    }
+
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Token 字段不能包含换行符");
+        }
+        return value;
+    }
+}
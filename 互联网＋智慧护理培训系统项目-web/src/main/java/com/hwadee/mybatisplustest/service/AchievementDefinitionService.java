@@ -0,0 +1,7 @@
+package com.hwadee.mybatisplustest.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
+
+public interface AchievementDefinitionService extends IService<AchievementDefinition> {
+}
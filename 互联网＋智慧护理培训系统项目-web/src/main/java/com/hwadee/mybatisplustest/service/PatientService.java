@@ -1,9 +1,40 @@
 package com.hwadee.mybatisplustest.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.hwadee.mybatisplustest.entity.Patient;
+import com.hwadee.mybatisplustest.export.RowWriter;
+
+import java.io.IOException;
+import java.util.Set;
 
 public interface PatientService extends IService<Patient> {
-}
 
+    /**
+     * 构造病人搜索条件, 关键词条件整体加括号后再与状态条件 AND
+     * - 纯数字: 电话前缀 OR 病人编号前缀(均走B树索引)
+     * - 字母数字: 病人编号前缀 OR 姓名前缀
+     * - 含中文: 两个字及以上走姓名 ngram 全文索引, 单字走姓名前缀
+     * 结果按入院日期、ID降序
+     */
+    LambdaQueryWrapper<Patient> searchWrapper(String keyword, Integer status);
 
+    /**
+     * 导出病人花名册, 条件与列表查询相同
+     * 通过数据库游标逐行写出, 内存占用与数据量无关
+     *
+     * @param writer 行写出器, 由调用方负责关闭
+     * @return 导出行数
+     */
+    long exportPatients(String keyword, Integer status, RowWriter writer) throws IOException;
+
+    /**
+     * 局部更新(PATCH): 只写入请求中出现的字段, 按版本号做乐观锁校验, 不先查询整条记录
+     *
+     * @param changes 请求体转换的实体
+     * @param fields 请求体中出现的属性名
+     * @return true-更新成功, false-病人不存在或已被他人修改
+     * @throws IllegalArgumentException 没有可更新的字段
+     */
+    boolean patch(Long id, int version, Patient changes, Set<String> fields);
+}
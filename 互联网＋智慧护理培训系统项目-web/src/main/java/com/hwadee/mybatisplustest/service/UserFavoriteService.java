@@ -3,7 +3,31 @@ package com.hwadee.mybatisplustest.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.hwadee.mybatisplustest.entity.UserFavorite;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserFavoriteService extends IService<UserFavorite> {
+
+    /**
+     * 添加收藏(幂等), 单条 INSERT IGNORE, 不先查询
+     * @return true=新增收藏, false=已经收藏过
+     */
+    boolean addFavorite(Long userId, Long articleId, Long videoId);
+
+    /**
+     * 取消收藏, 单条 DELETE
+     * 文章ID和视频ID至少需要一个, 否则抛出 IllegalArgumentException(不允许按用户删除全部收藏)
+     * @return 删除的行数
+     */
+    int removeFavorite(Long userId, Long articleId, Long videoId);
+
+    /**
+     * 批量同步收藏(离线客户端), 新增部分一条批量 INSERT IGNORE, 删除部分一条 DELETE ... IN
+     * @return {"added": 新增数, "removed": 删除数}
+     */
+    Map<String, Integer> syncFavorites(Long userId,
+                                       Collection<Long> addArticleIds, Collection<Long> addVideoIds,
+                                       Collection<Long> removeArticleIds, Collection<Long> removeVideoIds);
 }
 
 
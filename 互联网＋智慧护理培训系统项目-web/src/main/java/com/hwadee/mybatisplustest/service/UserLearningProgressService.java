@@ -2,8 +2,20 @@ package com.hwadee.mybatisplustest.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.hwadee.mybatisplustest.entity.UserLearningProgress;
+import com.hwadee.mybatisplustest.export.RowWriter;
+
+import java.io.IOException;
 
 public interface UserLearningProgressService extends IService<UserLearningProgress> {
+
+    /**
+     * 导出全部学习记录(含用户名、科室), 按用户排序
+     * 通过数据库游标逐行写出, 内存占用与数据量无关
+     *
+     * @param writer 行写出器, 由调用方负责关闭
+     * @return 导出行数
+     */
+    long exportProgress(RowWriter writer) throws IOException;
 }
 
 
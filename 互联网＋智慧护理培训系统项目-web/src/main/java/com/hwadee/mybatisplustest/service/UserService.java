@@ -8,6 +8,8 @@ import com.baomidou.mybatisplus.extension.service.IService;
 // 桯入用户实体类
 import com.hwadee.mybatisplustest.entity.User;
 
+import java.util.Set;
+
 /**
  * 用户服务接口
  * 
@@ -91,4 +93,34 @@ public interface UserService extends IService<User>{
      * @return Page<User> 分页对象，包含当前页数据和总记录数
      */
     Page<User> listByPage(Integer pageNum, Integer pageSize);  // 分页查询用户列表
+
+    /**
+     * 用户名密码登录校验
+     * 
+     * 功能说明：
+     * 1. 仅按用户名查询(走username唯一索引)，不再把密码放进SQL条件
+     * 2. 在Java中校验加盐哈希(PBKDF2)，近期校验通过的凭证命中缓存
+     * 3. 历史明文密码或迭代次数过低的哈希在登录成功后自动升级
+     * 
+     * @param username 用户名
+     * @param password 用户输入的密码
+     * @return 校验通过返回User对象，否则返回null
+     */
+    User authenticate(String username, String password);  // 登录校验
+
+    /**
+     * 局部更新(PATCH)
+     * 
+     * 功能说明：
+     * 1. 只写入请求中出现的字段(密码需由调用方先哈希)
+     * 2. 按版本号做乐观锁校验，不先查询整条记录
+     * 
+     * @param id 用户ID
+     * @param version 客户端读取时的版本号
+     * @param changes 请求体转换的用户对象
+     * @param fields 请求体中出现的属性名
+     * @return true-更新成功，false-用户不存在或已被他人修改
+     * @throws IllegalArgumentException 没有可更新的字段
+     */
+    boolean patch(Long id, int version, User changes, Set<String> fields);  // 局部更新
 }  // UserService接口结束
@@ -0,0 +1,11 @@
+package com.hwadee.mybatisplustest.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
+import com.hwadee.mybatisplustest.mapper.AchievementDefinitionMapper;
+import com.hwadee.mybatisplustest.service.AchievementDefinitionService;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AchievementDefinitionServiceImpl extends ServiceImpl<AchievementDefinitionMapper, AchievementDefinition> implements AchievementDefinitionService {
+}
@@ -2,6 +2,9 @@ package com.hwadee.mybatisplustest.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.hwadee.mybatisplustest.cache.AchievementDefinitionCache;
+import com.hwadee.mybatisplustest.cache.AchievementLeaderboard;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
 import com.hwadee.mybatisplustest.entity.LearningAchievement;
 import com.hwadee.mybatisplustest.entity.Notification;
 import com.hwadee.mybatisplustest.entity.UserLearningProgress;
@@ -26,6 +29,12 @@ public class LearningAchievementServiceImpl extends ServiceImpl<LearningAchievem
     @Resource
     private NotificationService notificationService;
 
+    @Resource
+    private AchievementLeaderboard leaderboard;
+
+    @Resource
+    private AchievementDefinitionCache definitionCache;
+
     @Override
     public void checkAndUnlockAchievements(Long userId) {
         // 获取用户学习进度
@@ -46,24 +55,25 @@ public class LearningAchievementServiceImpl extends ServiceImpl<LearningAchievem
 
         LocalDateTime now = LocalDateTime.now();
 
-        // 检查各种成就
-        if (completedArticles >= 1 && !unlockedMap.containsKey("first_article")) {
-            unlockAchievement(userId, "first_article", "首次完成", "完成了第一篇文章的学习", "🎉", 10, now);
-        }
-
-        if (completedArticles >= 5 && !unlockedMap.containsKey("halfway")) {
-            unlockAchievement(userId, "halfway", "半程达成", "完成了5篇文章的学习", "📚", 30, now);
-        }
-
-        if (completedArticles >= 10 && !unlockedMap.containsKey("completed_all")) {
-            unlockAchievement(userId, "completed_all", "完美完成", "完成了所有10篇文章的学习", "🏆", 100, now);
+        // 按成就定义逐条检查（定义来自 achievement_definition 表的内存快照）
+        for (AchievementDefinition definition : definitionCache.definitions()) {
+            Integer required = definition.getRequiredArticles();
+            if (required != null && completedArticles >= required
+                    && !unlockedMap.containsKey(definition.getAchievementType())) {
+                unlockAchievement(userId, definition, now);
+            }
         }
     }
 
-    private void unlockAchievement(Long userId, String type, String name, String desc, String icon, Integer points, LocalDateTime unlockedAt) {
+    private void unlockAchievement(Long userId, AchievementDefinition definition, LocalDateTime unlockedAt) {
+        String name = definition.getAchievementName();
+        String desc = definition.getAchievementDesc();
+        String icon = definition.getIcon();
+        int points = definition.getPoints() == null ? 0 : definition.getPoints();
+
         LearningAchievement achievement = new LearningAchievement();
         achievement.setUserId(userId);
-        achievement.setAchievementType(type);
+        achievement.setAchievementType(definition.getAchievementType());
         achievement.setAchievementName(name);
         achievement.setAchievementDesc(desc);
         achievement.setIcon(icon);
@@ -71,6 +81,7 @@ public class LearningAchievementServiceImpl extends ServiceImpl<LearningAchievem
         achievement.setUnlockedAt(unlockedAt);
         achievement.setCreatedAt(unlockedAt);
         this.save(achievement);
+        leaderboard.addPoints(userId, points);
 
         // 创建成就通知
         Notification notification = new Notification();
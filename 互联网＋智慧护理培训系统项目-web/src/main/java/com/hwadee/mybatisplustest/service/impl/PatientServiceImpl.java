@@ -1,13 +1,105 @@
 package com.hwadee.mybatisplustest.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.hwadee.mybatisplustest.common.PartialUpdate;
 import com.hwadee.mybatisplustest.entity.Patient;
+import com.hwadee.mybatisplustest.export.RowWriter;
 import com.hwadee.mybatisplustest.mapper.PatientMapper;
 import com.hwadee.mybatisplustest.service.PatientService;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @Service
 public class PatientServiceImpl extends ServiceImpl<PatientMapper, Patient> implements PatientService {
-}
 
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern ASCII_CODE = Pattern.compile("[A-Za-z0-9-]+");
+    private static final int KEYWORD_MAX_LENGTH = 32;
+    private static final List<String> EXPORT_HEADER = List.of("病人编号", "姓名", "性别", "年龄", "联系电话",
+            "紧急联系人", "紧急联系电话", "入院日期", "诊断", "过敏史", "护理等级", "房间号", "床位号", "状态", "备注");
+
+    @Override
+    public LambdaQueryWrapper<Patient> searchWrapper(String keyword, Integer status) {
+        LambdaQueryWrapper<Patient> wrapper = new LambdaQueryWrapper<>();
+        String kw = normalize(keyword);
+        if (!kw.isEmpty()) {
+            // 关键词条件放在 and(...) 中, 生成 (a OR b) AND status = ?, 避免 OR 优先级问题
+            if (DIGITS.matcher(kw).matches()) {
+                wrapper.and(w -> w.likeRight(Patient::getPhone, kw)        // phone LIKE 'kw%'
+                                  .or().likeRight(Patient::getPatientNo, kw));  // OR patient_no LIKE 'kw%'
+            } else if (ASCII_CODE.matcher(kw).matches()) {
+                wrapper.and(w -> w.likeRight(Patient::getPatientNo, kw)    // patient_no LIKE 'kw%'
+                                  .or().likeRight(Patient::getName, kw));   // OR name LIKE 'kw%'
+            } else if (kw.codePointCount(0, kw.length()) >= 2) {
+                // ngram 全文索引(ngram_token_size=2), 短语匹配等价于姓名包含关键词
+                wrapper.apply("MATCH(name) AGAINST({0} IN BOOLEAN MODE)", '"' + kw + '"');
+            } else {
+                wrapper.likeRight(Patient::getName, kw);  // 单字(通常是姓氏)按前缀匹配
+            }
+        }
+        if (status != null) {
+            wrapper.eq(Patient::getStatus, status);
+        }
+        wrapper.orderByDesc(Patient::getAdmissionDate)
+               .orderByDesc(Patient::getId);
+        return wrapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)  // 游标在事务内保持同一连接, 遍历结束后关闭
+    public long exportPatients(String keyword, Integer status, RowWriter writer) throws IOException {
+        LambdaQueryWrapper<Patient> wrapper = searchWrapper(keyword, status);
+        wrapper.select(Patient::getId, Patient::getPatientNo, Patient::getName, Patient::getGender, Patient::getAge,
+                       Patient::getPhone, Patient::getEmergencyContact, Patient::getEmergencyPhone,
+                       Patient::getAdmissionDate, Patient::getDiagnosis, Patient::getAllergyHistory,
+                       Patient::getCareLevel, Patient::getRoomNo, Patient::getBedNo, Patient::getStatus,
+                       Patient::getRemarks);  // 不读取病史、用药等大字段
+        writer.header(EXPORT_HEADER);
+        try (Cursor<Patient> cursor = baseMapper.streamPatients(wrapper)) {
+            for (Patient p : cursor) {
+                writer.row(p.getPatientNo(), p.getName(), genderLabel(p.getGender()), p.getAge(), p.getPhone(),
+                           p.getEmergencyContact(), p.getEmergencyPhone(), p.getAdmissionDate(), p.getDiagnosis(),
+                           p.getAllergyHistory(), p.getCareLevel(), p.getRoomNo(), p.getBedNo(),
+                           statusLabel(p.getStatus()), p.getRemarks());
+            }
+        }
+        return writer.rowCount();
+    }
 
+    @Override
+    public boolean patch(Long id, int version, Patient changes, Set<String> fields) {
+        return update(PartialUpdate.of(changes, fields, id, version, PartialUpdate.READ_ONLY));
+    }
+
+    private static String genderLabel(Integer gender) {
+        return gender == null ? null : gender == 1 ? "男" : gender == 2 ? "女" : gender.toString();
+    }
+
+    private static String statusLabel(Integer status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case 1 -> "在院";
+            case 2 -> "出院";
+            case 3 -> "转院";
+            default -> status.toString();
+        };
+    }
+
+    /** 去掉首尾空白、全文检索运算符和 LIKE 通配符, 并限制长度 */
+    private static String normalize(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        String kw = keyword.trim().replaceAll("[\"*+<>()~@%_\\\\]", "");
+        return kw.length() > KEYWORD_MAX_LENGTH ? kw.substring(0, KEYWORD_MAX_LENGTH) : kw;
+    }
+}
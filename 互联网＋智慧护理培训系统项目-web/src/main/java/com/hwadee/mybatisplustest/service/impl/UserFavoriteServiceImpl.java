@@ -1,13 +1,181 @@
 package com.hwadee.mybatisplustest.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.hwadee.mybatisplustest.cache.FavoriteBitmapIndex;
+import com.hwadee.mybatisplustest.cache.FavoriteCounter;
 import com.hwadee.mybatisplustest.entity.UserFavorite;
 import com.hwadee.mybatisplustest.mapper.UserFavoriteMapper;
 import com.hwadee.mybatisplustest.service.UserFavoriteService;
+import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 public class UserFavoriteServiceImpl extends ServiceImpl<UserFavoriteMapper, UserFavorite> implements UserFavoriteService {
+
+    /** 单次同步最多处理的ID数量 */
+    private static final int MAX_SYNC_SIZE = 500;
+
+    @Resource
+    private FavoriteBitmapIndex favoriteIndex;
+
+    @Resource
+    private FavoriteCounter favoriteCounter;
+
+    @Override
+    public boolean addFavorite(Long userId, Long articleId, Long videoId) {
+        // 唯一键保证并发/重复点击只会插入一行, 无需先查询
+        boolean added = baseMapper.insertIgnore(newFavorite(userId, articleId, videoId, LocalDateTime.now())) > 0;
+        if (added) {
+            favoriteIndex.add(userId, articleId, videoId);
+            favoriteCounter.increment(articleId, videoId, 1);
+        }
+        return added;
+    }
+
+    @Override
+    public int removeFavorite(Long userId, Long articleId, Long videoId) {
+        if (articleId == null && videoId == null) {  // 否则会删除该用户的全部收藏, 位图和计数无法同步
+            throw new IllegalArgumentException("文章ID或视频ID至少需要一个");
+        }
+        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserFavorite::getUserId, userId);
+        if (articleId != null) {
+            wrapper.eq(UserFavorite::getArticleId, articleId);
+        }
+        if (videoId != null) {
+            wrapper.eq(UserFavorite::getVideoId, videoId);
+        }
+        int deleted = baseMapper.delete(wrapper);
+        if (deleted > 0) {
+            favoriteIndex.remove(userId, articleId, videoId);
+            favoriteCounter.increment(articleId, videoId, -deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public Map<String, Integer> syncFavorites(Long userId,
+                                              Collection<Long> addArticleIds, Collection<Long> addVideoIds,
+                                              Collection<Long> removeArticleIds, Collection<Long> removeVideoIds) {
+        Set<Long> addArticles = distinct(addArticleIds);
+        Set<Long> addVideos = distinct(addVideoIds);
+        Set<Long> removeArticles = distinct(removeArticleIds);
+        Set<Long> removeVideos = distinct(removeVideoIds);
+        addArticles.removeAll(removeArticles);  // 同一条目同时出现在新增和删除中时以删除为准
+        addVideos.removeAll(removeVideos);
+        if (addArticles.size() + addVideos.size() + removeArticles.size() + removeVideos.size() > MAX_SYNC_SIZE) {
+            throw new IllegalArgumentException("单次同步最多 " + MAX_SYNC_SIZE + " 条");
+        }
+
+        // 通过位图找出真正需要新增/删除的条目, 用于同步内存计数
+        Map<String, Map<Long, Boolean>> before = favoriteIndex.check(userId,
+                union(addArticles, removeArticles), union(addVideos, removeVideos));
+        Map<Long, Boolean> articleState = before.get("articles");
+        Map<Long, Boolean> videoState = before.get("videos");
+
+        // 新增: 一条批量 INSERT IGNORE
+        LocalDateTime now = LocalDateTime.now();
+        List<UserFavorite> rows = new ArrayList<>();
+        List<Long> newArticles = new ArrayList<>();
+        List<Long> newVideos = new ArrayList<>();
+        for (Long articleId : addArticles) {
+            rows.add(newFavorite(userId, articleId, null, now));
+            if (!articleState.get(articleId)) {
+                newArticles.add(articleId);
+            }
+        }
+        for (Long videoId : addVideos) {
+            rows.add(newFavorite(userId, null, videoId, now));
+            if (!videoState.get(videoId)) {
+                newVideos.add(videoId);
+            }
+        }
+        int added = rows.isEmpty() ? 0 : baseMapper.insertIgnoreBatch(rows);
+
+        // 删除: 文章、视频各一条 DELETE ... IN (...)
+        int removed = 0;
+        if (!removeArticles.isEmpty()) {
+            removed += baseMapper.delete(new LambdaQueryWrapper<UserFavorite>()
+                    .eq(UserFavorite::getUserId, userId)
+                    .in(UserFavorite::getArticleId, removeArticles));
+        }
+        if (!removeVideos.isEmpty()) {
+            removed += baseMapper.delete(new LambdaQueryWrapper<UserFavorite>()
+                    .eq(UserFavorite::getUserId, userId)
+                    .in(UserFavorite::getVideoId, removeVideos));
+        }
+
+        // 同步位图与计数
+        newArticles.forEach(id -> {
+            favoriteIndex.add(userId, id, null);
+            favoriteCounter.increment(id, null, 1);
+        });
+        newVideos.forEach(id -> {
+            favoriteIndex.add(userId, null, id);
+            favoriteCounter.increment(null, id, 1);
+        });
+        int expectedRemoved = 0;
+        for (Long articleId : removeArticles) {
+            if (articleState.get(articleId)) {
+                favoriteIndex.remove(userId, articleId, null);
+                favoriteCounter.increment(articleId, null, -1);
+                expectedRemoved++;
+            }
+        }
+        for (Long videoId : removeVideos) {
+            if (videoState.get(videoId)) {
+                favoriteIndex.remove(userId, null, videoId);
+                favoriteCounter.increment(null, videoId, -1);
+                expectedRemoved++;
+            }
+        }
+        if (added != newArticles.size() + newVideos.size() || removed != expectedRemoved) {
+            // 与并发请求交错导致结果不一致: 丢弃该用户位图重新加载, 计数由定时对账修正
+            favoriteIndex.evict(userId);
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        result.put("added", added);
+        result.put("removed", removed);
+        return result;
+    }
+
+    private static UserFavorite newFavorite(Long userId, Long articleId, Long videoId, LocalDateTime createdAt) {
+        UserFavorite favorite = new UserFavorite();
+        favorite.setUserId(userId);
+        favorite.setArticleId(articleId);
+        favorite.setVideoId(videoId);
+        favorite.setCreatedAt(createdAt);
+        return favorite;
+    }
+
+    private static Set<Long> distinct(Collection<Long> ids) {
+        Set<Long> result = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<Long> union(Set<Long> a, Set<Long> b) {
+        Set<Long> result = new LinkedHashSet<>(a);
+        result.addAll(b);
+        return result;
+    }
 }
 
 
@@ -2,12 +2,40 @@ package com.hwadee.mybatisplustest.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.hwadee.mybatisplustest.entity.UserLearningProgress;
+import com.hwadee.mybatisplustest.export.RowWriter;
 import com.hwadee.mybatisplustest.mapper.UserLearningProgressMapper;
 import com.hwadee.mybatisplustest.service.UserLearningProgressService;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserLearningProgressServiceImpl extends ServiceImpl<UserLearningProgressMapper, UserLearningProgress> implements UserLearningProgressService {
+
+    private static final List<String> EXPORT_HEADER = List.of("记录ID", "用户ID", "用户名", "科室", "学习类型", "内容ID",
+            "进度(%)", "是否完成", "开始学习时间", "完成时间", "最后学习时间");
+
+    @Override
+    @Transactional(readOnly = true)  // 游标在事务内保持同一连接, 遍历结束后关闭
+    public long exportProgress(RowWriter writer) throws IOException {
+        writer.header(EXPORT_HEADER);
+        try (Cursor<Map<String, Object>> cursor = baseMapper.streamProgressWithUser()) {
+            for (Map<String, Object> r : cursor) {
+                boolean video = r.get("videoId") != null;
+                Object completed = r.get("isCompleted");
+                writer.row(r.get("id"), r.get("userId"), r.get("username"), r.get("department"),
+                           video ? "视频" : "文章", video ? r.get("videoId") : r.get("articleId"),
+                           r.get("progressPercent"),
+                           completed instanceof Number n ? Boolean.valueOf(n.intValue() != 0) : completed,  // tinyint 兼容
+                           r.get("startedAt"), r.get("completedAt"), r.get("lastStudiedAt"));
+            }
+        }
+        return writer.rowCount();
+    }
 }
 
 
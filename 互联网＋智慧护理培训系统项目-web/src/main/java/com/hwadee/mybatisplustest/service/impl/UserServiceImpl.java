@@ -2,15 +2,21 @@
 package com.hwadee.mybatisplustest.service.impl;
 
 // 导入MyBatis-Plus的QueryWrapper类，用于构造查询条件
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 // 导入MyBatis-Plus的分页插件Page类
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 // 导入MyBatis-Plus的ServiceImpl基类，提供通用CRUD实现
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+// 导入局部更新条件构造
+import com.hwadee.mybatisplustest.common.PartialUpdate;
 // 导入用户实体类
 import com.hwadee.mybatisplustest.entity.User;
 // 导入用户Mapper接口
 import com.hwadee.mybatisplustest.mapper.UserMapper;
+// 导入登录凭证校验器和密码哈希工具
+import com.hwadee.mybatisplustest.security.CredentialVerifier;
+import com.hwadee.mybatisplustest.security.PasswordHasher;
 // 导入用户服务接口
 import com.hwadee.mybatisplustest.service.UserService;
 // 导入Jakarta EE的Resource注解，用于依赖注入
@@ -18,6 +24,9 @@ import jakarta.annotation.Resource;
 // 导入Spring的Service注解，标识为服务层组件
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * 用户服务实现类
  * 
@@ -57,6 +66,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Resource
     private UserMapper userMapper;  // 用户数据访问层接口
 
+    @Resource
+    private PasswordHasher passwordHasher;  // 密码哈希工具
+
+    @Resource
+    private CredentialVerifier credentialVerifier;  // 登录凭证校验器(带缓存)
+
     /**
      * 根据ID获取用户信息
      * 
@@ -147,4 +162,60 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 返回填充好数据的Page对象（selectPage会自动填充page对象的records和total属性）
         return page;  // 返回分页结果
     }
+
+    /**
+     * 用户名密码登录校验
+     * 
+     * 功能说明：
+     * 1. 执行SQL：SELECT * FROM user WHERE username = #{username}，命中username索引
+     * 2. 由CredentialVerifier在Java中校验密码哈希，近期校验通过的凭证直接命中缓存
+     * 3. 用户不存在时仍计算一次假哈希，避免通过响应时间判断用户名是否存在
+     * 4. 校验通过且需要升级(历史明文/迭代次数过低)时，以原密码值为条件更新为新哈希
+     * 
+     * @param username 用户名
+     * @param password 用户输入的密码
+     * @return 校验通过返回User对象，否则返回null
+     */
+    @Override  // 重写接口方法
+    public User authenticate(String username, String password) {
+        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(User::getUsername, username);  // 只按用户名查询，密码不进入SQL
+        List<User> candidates = userMapper.selectList(wrapper);  // 唯一索引建立前可能存在重名账号
+        if (candidates.isEmpty()) {
+            credentialVerifier.verify(username, password, null);  // 计算假哈希，耗时与密码错误一致
+            return null;
+        }
+        for (User user : candidates) {
+            String stored = user.getPassword();
+            if (stored != null && credentialVerifier.verify(username, password, stored)) {
+                if (passwordHasher.needsRehash(stored)) {
+                    upgradePassword(user, password);
+                }
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 局部更新：UPDATE user SET 传入字段..., version = version + 1 WHERE id = ? AND version = ?
+     */
+    @Override  // 重写接口方法
+    public boolean patch(Long id, int version, User changes, Set<String> fields) {
+        return update(PartialUpdate.of(changes, fields, id, version, PartialUpdate.READ_ONLY));
+    }
+
+    /** 将历史明文或低强度哈希升级为当前配置的哈希(以原值为条件，避免覆盖并发修改) */
+    private void upgradePassword(User user, String password) {
+        String oldValue = user.getPassword();
+        String newValue = passwordHasher.hash(password);
+        boolean updated = lambdaUpdate()
+                .set(User::getPassword, newValue)
+                .eq(User::getId, user.getId())
+                .eq(User::getPassword, oldValue)
+                .update();
+        if (updated) {
+            user.setPassword(newValue);
+        }
+    }
 }  // UserServiceImpl类结束
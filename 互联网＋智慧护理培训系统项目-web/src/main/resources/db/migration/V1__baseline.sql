@@ -0,0 +1,309 @@
+-- 智慧护理培训系统 - 基线脚本(V1)
+-- 由原启动时执行的 schema.sql 迁移而来，由 SchemaMigrator 执行一次并记录到 schema_history
+-- 原脚本依赖 continue-on-error 忽略失败语句，这里改为先判断再执行，保证整个脚本不报错、可重复执行
+
+-- 用户表（全新数据库时创建，结构与 mybatisplus_test.sql 一致）
+CREATE TABLE IF NOT EXISTS `user` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '用户id索引',
+  `username` varchar(64) DEFAULT NULL COMMENT '用户名',
+  `age` int DEFAULT NULL COMMENT '年龄',
+  `email` varchar(64) DEFAULT NULL COMMENT '邮箱',
+  `password` varchar(255) DEFAULT NULL COMMENT '密码(加盐哈希)',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 COMMENT='用户表';
+
+-- 旧表的 name 列重命名为 username（只有 name 没有 username 时）
+SET @user1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'name') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'username') = 0, 
+    'ALTER TABLE `user` CHANGE COLUMN `name` `username` varchar(64)', 'SELECT 1');
+PREPARE user1 FROM @user1;
+EXECUTE user1;
+DEALLOCATE PREPARE user1;
+
+-- name 与 username 同时存在时，把 name 合并到 username 后删除 name
+SET @user2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'name') = 1, 
+    'UPDATE `user` SET `username` = `name` WHERE `username` IS NULL', 'SELECT 1');
+PREPARE user2 FROM @user2;
+EXECUTE user2;
+DEALLOCATE PREPARE user2;
+
+SET @user3 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'name') = 1, 
+    'ALTER TABLE `user` DROP COLUMN `name`', 'SELECT 1');
+PREPARE user3 FROM @user3;
+EXECUTE user3;
+DEALLOCATE PREPARE user3;
+
+-- 为 user 表添加新字段（安全方式，检查字段是否存在）
+SET @sql1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'avatar') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `avatar` varchar(512) COMMENT ''头像URL''', 'SELECT 1');
+PREPARE stmt1 FROM @sql1;
+EXECUTE stmt1;
+DEALLOCATE PREPARE stmt1;
+
+SET @sql2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'phone') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `phone` varchar(32) COMMENT ''联系电话''', 'SELECT 1');
+PREPARE stmt2 FROM @sql2;
+EXECUTE stmt2;
+DEALLOCATE PREPARE stmt2;
+
+SET @sql3 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'address') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `address` varchar(256) COMMENT ''地址''', 'SELECT 1');
+PREPARE stmt3 FROM @sql3;
+EXECUTE stmt3;
+DEALLOCATE PREPARE stmt3;
+
+SET @sql4 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'department') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `department` varchar(128) COMMENT ''部门''', 'SELECT 1');
+PREPARE stmt4 FROM @sql4;
+EXECUTE stmt4;
+DEALLOCATE PREPARE stmt4;
+
+SET @sql5 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'position') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `position` varchar(128) COMMENT ''职位''', 'SELECT 1');
+PREPARE stmt5 FROM @sql5;
+EXECUTE stmt5;
+DEALLOCATE PREPARE stmt5;
+
+SET @sql6 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'created_at') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT ''创建时间''', 'SELECT 1');
+PREPARE stmt6 FROM @sql6;
+EXECUTE stmt6;
+DEALLOCATE PREPARE stmt6;
+
+SET @sql7 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'updated_at') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT ''更新时间''', 'SELECT 1');
+PREPARE stmt7 FROM @sql7;
+EXECUTE stmt7;
+DEALLOCATE PREPARE stmt7;
+
+-- 密码改为加盐哈希存储(pbkdf2$迭代次数$盐$哈希)，列宽不足时扩大到 varchar(255)
+SET @sql8 = IF((SELECT IFNULL(MAX(CHARACTER_MAXIMUM_LENGTH), 255) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'password') < 255, 
+    'ALTER TABLE `user` MODIFY COLUMN `password` varchar(255) COMMENT ''密码(加盐哈希)''', 'SELECT 1');
+PREPARE stmt8 FROM @sql8;
+EXECUTE stmt8;
+DEALLOCATE PREPARE stmt8;
+
+-- 登录按用户名查询，为 username 建唯一索引
+-- 已存在重名账号时无法建唯一索引，先建普通索引保证查询走索引，由 V3 升级为唯一索引
+SET @sql9 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND INDEX_NAME = 'uk_user_username') = 0
+        AND (SELECT COUNT(*) FROM (SELECT username FROM `user` GROUP BY username HAVING COUNT(*) > 1) d) = 0, 
+    'ALTER TABLE `user` ADD UNIQUE KEY `uk_user_username` (`username`)', 'SELECT 1');
+PREPARE stmt9 FROM @sql9;
+EXECUTE stmt9;
+DEALLOCATE PREPARE stmt9;
+
+SET @sql10 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND INDEX_NAME IN ('uk_user_username', 'idx_user_username')) = 0, 
+    'ALTER TABLE `user` ADD KEY `idx_user_username` (`username`)', 'SELECT 1');
+PREPARE stmt10 FROM @sql10;
+EXECUTE stmt10;
+DEALLOCATE PREPARE stmt10;
+
+-- 唯一索引补建成功后删除多余的普通索引
+SET @sql11 = IF((SELECT COUNT(DISTINCT INDEX_NAME) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND INDEX_NAME IN ('uk_user_username', 'idx_user_username')) = 2, 
+    'ALTER TABLE `user` DROP INDEX `idx_user_username`', 'SELECT 1');
+PREPARE stmt11 FROM @sql11;
+EXECUTE stmt11;
+DEALLOCATE PREPARE stmt11;
+
+-- 乐观锁版本号（每次更新 +1，更新时校验版本防止并发覆盖）
+SET @sql12 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND COLUMN_NAME = 'version') = 0, 
+    'ALTER TABLE `user` ADD COLUMN `version` int NOT NULL DEFAULT 0 COMMENT ''乐观锁版本号''', 'SELECT 1');
+PREPARE stmt12 FROM @sql12;
+EXECUTE stmt12;
+DEALLOCATE PREPARE stmt12;
+
+-- 初始化默认管理员账号（如果不存在）
+INSERT INTO `user` (username, age, email, password, avatar, phone, address, department, position)
+SELECT 'admin', 28, 'admin@example.com', '123456', 
+       'https://api.dicebear.com/7.x/avataaars/svg?seed=admin',
+       '138-0000-0000',
+       '北京市朝阳区某某街道',
+       '护理部',
+       '护士长'
+WHERE NOT EXISTS (SELECT 1 FROM `user` WHERE username = 'admin');
+
+-- 自动创建培训相关表（如果不存在）
+
+-- 培训类别表
+CREATE TABLE IF NOT EXISTS `training_category` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '类别ID',
+  `name` varchar(128) DEFAULT NULL COMMENT '类别名称',
+  `description` varchar(512) DEFAULT NULL COMMENT '类别描述',
+  `sort_order` int DEFAULT 0 COMMENT '排序序号',
+  `status` tinyint DEFAULT 1 COMMENT '状态：1启用 0禁用',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训类别表';
+
+-- 培训标签表
+CREATE TABLE IF NOT EXISTS `training_tag` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '标签ID',
+  `name` varchar(128) DEFAULT NULL COMMENT '标签名称',
+  `status` tinyint DEFAULT 1 COMMENT '状态：1启用 0禁用',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训标签表';
+
+-- 培训文章表
+CREATE TABLE IF NOT EXISTS `training_article` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '文章ID',
+  `title` varchar(256) DEFAULT NULL COMMENT '文章标题',
+  `cover_url` varchar(512) DEFAULT NULL COMMENT '封面图片URL',
+  `category_id` bigint DEFAULT NULL COMMENT '所属类别ID',
+  `tag_ids` varchar(512) DEFAULT NULL COMMENT '标签ID列表，逗号分隔',
+  `content` mediumtext COMMENT '文章内容',
+  `publish_status` tinyint DEFAULT 0 COMMENT '发布状态：0草稿 1已发布',
+  `publish_at` datetime DEFAULT NULL COMMENT '发布时间',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训文章表';
+
+-- 培训视频表
+CREATE TABLE IF NOT EXISTS `training_video` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '视频ID',
+  `title` varchar(256) DEFAULT NULL COMMENT '视频标题',
+  `cover_url` varchar(512) DEFAULT NULL COMMENT '视频封面URL',
+  `video_url` varchar(1024) DEFAULT NULL COMMENT '视频文件URL',
+  `duration_seconds` int DEFAULT NULL COMMENT '视频时长（秒）',
+  `category_id` bigint DEFAULT NULL COMMENT '所属类别ID',
+  `tag_ids` varchar(512) DEFAULT NULL COMMENT '标签ID列表，逗号分隔',
+  `publish_status` tinyint DEFAULT 0 COMMENT '发布状态：0草稿 1已发布',
+  `publish_at` datetime DEFAULT NULL COMMENT '发布时间',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训视频表';
+
+-- 培训PPT表
+CREATE TABLE IF NOT EXISTS `training_ppt` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'PPT ID',
+  `title` varchar(256) DEFAULT NULL COMMENT 'PPT标题',
+  `cover_url` varchar(512) DEFAULT NULL COMMENT 'PPT封面URL',
+  `file_url` varchar(1024) DEFAULT NULL COMMENT 'PPT文件URL',
+  `pages` int DEFAULT NULL COMMENT 'PPT页数',
+  `category_id` bigint DEFAULT NULL COMMENT '所属类别ID',
+  `tag_ids` varchar(512) DEFAULT NULL COMMENT '标签ID列表，逗号分隔',
+  `publish_status` tinyint DEFAULT 0 COMMENT '发布状态：0草稿 1已发布',
+  `publish_at` datetime DEFAULT NULL COMMENT '发布时间',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训PPT表';
+
+-- 成就定义表（成就规则与 /achievement/definitions 接口共用）
+CREATE TABLE IF NOT EXISTS `achievement_definition` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '定义ID',
+  `achievement_type` varchar(64) NOT NULL COMMENT '成就类型',
+  `achievement_name` varchar(128) DEFAULT NULL COMMENT '成就名称',
+  `achievement_desc` varchar(512) DEFAULT NULL COMMENT '成就描述',
+  `icon` varchar(32) DEFAULT NULL COMMENT '成就图标',
+  `points` int DEFAULT 0 COMMENT '成就积分',
+  `requirement` varchar(256) DEFAULT NULL COMMENT '解锁条件说明',
+  `required_articles` int DEFAULT NULL COMMENT '解锁所需完成的文章数',
+  `sort_order` int DEFAULT 0 COMMENT '排序序号',
+  `status` tinyint DEFAULT 1 COMMENT '状态：1启用 0禁用',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_achievement_type` (`achievement_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='成就定义表';
+
+-- 初始化默认成就定义（如果不存在）
+INSERT IGNORE INTO `achievement_definition` (achievement_type, achievement_name, achievement_desc, icon, points, requirement, required_articles, sort_order)
+VALUES ('first_article', '首次完成', '完成了第一篇文章的学习', '🎉', 10, '完成1篇文章', 1, 1),
+       ('halfway', '半程达成', '完成了5篇文章的学习', '📚', 30, '完成5篇文章', 5, 2),
+       ('completed_all', '完美完成', '完成了所有10篇文章的学习', '🏆', 100, '完成10篇文章', 10, 3);
+
+-- 用户收藏表
+CREATE TABLE IF NOT EXISTS `user_favorite` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '收藏ID',
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `article_id` bigint DEFAULT NULL COMMENT '文章ID',
+  `video_id` bigint DEFAULT NULL COMMENT '视频ID',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '收藏时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户收藏表';
+
+-- 收藏唯一键 (user_id, article_id, video_id)
+-- NULL 在唯一索引中互不冲突，因此先用生成列把 NULL 归一为 0，再在生成列上建唯一键
+SET @fav1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite' AND COLUMN_NAME = 'article_key') = 0, 
+    'ALTER TABLE `user_favorite` ADD COLUMN `article_key` bigint AS (IFNULL(`article_id`, 0)) STORED COMMENT ''文章ID(NULL归一为0)'', ADD COLUMN `video_key` bigint AS (IFNULL(`video_id`, 0)) STORED COMMENT ''视频ID(NULL归一为0)''', 'SELECT 1');
+PREPARE fav1 FROM @fav1;
+EXECUTE fav1;
+DEALLOCATE PREPARE fav1;
+
+-- 建唯一键前清理已有的重复收藏（保留最早的一条）
+SET @fav2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite' AND INDEX_NAME = 'uk_user_favorite') = 0, 
+    'DELETE f1 FROM `user_favorite` f1 JOIN `user_favorite` f2 ON f1.user_id = f2.user_id AND f1.article_key = f2.article_key AND f1.video_key = f2.video_key AND f1.id > f2.id', 'SELECT 1');
+PREPARE fav2 FROM @fav2;
+EXECUTE fav2;
+DEALLOCATE PREPARE fav2;
+
+SET @fav3 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite' AND INDEX_NAME = 'uk_user_favorite') = 0, 
+    'ALTER TABLE `user_favorite` ADD UNIQUE KEY `uk_user_favorite` (`user_id`, `article_key`, `video_key`)', 'SELECT 1');
+PREPARE fav3 FROM @fav3;
+EXECUTE fav3;
+DEALLOCATE PREPARE fav3;
+
+-- 管理员登录审计日志表（只追加，由 AdminLoginRecorder 异步批量写入）
+CREATE TABLE IF NOT EXISTS `admin_login_log` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '日志ID',
+  `admin_id` bigint DEFAULT NULL COMMENT '管理员ID（登录失败时为空）',
+  `username` varchar(64) DEFAULT NULL COMMENT '登录用户名',
+  `success` tinyint NOT NULL DEFAULT 0 COMMENT '是否成功：1-成功，0-失败',
+  `ip` varchar(64) DEFAULT NULL COMMENT '客户端IP',
+  `user_agent` varchar(255) DEFAULT NULL COMMENT '客户端User-Agent',
+  `login_time` datetime NOT NULL COMMENT '登录时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_admin_login_log_admin_time` (`admin_id`, `login_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='管理员登录审计日志表';
+
+-- 病人搜索索引（病人编号/电话前缀匹配走B树索引，姓名包含匹配走 ngram 全文索引）
+SET @pat1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'idx_patient_no') = 0, 
+    'ALTER TABLE `patient` ADD KEY `idx_patient_no` (`patient_no`)', 'SELECT 1');
+PREPARE pat1 FROM @pat1;
+EXECUTE pat1;
+DEALLOCATE PREPARE pat1;
+
+SET @pat2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'idx_patient_phone') = 0, 
+    'ALTER TABLE `patient` ADD KEY `idx_patient_phone` (`phone`)', 'SELECT 1');
+PREPARE pat2 FROM @pat2;
+EXECUTE pat2;
+DEALLOCATE PREPARE pat2;
+
+-- 单字(姓氏)按姓名前缀匹配
+SET @pat3 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'idx_patient_name') = 0, 
+    'ALTER TABLE `patient` ADD KEY `idx_patient_name` (`name`)', 'SELECT 1');
+PREPARE pat3 FROM @pat3;
+EXECUTE pat3;
+DEALLOCATE PREPARE pat3;
+
+-- ngram 分词(默认 ngram_token_size=2)，支持两个字及以上的中文姓名片段检索
+SET @pat4 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'ft_patient_name') = 0, 
+    'ALTER TABLE `patient` ADD FULLTEXT KEY `ft_patient_name` (`name`) WITH PARSER ngram', 'SELECT 1');
+PREPARE pat4 FROM @pat4;
+EXECUTE pat4;
+DEALLOCATE PREPARE pat4;
+
+-- 按状态筛选并按入院日期倒序分页
+SET @pat5 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'idx_patient_status_admission') = 0, 
+    'ALTER TABLE `patient` ADD KEY `idx_patient_status_admission` (`status`, `admission_date`, `id`)', 'SELECT 1');
+PREPARE pat5 FROM @pat5;
+EXECUTE pat5;
+DEALLOCATE PREPARE pat5;
+
+-- 乐观锁版本号（多人同时编辑同一病人时，后提交的修改会因版本不一致被拒绝）
+SET @pat6 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND COLUMN_NAME = 'version') = 0, 
+    'ALTER TABLE `patient` ADD COLUMN `version` int NOT NULL DEFAULT 0 COMMENT ''乐观锁版本号''', 'SELECT 1');
+PREPARE pat6 FROM @pat6;
+EXECUTE pat6;
+DEALLOCATE PREPARE pat6;
@@ -0,0 +1,131 @@
+-- ============================================================
+-- 热点查询索引（与各 Controller/Service 中 LambdaQueryWrapper 的条件和排序一一对应）
+-- 表不存在或索引已存在时跳过，可重复执行
+-- ============================================================
+
+-- 通知列表/未读数/全部已读: WHERE user_id = ? AND is_read = ? ORDER BY created_at DESC
+SET @idx1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notification') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notification' AND INDEX_NAME = 'idx_notification_user_read_created') = 0, 
+    'ALTER TABLE `notification` ADD KEY `idx_notification_user_read_created` (`user_id`, `is_read`, `created_at`)', 'SELECT 1');
+PREPARE idx1 FROM @idx1;
+EXECUTE idx1;
+DEALLOCATE PREPARE idx1;
+
+-- 学习进度: WHERE user_id = ? [AND article_id = ?] [AND video_id = ?]，成就检查按 user_id 读取全部进度
+SET @idx2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_learning_progress') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_learning_progress' AND INDEX_NAME = 'idx_progress_user_article_video') = 0, 
+    'ALTER TABLE `user_learning_progress` ADD KEY `idx_progress_user_article_video` (`user_id`, `article_id`, `video_id`)', 'SELECT 1');
+PREPARE idx2 FROM @idx2;
+EXECUTE idx2;
+DEALLOCATE PREPARE idx2;
+
+-- 文章浏览: 记录浏览/总浏览量按 article_id (+ user_id)，用户浏览历史按 user_id 并按最后浏览时间倒序
+SET @idx3 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'article_view') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'article_view' AND INDEX_NAME = 'idx_article_view_article_user') = 0, 
+    'ALTER TABLE `article_view` ADD KEY `idx_article_view_article_user` (`article_id`, `user_id`)', 'SELECT 1');
+PREPARE idx3 FROM @idx3;
+EXECUTE idx3;
+DEALLOCATE PREPARE idx3;
+
+SET @idx4 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'article_view') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'article_view' AND INDEX_NAME = 'idx_article_view_user_viewed') = 0, 
+    'ALTER TABLE `article_view` ADD KEY `idx_article_view_user_viewed` (`user_id`, `last_viewed_at`)', 'SELECT 1');
+PREPARE idx4 FROM @idx4;
+EXECUTE idx4;
+DEALLOCATE PREPARE idx4;
+
+-- 用户成就: WHERE user_id = ? ORDER BY unlocked_at DESC
+SET @idx5 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'learning_achievement') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'learning_achievement' AND INDEX_NAME = 'idx_achievement_user_unlocked') = 0, 
+    'ALTER TABLE `learning_achievement` ADD KEY `idx_achievement_user_unlocked` (`user_id`, `unlocked_at`)', 'SELECT 1');
+PREPARE idx5 FROM @idx5;
+EXECUTE idx5;
+DEALLOCATE PREPARE idx5;
+
+-- 收藏数: 按 article_id / video_id 统计（按 user_id 的查询由唯一键 uk_user_favorite 覆盖）
+SET @idx6 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite' AND INDEX_NAME = 'idx_user_favorite_article') = 0, 
+    'ALTER TABLE `user_favorite` ADD KEY `idx_user_favorite_article` (`article_id`)', 'SELECT 1');
+PREPARE idx6 FROM @idx6;
+EXECUTE idx6;
+DEALLOCATE PREPARE idx6;
+
+SET @idx7 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_favorite' AND INDEX_NAME = 'idx_user_favorite_video') = 0, 
+    'ALTER TABLE `user_favorite` ADD KEY `idx_user_favorite_video` (`video_id`)', 'SELECT 1');
+PREPARE idx7 FROM @idx7;
+EXECUTE idx7;
+DEALLOCATE PREPARE idx7;
+
+-- 培训内容: 前台列表 WHERE publish_status = 1 [AND category_id = ?] ORDER BY publish_at DESC, id DESC，
+-- 后台分页不限发布状态 [WHERE category_id = ?] ORDER BY publish_at DESC, id DESC
+SET @idx8 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article' AND INDEX_NAME = 'idx_article_status_publish') = 0, 
+    'ALTER TABLE `training_article` ADD KEY `idx_article_status_publish` (`publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx8 FROM @idx8;
+EXECUTE idx8;
+DEALLOCATE PREPARE idx8;
+
+SET @idx9 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article' AND INDEX_NAME = 'idx_article_category_publish') = 0, 
+    'ALTER TABLE `training_article` ADD KEY `idx_article_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx9 FROM @idx9;
+EXECUTE idx9;
+DEALLOCATE PREPARE idx9;
+
+SET @idx10 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_article' AND INDEX_NAME = 'idx_article_publish') = 0, 
+    'ALTER TABLE `training_article` ADD KEY `idx_article_publish` (`publish_at`, `id`)', 'SELECT 1');
+PREPARE idx10 FROM @idx10;
+EXECUTE idx10;
+DEALLOCATE PREPARE idx10;
+
+SET @idx11 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video' AND INDEX_NAME = 'idx_video_status_publish') = 0, 
+    'ALTER TABLE `training_video` ADD KEY `idx_video_status_publish` (`publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx11 FROM @idx11;
+EXECUTE idx11;
+DEALLOCATE PREPARE idx11;
+
+SET @idx12 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video' AND INDEX_NAME = 'idx_video_category_publish') = 0, 
+    'ALTER TABLE `training_video` ADD KEY `idx_video_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx12 FROM @idx12;
+EXECUTE idx12;
+DEALLOCATE PREPARE idx12;
+
+SET @idx13 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_video' AND INDEX_NAME = 'idx_video_publish') = 0, 
+    'ALTER TABLE `training_video` ADD KEY `idx_video_publish` (`publish_at`, `id`)', 'SELECT 1');
+PREPARE idx13 FROM @idx13;
+EXECUTE idx13;
+DEALLOCATE PREPARE idx13;
+
+SET @idx14 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt' AND INDEX_NAME = 'idx_ppt_status_publish') = 0, 
+    'ALTER TABLE `training_ppt` ADD KEY `idx_ppt_status_publish` (`publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx14 FROM @idx14;
+EXECUTE idx14;
+DEALLOCATE PREPARE idx14;
+
+SET @idx15 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt' AND INDEX_NAME = 'idx_ppt_category_publish') = 0, 
+    'ALTER TABLE `training_ppt` ADD KEY `idx_ppt_category_publish` (`category_id`, `publish_status`, `publish_at`, `id`)', 'SELECT 1');
+PREPARE idx15 FROM @idx15;
+EXECUTE idx15;
+DEALLOCATE PREPARE idx15;
+
+SET @idx16 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'training_ppt' AND INDEX_NAME = 'idx_ppt_publish') = 0, 
+    'ALTER TABLE `training_ppt` ADD KEY `idx_ppt_publish` (`publish_at`, `id`)', 'SELECT 1');
+PREPARE idx16 FROM @idx16;
+EXECUTE idx16;
+DEALLOCATE PREPARE idx16;
+
+-- 管理员登录: WHERE username = ?
+SET @idx17 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'admin') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'admin' AND INDEX_NAME = 'idx_admin_username') = 0, 
+    'ALTER TABLE `admin` ADD KEY `idx_admin_username` (`username`)', 'SELECT 1');
+PREPARE idx17 FROM @idx17;
+EXECUTE idx17;
+DEALLOCATE PREPARE idx17;
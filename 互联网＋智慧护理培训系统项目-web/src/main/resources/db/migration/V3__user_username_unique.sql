@@ -0,0 +1,18 @@
+-- ============================================================
+-- 用户名唯一索引（V1 在已有重名账号时只建了普通索引 idx_user_username）
+-- 仍有重名账号时本脚本执行失败(Duplicate entry)，启动中止：
+-- 清理重名账号后删除 schema_history 中 V3 的失败记录再重启
+-- ============================================================
+
+SET @uk1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND INDEX_NAME = 'uk_user_username') = 0,
+    'ALTER TABLE `user` ADD UNIQUE KEY `uk_user_username` (`username`)', 'SELECT 1');
+PREPARE uk1 FROM @uk1;
+EXECUTE uk1;
+DEALLOCATE PREPARE uk1;
+
+-- 唯一索引建好后普通索引多余，删除以免每次写入维护两份
+SET @uk2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user' AND INDEX_NAME = 'idx_user_username') > 0,
+    'ALTER TABLE `user` DROP INDEX `idx_user_username`', 'SELECT 1');
+PREPARE uk2 FROM @uk2;
+EXECUTE uk2;
+DEALLOCATE PREPARE uk2;
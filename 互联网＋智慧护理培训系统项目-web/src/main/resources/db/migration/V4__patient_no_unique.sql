@@ -0,0 +1,19 @@
+-- ============================================================
+-- 病人编号唯一索引（V1 的 idx_patient_no 是普通索引，批量导入和新增病人只靠先查后插防重，并发时会写入重复编号）
+-- 仍有重复编号时本脚本执行失败(Duplicate entry)，启动中止：
+-- 清理重复编号后删除 schema_history 中 V4 的失败记录再重启
+-- ============================================================
+
+SET @pno1 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient') = 1
+        AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'uk_patient_no') = 0,
+    'ALTER TABLE `patient` ADD UNIQUE KEY `uk_patient_no` (`patient_no`)', 'SELECT 1');
+PREPARE pno1 FROM @pno1;
+EXECUTE pno1;
+DEALLOCATE PREPARE pno1;
+
+-- 唯一索引同样支持编号前缀匹配，普通索引多余
+SET @pno2 = IF((SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patient' AND INDEX_NAME = 'idx_patient_no') > 0,
+    'ALTER TABLE `patient` DROP INDEX `idx_patient_no`', 'SELECT 1');
+PREPARE pno2 FROM @pno2;
+EXECUTE pno2;
+DEALLOCATE PREPARE pno2;
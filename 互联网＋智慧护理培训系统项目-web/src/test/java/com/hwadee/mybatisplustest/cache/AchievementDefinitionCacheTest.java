@@ -0,0 +1,69 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.hwadee.mybatisplustest.entity.AchievementDefinition;
+import com.hwadee.mybatisplustest.mapper.AchievementDefinitionMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 成就定义快照: 加载完成前不返回空列表, 加载失败后访问时重试
+ */
+class AchievementDefinitionCacheTest {
+
+    private final AchievementDefinitionMapper definitionMapper = mock(AchievementDefinitionMapper.class);
+    private final AchievementDefinitionCache cache = new AchievementDefinitionCache();
+
+    @BeforeEach
+    void setUp() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), AchievementDefinition.class);
+        ReflectionTestUtils.setField(cache, "definitionMapper", definitionMapper);
+    }
+
+    @Test
+    void readyAfterReload() {
+        when(definitionMapper.selectList(any())).thenReturn(List.of(definition("first_article")));
+
+        cache.reload();
+
+        assertTrue(cache.ready());
+        assertEquals("first_article", cache.definitions().get(0).getAchievementType());
+    }
+
+    @Test
+    void notReadyUntilFirstSuccessfulLoad() {
+        when(definitionMapper.selectList(any())).thenThrow(new IllegalStateException("数据库不可用"));
+        cache.reload();
+
+        assertFalse(cache.ready());
+        assertThrows(IllegalStateException.class, cache::definitions);
+        assertThrows(IllegalStateException.class, cache::json);
+
+        doReturn(List.of(definition("first_article"))).when(definitionMapper).selectList(any());  // 数据库恢复
+
+        assertTrue(cache.ready());  // 访问时重试加载
+        assertEquals(1, cache.definitions().size());
+    }
+
+    private static AchievementDefinition definition(String type) {
+        AchievementDefinition definition = new AchievementDefinition();
+        definition.setAchievementType(type);
+        definition.setAchievementName(type);
+        definition.setPoints(10);
+        return definition;
+    }
+}
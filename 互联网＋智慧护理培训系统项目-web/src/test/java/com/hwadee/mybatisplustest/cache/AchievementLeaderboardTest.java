@@ -0,0 +1,114 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.hwadee.mybatisplustest.entity.User;
+import com.hwadee.mybatisplustest.mapper.LearningAchievementMapper;
+import com.hwadee.mybatisplustest.mapper.UserMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 成就积分排行榜: 重新加载期间的变更不丢失、未就绪时不累加、部门变更不被旧查询覆盖
+ */
+class AchievementLeaderboardTest {
+
+    private final LearningAchievementMapper achievementMapper = mock(LearningAchievementMapper.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final AchievementLeaderboard leaderboard = new AchievementLeaderboard();
+
+    @BeforeEach
+    void setUp() {
+        // reload 的 select(User::getId, ...) 需要实体的表信息
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+        ReflectionTestUtils.setField(leaderboard, "achievementMapper", achievementMapper);
+        ReflectionTestUtils.setField(leaderboard, "userMapper", userMapper);
+        when(userMapper.selectList(any())).thenReturn(List.of(user(1L, "内科"), user(2L, "外科")));
+    }
+
+    @Test
+    void changesDuringReloadAreReplayed() {
+        when(achievementMapper.selectMaps(any())).thenReturn(List.of(row(1L, 10), row(2L, 20)));
+        leaderboard.reload();
+
+        AtomicInteger calls = new AtomicInteger();
+        when(achievementMapper.selectMaps(any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                // 汇总查询已读到旧数据之后, 用户1解锁了5分的成就、用户2调到内科
+                CompletableFuture.runAsync(() -> {
+                    leaderboard.addPoints(1L, 5);
+                    leaderboard.changeDepartment(2L, "内科");
+                }).join();
+                return List.of(row(1L, 10), row(2L, 20));
+            }
+            return List.of(row(1L, 15));  // 重新查询用户1, 已包含新成就
+        });
+
+        leaderboard.reload();
+
+        assertEquals(List.of(new AchievementLeaderboard.Entry(2L, 20, 1), new AchievementLeaderboard.Entry(1L, 15, 2)),
+                leaderboard.top(null, 10));
+        assertEquals(List.of(new AchievementLeaderboard.Entry(2L, 20, 1), new AchievementLeaderboard.Entry(1L, 15, 2)),
+                leaderboard.top("内科", 10));
+        assertEquals(List.of(), leaderboard.top("外科", 10));
+    }
+
+    @Test
+    void notReadyUntilFirstSuccessfulLoad() {
+        when(achievementMapper.selectMaps(any())).thenThrow(new IllegalStateException("数据库不可用"));
+        leaderboard.reload();
+
+        leaderboard.addPoints(1L, 5);  // 没有基准总积分, 不累加
+        assertFalse(leaderboard.ready());
+
+        doReturn(List.of(row(1L, 30))).when(achievementMapper).selectMaps(any());  // 数据库恢复
+
+        assertTrue(leaderboard.ready());  // 访问时重试加载
+        assertEquals(List.of(new AchievementLeaderboard.Entry(1L, 30, 1)), leaderboard.top(null, 10));
+    }
+
+    @Test
+    void addPointsKeepsDepartmentChangedDuringLookup() {
+        when(userMapper.selectList(any())).thenReturn(List.of());
+        when(achievementMapper.selectMaps(any())).thenReturn(List.of());
+        leaderboard.reload();
+        when(userMapper.selectById(3L)).thenAnswer(invocation -> {
+            // 查询部门读到旧值之后, 用户3调到了外科
+            CompletableFuture.runAsync(() -> leaderboard.changeDepartment(3L, "外科")).join();
+            return user(3L, "内科");
+        });
+
+        leaderboard.addPoints(3L, 5);
+
+        assertEquals(List.of(), leaderboard.top("内科", 10));
+        assertEquals(List.of(new AchievementLeaderboard.Entry(3L, 5, 1)), leaderboard.top("外科", 10));
+        Map<String, Object> around = leaderboard.around(3L, "外科", 1);
+        assertEquals(1, around.get("rank"));
+    }
+
+    private static Map<String, Object> row(Long userId, long points) {
+        return Map.of("user_id", userId, "total_points", points);
+    }
+
+    private static User user(Long id, String department) {
+        User user = new User();
+        user.setId(id);
+        user.setDepartment(department);
+        return user;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.hwadee.mybatisplustest.entity.UserFavorite;
+import com.hwadee.mybatisplustest.mapper.UserFavoriteMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 收藏位图索引: 用户数上限与最久未访问淘汰
+ */
+class FavoriteBitmapIndexTest {
+
+    private final UserFavoriteMapper favoriteMapper = mock(UserFavoriteMapper.class);
+    private final FavoriteBitmapIndex index = new FavoriteBitmapIndex(10);
+
+    @BeforeEach
+    void setUp() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), UserFavorite.class);
+        ReflectionTestUtils.setField(index, "favoriteMapper", favoriteMapper);
+        UserFavorite favorite = new UserFavorite();
+        favorite.setArticleId(100L);
+        when(favoriteMapper.selectList(any())).thenReturn(List.of(favorite));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedUsersBeyondLimit() {
+        for (long userId = 1; userId <= 10; userId++) {
+            index.check(userId, List.of(100L), null);
+        }
+        index.check(1L, List.of(100L), null);  // 用户1最近访问过, 不应被淘汰
+
+        index.check(11L, List.of(100L), null);
+
+        assertTrue(index.size() <= 10, "size=" + index.size());
+        index.check(1L, List.of(100L), null);
+        verify(favoriteMapper, times(11)).selectList(any());  // 用户1没有重新加载
+        index.check(2L, List.of(100L), null);
+        verify(favoriteMapper, times(12)).selectList(any());  // 用户2已被淘汰, 重新加载
+    }
+
+    @Test
+    void evictedUserReloadsFromDatabase() {
+        index.check(1L, List.of(100L), null);
+        index.evict(1L);
+
+        Map<String, Map<Long, Boolean>> result = index.check(1L, List.of(100L, 200L), null);
+
+        assertEquals(Map.of(100L, true, 200L, false), result.get("articles"));
+        verify(favoriteMapper, times(2)).selectList(any());
+    }
+}
@@ -0,0 +1,171 @@
+package com.hwadee.mybatisplustest.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 积分排名树: 插入、删除、名次、按名次取值、并列积分, 以及树结构(堆序、子树大小、高度)
+ */
+class ScoreRankTreeTest {
+
+    @Test
+    void emptyTree() {
+        ScoreRankTree tree = new ScoreRankTree();
+
+        assertEquals(0, tree.size());
+        assertNull(tree.pointsOf(1L));
+        assertEquals(-1, tree.indexOf(1L));
+        assertEquals(0, tree.countAbove(100L));
+        assertEquals(List.of(), rows(tree, 0, 10));
+        tree.remove(1L);  // 移除不存在的用户不报错
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void insertOrdersByPointsDescending() {
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.put(1L, 30);
+        tree.put(2L, 50);
+        tree.put(3L, 10);
+
+        assertEquals(3, tree.size());
+        assertEquals(List.of(List.of(2L, 50L), List.of(1L, 30L), List.of(3L, 10L)), rows(tree, 0, 3));
+        assertEquals(0, tree.indexOf(2L));
+        assertEquals(2, tree.indexOf(3L));
+        assertEquals(1, tree.countAbove(30L));  // 第2名
+        assertEquals(List.of(List.of(1L, 30L)), rows(tree, 1, 2));
+        assertEquals(List.of(List.of(3L, 10L)), rows(tree, 2, 99));  // 区间越界时截断
+    }
+
+    @Test
+    void putExistingUserReplacesPoints() {
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.put(1L, 30);
+        tree.put(2L, 50);
+
+        tree.put(1L, 80);
+
+        assertEquals(2, tree.size());
+        assertEquals(80L, tree.pointsOf(1L));
+        assertEquals(List.of(List.of(1L, 80L), List.of(2L, 50L)), rows(tree, 0, 2));
+    }
+
+    @Test
+    void deleteRemovesOnlyThatUser() {
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.put(1L, 30);
+        tree.put(2L, 30);
+        tree.put(3L, 10);
+
+        tree.remove(1L);
+
+        assertEquals(2, tree.size());
+        assertNull(tree.pointsOf(1L));
+        assertEquals(-1, tree.indexOf(1L));
+        assertEquals(List.of(List.of(2L, 30L), List.of(3L, 10L)), rows(tree, 0, 2));
+    }
+
+    @Test
+    void equalPointsShareRankAndOrderByUserId() {
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.put(9L, 20);
+        tree.put(5L, 20);
+        tree.put(7L, 20);
+        tree.put(1L, 40);
+
+        assertEquals(List.of(List.of(1L, 40L), List.of(5L, 20L), List.of(7L, 20L), List.of(9L, 20L)), rows(tree, 0, 4));
+        assertEquals(1, tree.countAbove(20L));  // 三人并列第2名
+        assertEquals(1, tree.indexOf(5L));
+        assertEquals(3, tree.indexOf(9L));
+    }
+
+    @Test
+    void sortedInsertionsStayBalanced() {
+        ScoreRankTree tree = new ScoreRankTree();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            tree.put(i, i);  // 按积分升序插入, 普通二叉搜索树会退化为链表
+        }
+
+        assertEquals(n, checkStructure(root(tree)));
+        int height = height(root(tree));
+        assertTrue(height < 4 * (32 - Integer.numberOfLeadingZeros(n)), "height=" + height);
+        assertEquals(List.of(List.of((long) n - 1, (long) n - 1)), rows(tree, 0, 1));
+    }
+
+    @Test
+    void randomOperationsMatchSortedList() {
+        ScoreRankTree tree = new ScoreRankTree();
+        Map<Long, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 5000; i++) {
+            long userId = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                tree.remove(userId);
+                expected.remove(userId);
+            } else {
+                long points = random.nextInt(50);  // 积分范围小, 大量并列
+                tree.put(userId, points);
+                expected.put(userId, points);
+            }
+        }
+
+        List<List<Long>> sorted = new ArrayList<>();
+        expected.forEach((userId, points) -> sorted.add(List.of(userId, points)));
+        sorted.sort(Comparator.<List<Long>>comparingLong(row -> -row.get(1)).thenComparingLong(row -> row.get(0)));
+
+        assertEquals(sorted.size(), checkStructure(root(tree)));
+        assertEquals(sorted, rows(tree, 0, sorted.size()));
+        for (int i = 0; i < sorted.size(); i++) {
+            long userId = sorted.get(i).get(0);
+            long points = sorted.get(i).get(1);
+            assertEquals(i, tree.indexOf(userId));
+            assertEquals(sorted.stream().filter(row -> row.get(1) > points).count(), tree.countAbove(points));
+        }
+    }
+
+    private static List<List<Long>> rows(ScoreRankTree tree, int from, int to) {
+        return tree.range(from, to).stream().map(row -> List.of(row[0], row[1])).toList();
+    }
+
+    private static Object root(ScoreRankTree tree) {
+        return ReflectionTestUtils.getField(tree, "root");
+    }
+
+    /** 校验堆序(父节点优先级不低于子节点)与子树大小, 返回节点数 */
+    private static int checkStructure(Object node) {
+        if (node == null) {
+            return 0;
+        }
+        Object left = ReflectionTestUtils.getField(node, "left");
+        Object right = ReflectionTestUtils.getField(node, "right");
+        int priority = (int) ReflectionTestUtils.getField(node, "priority");
+        for (Object child : new Object[]{left, right}) {
+            if (child != null) {
+                assertTrue(priority >= (int) ReflectionTestUtils.getField(child, "priority"), "堆序被破坏");
+            }
+        }
+        int size = 1 + checkStructure(left) + checkStructure(right);
+        assertEquals(size, (int) ReflectionTestUtils.getField(node, "size"), "子树大小错误");
+        return size;
+    }
+
+    private static int height(Object node) {
+        if (node == null) {
+            return 0;
+        }
+        return 1 + Math.max(height(ReflectionTestUtils.getField(node, "left")),
+                height(ReflectionTestUtils.getField(node, "right")));
+    }
+}
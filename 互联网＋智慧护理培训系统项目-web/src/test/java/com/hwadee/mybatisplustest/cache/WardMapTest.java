@@ -0,0 +1,115 @@
+package com.hwadee.mybatisplustest.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.hwadee.mybatisplustest.entity.Patient;
+import com.hwadee.mybatisplustest.mapper.PatientMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 病区床位图: 重新加载期间的变更不丢失、床位号排序
+ */
+class WardMapTest {
+
+    private final PatientMapper patientMapper = mock(PatientMapper.class);
+    private final WardMap wardMap = new WardMap();
+
+    @BeforeEach
+    void setUp() {
+        // reload 的 select(Patient::getId, ...) 需要实体的表信息
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Patient.class);
+        ReflectionTestUtils.setField(wardMap, "patientMapper", patientMapper);
+    }
+
+    @Test
+    void changesDuringReloadQueryAreReplayed() {
+        when(patientMapper.selectList(any())).thenAnswer(invocation -> {
+            // 查询已读到旧数据之后, 另一个请求新收了病人2、让病人3出院
+            CompletableFuture.runAsync(() -> {
+                wardMap.upsert(patient(2L, "301", "2", "一级护理"));
+                wardMap.remove(3L);
+            }).join();
+            return List.of(patient(1L, "301", "1", "一级护理"), patient(3L, "302", "1", "二级护理"));
+        });
+
+        wardMap.reload();
+
+        Map<String, Object> snapshot = wardMap.snapshot(null, null);
+        assertEquals(2, snapshot.get("occupied"));
+        assertEquals(List.of(1L, 2L), patientIds(snapshot, "301"));
+        assertEquals(Map.of("一级护理", 2), snapshot.get("careLevels"));
+        assertTrue(rooms(snapshot).stream().noneMatch(room -> "302".equals(room.get("roomNo"))));
+    }
+
+    @Test
+    void changesAfterReloadApplyToNewIndex() {
+        when(patientMapper.selectList(any())).thenReturn(List.of(patient(1L, "301", "1", "一级护理")));
+        wardMap.reload();
+
+        wardMap.upsert(patient(1L, "302", "1", "特级护理"));  // 转床
+
+        Map<String, Object> snapshot = wardMap.snapshot(null, null);
+        assertEquals(List.of(1L), patientIds(snapshot, "302"));
+        assertEquals(Map.of("特级护理", 1), snapshot.get("careLevels"));
+    }
+
+    @Test
+    void numericBedsSortByValueOthersLexicographically() {
+        long id = 1;
+        for (String bedNo : List.of("A10", "10", "B1", "2", "A2", "1")) {
+            wardMap.upsert(patient(id++, "301", bedNo, "一级护理"));
+        }
+
+        List<String> bedNos = beds(wardMap.snapshot("301", null), "301").stream().map(WardMap.Bed::bedNo).toList();
+        assertEquals(List.of("1", "2", "10", "A10", "A2", "B1"), bedNos);
+    }
+
+    @Test
+    void compareBedNoIsConsistentAcrossMixedValues() {
+        assertTrue(WardMap.compareBedNo("2", "10") < 0);
+        assertTrue(WardMap.compareBedNo("10", "1A") < 0);  // 纯数字在前
+        assertTrue(WardMap.compareBedNo("2", "1A") < 0);
+        assertTrue(WardMap.compareBedNo("A2", "A10") > 0);  // 非纯数字按字典序
+        assertEquals(0, WardMap.compareBedNo("07", "07"));
+    }
+
+    private static Patient patient(Long id, String roomNo, String bedNo, String careLevel) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setPatientNo("P" + id);
+        patient.setName("病人" + id);
+        patient.setRoomNo(roomNo);
+        patient.setBedNo(bedNo);
+        patient.setCareLevel(careLevel);
+        patient.setStatus(1);
+        return patient;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rooms(Map<String, Object> snapshot) {
+        return (List<Map<String, Object>>) snapshot.get("rooms");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<WardMap.Bed> beds(Map<String, Object> snapshot, String roomNo) {
+        return rooms(snapshot).stream().filter(room -> roomNo.equals(room.get("roomNo")))
+                .findFirst().map(room -> (List<WardMap.Bed>) room.get("beds")).orElse(List.of());
+    }
+
+    private static List<Long> patientIds(Map<String, Object> snapshot, String roomNo) {
+        return beds(snapshot, roomNo).stream().map(WardMap.Bed::patientId).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.hwadee.mybatisplustest.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.hwadee.mybatisplustest.entity.Admin;
+import com.hwadee.mybatisplustest.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 慢SQL日志参数打码
+ *
+ * 条件构造器的参数名是 ew.paramNameValuePairs.MPGENVALn, 密码值要按占位符绑定的列打码(登录查询、改密码的乐观校验)
+ */
+class MapperMetricsInterceptorTest {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("#\\{([^,}]+)[^}]*}");
+
+    private final MybatisConfiguration configuration = new MybatisConfiguration();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(MapperMetricsInterceptor.class);
+
+    @BeforeEach
+    void setUp() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        TableInfoHelper.initTableInfo(assistant, Admin.class);
+        TableInfoHelper.initTableInfo(assistant, User.class);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void masksPasswordBoundThroughQueryWrapper() throws Throwable {
+        LambdaQueryWrapper<Admin> wrapper = Wrappers.<Admin>lambdaQuery()
+                .eq(Admin::getUsername, "admin").eq(Admin::getPassword, "s3cret-plain").eq(Admin::getStatus, 1);
+        String log = slowLog(SqlCommandType.SELECT, "SELECT * FROM admin " + wrapper.getCustomSqlSegment(), wrapper);
+
+        assertFalse(log.contains("s3cret-plain"), log);
+        assertTrue(log.contains("admin"), log);
+        assertTrue(log.contains("******"), log);
+    }
+
+    @Test
+    void masksPasswordSetAndCheckedThroughUpdateWrapper() throws Throwable {
+        LambdaUpdateWrapper<User> wrapper = Wrappers.<User>lambdaUpdate()
+                .set(User::getPassword, "new-hash-value").eq(User::getId, 7L).eq(User::getPassword, "old-hash-value");
+        String log = slowLog(SqlCommandType.UPDATE,
+                "UPDATE user SET " + wrapper.getSqlSet() + " " + wrapper.getCustomSqlSegment(), wrapper);
+
+        assertFalse(log.contains("new-hash-value"), log);
+        assertFalse(log.contains("old-hash-value"), log);
+        assertTrue(log.contains("7"), log);
+    }
+
+    @Test
+    void mapsInsertPlaceholdersToColumnList() {
+        assertArrayEquals(new boolean[]{false, true, false, false, true, false},
+                MapperMetricsInterceptor.sensitivePlaceholders(
+                        "INSERT INTO user (username, password, email) VALUES (?, ?, ?), (?, ?, ?)", 6));
+        assertArrayEquals(new boolean[]{false, true, false},
+                MapperMetricsInterceptor.sensitivePlaceholders(
+                        "SELECT * FROM user WHERE username = ? AND password = ? AND status = ?", 3));
+    }
+
+    /** 把条件构造器生成的 SQL 片段按 MyBatis 的方式绑定成占位符, 以超过阈值的耗时执行一次并返回慢SQL日志 */
+    private String slowLog(SqlCommandType type, String script, Object wrapper) throws Throwable {
+        List<ParameterMapping> mappings = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(script);
+        StringBuilder sql = new StringBuilder();
+        while (matcher.find()) {
+            mappings.add(new ParameterMapping.Builder(configuration, matcher.group(1).trim(), Object.class).build());
+            matcher.appendReplacement(sql, "?");
+        }
+        matcher.appendTail(sql);
+        MappedStatement statement = new MappedStatement.Builder(configuration, "test.AdminMapper.slow",
+                new StaticSqlSource(configuration, sql.toString(), mappings), type).build();
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put(Constants.WRAPPER, wrapper);
+
+        MapperMetricsInterceptor interceptor = new MapperMetricsInterceptor(new SimpleMeterRegistry(), 1);
+        Executor executor = (Executor) Proxy.newProxyInstance(Executor.class.getClassLoader(), new Class<?>[]{Executor.class},
+                (proxy, method, args) -> {
+                    Thread.sleep(5);  // 超过 1ms 阈值
+                    return 1;
+                });
+        interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("update", MappedStatement.class, Object.class),
+                new Object[]{statement, parameter}));
+
+        assertEquals(1, appender.list.size());
+        return appender.list.get(0).getFormattedMessage();
+    }
+}
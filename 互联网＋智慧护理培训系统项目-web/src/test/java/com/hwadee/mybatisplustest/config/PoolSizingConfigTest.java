@@ -0,0 +1,59 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 连接池大小计算, 以及显式配置最大连接数时不覆盖
+ */
+class PoolSizingConfigTest {
+
+    @Test
+    void poolSizeIsBoundByCpuAndDatabase() {
+        assertEquals(17, PoolSizingConfig.poolSize(8, 1, 151, 10, 1));   // 按核数: 8 * 2 + 1
+        assertEquals(35, PoolSizingConfig.poolSize(32, 1, 151, 10, 4));  // 按数据库: (151 - 10) / 4
+        assertEquals(2, PoolSizingConfig.poolSize(1, 0, 10, 10, 1));     // 至少 2
+        assertEquals(17, PoolSizingConfig.poolSize(8, 1, 151, 10, 0));   // 实例数按 1 计
+    }
+
+    @Test
+    void computedSizeAppliesWhenNotConfigured() {
+        HikariDataSource hikari = new HikariDataSource();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("pool.sizing.db-max-connections", "12")
+                .withProperty("pool.sizing.reserved-connections", "2")
+                .withProperty("pool.sizing.instances", "5");
+
+        new PoolSizingConfig.PoolSizer(environment).postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(2, hikari.getMaximumPoolSize());  // (12 - 2) / 5
+    }
+
+    @Test
+    void explicitSizeIsKeptForAnyRelaxedSpelling() {
+        for (String name : new String[]{"spring.datasource.hikari.maximum-pool-size",
+                "spring.datasource.hikari.maximumPoolSize"}) {
+            HikariDataSource hikari = new HikariDataSource();
+            hikari.setMaximumPoolSize(7);
+            new PoolSizingConfig.PoolSizer(new MockEnvironment().withProperty(name, "7"))
+                    .postProcessAfterInitialization(hikari, "dataSource");
+            assertEquals(7, hikari.getMaximumPoolSize(), name);
+        }
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SystemEnvironmentPropertySource(
+                StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                Map.of("SPRING_DATASOURCE_HIKARI_MAXIMUMPOOLSIZE", "7")));
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(7);
+        new PoolSizingConfig.PoolSizer(environment).postProcessAfterInitialization(hikari, "dataSource");
+        assertEquals(7, hikari.getMaximumPoolSize());
+    }
+}
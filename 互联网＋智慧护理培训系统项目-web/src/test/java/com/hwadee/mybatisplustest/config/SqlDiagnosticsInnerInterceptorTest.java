@@ -0,0 +1,90 @@
+package com.hwadee.mybatisplustest.config;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求内 SQL 计数: 按规范化后的 SQL 形状而不是 MappedStatement ID 判断重复
+ */
+class SqlDiagnosticsInnerInterceptorTest {
+
+    private static final String SELECT_LIST = "com.hwadee.mybatisplustest.mapper.UserMapper.selectList";
+
+    private final MybatisConfiguration configuration = new MybatisConfiguration();
+
+    @AfterEach
+    void tearDown() {
+        SqlDiagnosticsInnerInterceptor.end();
+    }
+
+    @Test
+    void differentWrapperQueriesOnSameMapperAreNotRepeats() {
+        SqlDiagnosticsInnerInterceptor interceptor = new SqlDiagnosticsInnerInterceptor(50, 2, true);
+        SqlDiagnosticsInnerInterceptor.begin();
+
+        query(interceptor, SELECT_LIST, "SELECT * FROM user WHERE username = ?");
+        query(interceptor, SELECT_LIST, "SELECT * FROM user WHERE department = ?");
+        query(interceptor, SELECT_LIST, "SELECT * FROM user WHERE status = ?");
+
+        SqlDiagnosticsInnerInterceptor.RequestStats stats = SqlDiagnosticsInnerInterceptor.end();
+        assertEquals(3, stats.total());
+        assertEquals(1, stats.mostRepeatedCount());
+        assertFalse(interceptor.violated(stats));
+    }
+
+    @Test
+    void sameShapeWithDifferentWhitespaceAndInListIsRepeat() {
+        SqlDiagnosticsInnerInterceptor interceptor = new SqlDiagnosticsInnerInterceptor(50, 2, true);
+        SqlDiagnosticsInnerInterceptor.begin();
+
+        query(interceptor, SELECT_LIST, "SELECT * FROM user WHERE id IN (?)");
+        query(interceptor, SELECT_LIST, "SELECT *  FROM user\n WHERE id IN (?, ?,?)");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> query(interceptor, SELECT_LIST, "SELECT * FROM user WHERE id IN ( ? , ? )"));
+
+        assertTrue(e.getMessage().contains("SELECT * FROM user WHERE id IN(?)"), e.getMessage());
+    }
+
+    @Test
+    void updatesAreCountedByBoundSql() {
+        SqlDiagnosticsInnerInterceptor interceptor = new SqlDiagnosticsInnerInterceptor(50, 1, false);
+        SqlDiagnosticsInnerInterceptor.begin();
+        MappedStatement update = statement("com.hwadee.mybatisplustest.mapper.UserMapper.update",
+                "UPDATE user SET status = ? WHERE id = ?", SqlCommandType.UPDATE);
+
+        interceptor.beforeUpdate(null, update, null);
+        interceptor.beforeUpdate(null, update, null);
+
+        SqlDiagnosticsInnerInterceptor.RequestStats stats = SqlDiagnosticsInnerInterceptor.end();
+        assertEquals(2, stats.mostRepeatedCount());
+        assertTrue(interceptor.violated(stats));
+    }
+
+    @Test
+    void notCountedOutsideRequest() {
+        SqlDiagnosticsInnerInterceptor interceptor = new SqlDiagnosticsInnerInterceptor(0, 0, true);
+
+        query(interceptor, SELECT_LIST, "SELECT * FROM user");  // 没有 begin(), 不计数也不抛出
+    }
+
+    private void query(SqlDiagnosticsInnerInterceptor interceptor, String id, String sql) {
+        MappedStatement ms = statement(id, sql, SqlCommandType.SELECT);
+        interceptor.beforeQuery(null, ms, null, null, null, new BoundSql(configuration, sql, List.of(), null));
+    }
+
+    private MappedStatement statement(String id, String sql, SqlCommandType type) {
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, sql), type).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hwadee.mybatisplustest.importer;
+
+import com.hwadee.mybatisplustest.export.CsvRowWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * CSV 读取: 引号字段、BOM、换行, 以及与 CsvRowWriter 导出文件的往返
+ */
+class CsvRowReaderTest {
+
+    @Test
+    void quotedFieldsMayContainCommaNewlineAndQuote() throws IOException {
+        List<String[]> records = read("a,\"b,c\",\"line1\nline2\",\"say \"\"hi\"\"\",\"\"\n");
+
+        assertEquals(1, records.size());
+        assertArrayEquals(new String[]{"a", "b,c", "line1\nline2", "say \"hi\"", ""}, records.get(0));
+    }
+
+    @Test
+    void skipsBomAndHandlesCrlf() throws IOException {
+        List<String[]> records = read("\uFEFF病人编号,姓名\r\nP001, 张三 \r\nP002,\r\n");
+
+        assertArrayEquals(new String[]{"病人编号", "姓名"}, records.get(0));
+        assertArrayEquals(new String[]{"P001", "张三"}, records.get(1));  // 未加引号的字段去掉首尾空格
+        assertArrayEquals(new String[]{"P002", ""}, records.get(2));
+        assertEquals(3, records.size());
+    }
+
+    @Test
+    void lastRecordWithoutNewlineAndRecordNo() throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(stream("h1,h2\nx,y"))) {
+            reader.next();
+            assertArrayEquals(new String[]{"x", "y"}, reader.next());
+            assertEquals(2, reader.recordNo());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void roundTripsWriterOutputIncludingFormulaPrefix() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(out)) {
+            writer.header(List.of("病人编号", "备注"));
+            writer.row("=SUM(A1:A9)", "+86 138");
+            writer.row("@cmd", "-,\"x\"\r\n第二行");
+            writer.row("'普通引号开头", null);
+        }
+
+        List<String[]> records = read(out.toString(StandardCharsets.UTF_8));
+
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[]{"病人编号", "备注"}, records.get(0));
+        assertArrayEquals(new String[]{"=SUM(A1:A9)", "+86 138"}, records.get(1));
+        assertArrayEquals(new String[]{"@cmd", "-,\"x\"\r\n第二行"}, records.get(2));
+        assertArrayEquals(new String[]{"'普通引号开头", ""}, records.get(3));  // 单引号后不是公式字符时保留
+    }
+
+    private static List<String[]> read(String csv) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(stream(csv))) {
+            String[] record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package com.hwadee.mybatisplustest.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 病人导入的表头识别与逐行校验(不含数据库写入)
+ */
+class PatientImporterTest {
+
+    private static final String[] HEADER = {"病人编号", "姓名", "性别", "年龄", "身份证号", "联系电话", "入院日期", "状态", "unknown"};
+
+    @Test
+    void idCardChecksumFollowsGb11643() {
+        assertTrue(PatientImporter.isValidIdCard("11010519491231002X"));
+        assertTrue(PatientImporter.isValidIdCard("440304199001011233"));
+        assertFalse(PatientImporter.isValidIdCard("440304199001011234"));  // 校验码错误
+        assertFalse(PatientImporter.isValidIdCard("110105194902310026"));  // 校验码正确但出生日期不存在(2月31日)
+        assertTrue(PatientImporter.isValidIdCard("110105491231002"));      // 15位旧号不校验
+        assertFalse(PatientImporter.isValidIdCard("11010519491231002x"));  // 小写 x 由调用方转大写
+        assertFalse(PatientImporter.isValidIdCard("1101051949123100"));
+    }
+
+    @Test
+    void parsesRowByChineseOrFieldNameHeader() {
+        int[] columns = PatientImporter.resolveColumns(HEADER);
+        Object[] values = PatientImporter.parse(
+                new String[]{"P001", "张三", "男", "80", "11010519491231002x", "138-0000 0000", "2025/3/1", "出院", "忽略"},
+                columns, 7L);
+
+        assertEquals("P001", values[0]);
+        assertEquals("张三", values[1]);
+        assertEquals(1, values[2]);
+        assertEquals(80, values[3]);
+        assertEquals("11010519491231002X", values[4]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 0, 0)), values[9]);
+        assertEquals(2, values[17]);
+        assertEquals(7L, values[19]);
+
+        int[] byField = PatientImporter.resolveColumns(new String[]{"patientNo", "NAME"});
+        Object[] minimal = PatientImporter.parse(new String[]{"P002", "李四"}, byField, null);
+        assertEquals("李四", minimal[1]);
+        assertEquals(1, minimal[17]);  // 状态默认在院
+    }
+
+    @Test
+    void rejectsInvalidRows() {
+        int[] columns = PatientImporter.resolveColumns(HEADER);
+
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P001", "", "男", "80", "", ""));
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P 001", "张三", "", "", "", ""));
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P001", "张三", "未知", "", "", ""));
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P001", "张三", "", "151", "", ""));
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P001", "张三", "", "", "440304199001011234", ""));
+        assertThrows(IllegalArgumentException.class, () -> parse(columns, "P001", "张三", "", "", "", "abc"));
+        assertThrows(IllegalArgumentException.class, () -> PatientImporter.resolveColumns(new String[]{"姓名", "性别"}));
+    }
+
+    private static Object[] parse(int[] columns, String patientNo, String name, String gender, String age,
+                                  String idCard, String phone) {
+        return PatientImporter.parse(new String[]{patientNo, name, gender, age, idCard, phone, "", "", ""}, columns, null);
+    }
+}
@@ -0,0 +1,157 @@
+package com.hwadee.mybatisplustest.mapper;
+
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.hwadee.mybatisplustest.entity.Admin;
+import com.hwadee.mybatisplustest.service.AdminService;
+import com.hwadee.mybatisplustest.service.UserService;
+import jakarta.annotation.Resource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 热点查询全表扫描检查
+ *
+ * 依次请求各读接口, 对实际执行的每条 SELECT 先在同一连接上执行 EXPLAIN, 以下情况判为全表扫描:
+ * 语句带 WHERE 条件, 且某张表 type=ALL 并且 possible_keys 为空(没有任何索引能用于该条件).
+ * 只看 possible_keys 而不看实际选用的 key: 测试库数据很少时优化器本来就倾向全表扫描, 与索引是否齐全无关.
+ * 没有 WHERE 的语句(启动时加载排行榜/收藏计数等)本身就是整表读取, 不在检查范围.
+ *
+ * 新增查询条件时需在 db/migration 下新增版本脚本补索引, 否则本测试失败.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExplainFullScanTest {
+
+    /** 允许全表扫描的语句ID(标题 LIKE '%关键词%' 之类无法走 B+ 树索引的查询) */
+    private static final Set<String> ALLOWED = Set.of();
+
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final ExplainInnerInterceptor EXPLAIN = new ExplainInnerInterceptor();
+
+    /** 把 EXPLAIN 拦截器追加到分页插件之后, 这样检查的是带 LIMIT 的最终 SQL */
+    @TestConfiguration
+    static class ExplainConfig {
+        @Bean
+        static BeanPostProcessor explainInterceptorRegistrar() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof MybatisPlusInterceptor interceptor) {
+                        interceptor.addInnerInterceptor(EXPLAIN);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private AdminService adminService;
+
+    @BeforeEach
+    void reset() {
+        EXPLAIN.violations.clear();
+        EXPLAIN.checked.clear();
+    }
+
+    @Test
+    void hotQueriesUseIndexes() throws Exception {
+        String[] urls = {
+                "/notification/user/1",                         // user_id + ORDER BY created_at
+                "/notification/user/1?unreadOnly=true",         // user_id + is_read
+                "/notification/unread-count/1",
+                "/learning/progress/user/1",                    // user_id
+                "/learning/progress/user/1/article/1",          // user_id + article_id
+                "/article/view/count/1",                        // article_id
+                "/article/view/user/1",                         // user_id + ORDER BY last_viewed_at
+                "/achievement/user/1",                          // user_id + ORDER BY unlocked_at
+                "/favorite/check?userId=1&articleId=1",         // 唯一键 uk_user_favorite 前缀
+                "/favorite/user/1?type=article",
+                "/favorite/count?articleId=1",                  // article_id
+                "/favorite/count?videoId=1",                    // video_id
+                "/training/article/list",                       // publish_status + ORDER BY publish_at, id
+                "/training/article/list?categoryId=1",          // category_id + publish_status
+                "/training/article/page",                       // ORDER BY publish_at, id
+                "/training/article/page?categoryId=1",
+                "/training/video/list",
+                "/training/video/list?categoryId=1",
+                "/training/video/page?categoryId=1",
+                "/training/ppt/list",
+                "/training/ppt/list?categoryId=1",
+                "/training/ppt/page?categoryId=1",
+                "/patient/page?keyword=13800&status=1",         // 电话前缀 + 状态
+                "/patient/page?status=1",                       // status + ORDER BY admission_date
+        };
+        for (String url : urls) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        }
+        userService.getUserByUsername("explain-check");  // 与登录相同的用户名查询
+        adminService.lambdaQuery().eq(Admin::getUsername, "explain-check").one();  // 与 AdminController.login 相同条件
+
+        assertTrue(!EXPLAIN.checked.isEmpty(), "没有拦截到任何查询, EXPLAIN 拦截器未生效");
+        assertTrue(EXPLAIN.violations.isEmpty(), "以下查询会全表扫描, 请在 db/migration 中新增脚本补充索引:\n"
+                + String.join("\n", EXPLAIN.violations));
+    }
+
+    /** 在查询执行前用同一连接执行 EXPLAIN, 记录全表扫描的语句 */
+    static class ExplainInnerInterceptor implements InnerInterceptor {
+
+        final List<String> checked = Collections.synchronizedList(new ArrayList<>());
+        final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                                ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+            String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+            checked.add(ms.getId());
+            if (!WHERE.matcher(sql).find() || ALLOWED.contains(ms.getId())) {
+                return;
+            }
+            Connection connection = executor.getTransaction().getConnection();
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                new DefaultParameterHandler(ms, parameter, boundSql).setParameters(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if ("ALL".equals(rs.getString("type")) && rs.getString("possible_keys") == null) {
+                            violations.add(ms.getId() + " 表 " + rs.getString("table") + ": " + sql);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hwadee.mybatisplustest.migration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据库迁移脚本执行器(H2 内存库, MySQL 兼容模式)
+ *
+ * H2 没有 MySQL 命名锁, 用 Java 函数注册 GET_LOCK / RELEASE_LOCK
+ */
+class SchemaMigratorTest {
+
+    private static final String LOCATIONS = "classpath:db/migration-test/ok";
+
+    private JdbcDataSource dataSource;
+    private SchemaMigrator migrator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("CREATE ALIAS GET_LOCK FOR '" + Locks.class.getName() + ".getLock'");
+            st.execute("CREATE ALIAS RELEASE_LOCK FOR '" + Locks.class.getName() + ".releaseLock'");
+            // 空库时 H2 报 42S04 而不是 MySQL 的 42S02(表不存在), 先建一张无关的表
+            st.execute("CREATE TABLE `existing` (`id` bigint)");
+        }
+        migrator = migrator(LOCATIONS);
+    }
+
+    @Test
+    void loadScriptsSortsByNumericVersion() throws Exception {
+        List<SchemaMigrator.Script> scripts = migrator.loadScripts();
+
+        assertEquals(List.of(1, 2, 10), scripts.stream().map(SchemaMigrator.Script::version).toList());
+        assertEquals("create item", scripts.get(0).description());
+        assertEquals(64, scripts.get(0).checksum().length());
+    }
+
+    @Test
+    void loadScriptsRejectsBadFileName() {
+        assertThrows(IllegalStateException.class, () -> migrator("classpath:db/migration-test/bad-name").loadScripts());
+    }
+
+    @Test
+    void pendingSkipsAppliedVersions() throws Exception {
+        List<SchemaMigrator.Script> scripts = migrator.loadScripts();
+        Map<Integer, SchemaMigrator.Applied> history = Map.of(
+                1, new SchemaMigrator.Applied(1, scripts.get(0).checksum(), true));
+
+        assertEquals(List.of(2, 10), SchemaMigrator.pending(scripts, history).stream()
+                .map(SchemaMigrator.Script::version).toList());
+    }
+
+    @Test
+    void validateRejectsChangedChecksumAndFailedVersion() throws Exception {
+        List<SchemaMigrator.Script> scripts = migrator.loadScripts();
+
+        assertThrows(IllegalStateException.class, () -> migrator.validate(scripts,
+                Map.of(1, new SchemaMigrator.Applied(1, "0".repeat(64), true))));
+        assertThrows(IllegalStateException.class, () -> migrator.validate(scripts,
+                Map.of(2, new SchemaMigrator.Applied(2, scripts.get(1).checksum(), false))));
+        assertDoesNotThrow(() -> migrator.validate(scripts,  // 类路径上没有的版本只告警
+                Map.of(99, new SchemaMigrator.Applied(99, "0".repeat(64), true))));
+    }
+
+    @Test
+    void migrateAppliesPendingScriptsOnce() throws Exception {
+        migrator.migrate();
+        migrator.migrate();  // 第二次没有待执行脚本, 不会重复插入
+
+        try (Connection conn = dataSource.getConnection()) {
+            assertEquals(3, migrator.readHistory(conn).size());
+            assertTrue(migrator.readHistory(conn).values().stream().allMatch(SchemaMigrator.Applied::success));
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM `item`")) {
+                rs.next();
+                assertEquals(2, rs.getInt(1));
+            }
+        }
+    }
+
+    private SchemaMigrator migrator(String locations) {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+        ReflectionTestUtils.setField(migrator, "enabled", true);
+        ReflectionTestUtils.setField(migrator, "locations", locations);
+        ReflectionTestUtils.setField(migrator, "validateChecksums", true);
+        ReflectionTestUtils.setField(migrator, "lockTimeoutSeconds", 1);
+        return migrator;
+    }
+
+    /** 单进程测试, 命名锁总是取得成功 */
+    public static class Locks {
+        public static int getLock(String name, int timeoutSeconds) {
+            return 1;
+        }
+
+        public static int releaseLock(String name) {
+            return 1;
+        }
+    }
+}
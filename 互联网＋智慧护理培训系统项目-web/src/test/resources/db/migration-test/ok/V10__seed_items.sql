@@ -0,0 +1,2 @@
+INSERT INTO `item` (`name`) VALUES ('a');
+INSERT INTO `item` (`name`) VALUES ('b');
@@ -0,0 +1,4 @@
+CREATE TABLE `item` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  PRIMARY KEY (`id`)
+);